@@ -0,0 +1,19 @@
+package net.developerpass.polimi.configuration;
+
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfiguration {
+
+	/**
+	 * Associations are lazy and the session is closed before the response is written (open-in-view is disabled):
+	 * associations outside the fetch plan are written as null instead of being initialized
+	 */
+	@Bean
+	public Hibernate5Module hibernate5Module() {
+		return new Hibernate5Module();
+	}
+
+}
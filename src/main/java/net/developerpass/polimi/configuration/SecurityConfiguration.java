@@ -1,10 +1,10 @@
 package net.developerpass.polimi.configuration;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import net.developerpass.polimi.configuration.error.ErrorResponse;
+import net.developerpass.polimi.security.RestAuthenticationFailureHandler;
 import net.developerpass.polimi.security.TokenAuthenticationFilter;
 import net.developerpass.polimi.security.TokenAuthenticationProvider;
+import net.developerpass.polimi.service.jwt.JWTService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,7 +27,6 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.security.config.http.SessionCreationPolicy.STATELESS;
 
 @Configuration
@@ -36,6 +35,7 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     private final TokenAuthenticationProvider authenticationProvider;
+    private final JWTService jwtService;
     private static final RequestMatcher PROTECTED_URLS = new OrRequestMatcher(
         new AntPathRequestMatcher("/api/student/**"),
         new AntPathRequestMatcher("/api/professor/**")
@@ -70,20 +70,10 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     @Bean
     TokenAuthenticationFilter restAuthenticationFilter() throws Exception {
-        TokenAuthenticationFilter filter = new TokenAuthenticationFilter(PROTECTED_URLS);
+        TokenAuthenticationFilter filter = new TokenAuthenticationFilter(PROTECTED_URLS, jwtService);
         filter.setAuthenticationManager(authenticationManager());
         filter.setAuthenticationSuccessHandler(successHandler());
-        filter.setAuthenticationFailureHandler((request, response, authException) -> {
-            response.setContentType("application/json");
-            response.setStatus(FORBIDDEN.value());
-            new ObjectMapper().findAndRegisterModules().writeValue(
-                response.getOutputStream(),
-                new ErrorResponse(
-                    FORBIDDEN.value(),
-                    "NOT_LOGGED"
-                )
-            );
-        });
+        filter.setAuthenticationFailureHandler(new RestAuthenticationFailureHandler());
         return filter;
     }
 
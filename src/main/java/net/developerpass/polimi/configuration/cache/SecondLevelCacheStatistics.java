@@ -0,0 +1,56 @@
+package net.developerpass.polimi.configuration.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hit, miss and put counts of the Hibernate second-level cache regions (see ehcache.xml).
+ * The counts are collected only with {@code spring.jpa.properties.hibernate.generate_statistics=true}.
+ */
+@Component
+public class SecondLevelCacheStatistics {
+	private final org.hibernate.stat.Statistics statistics;
+
+	public SecondLevelCacheStatistics(EntityManagerFactory entityManagerFactory) {
+		this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	/**
+	 * Statistics of every entity and natural id region, by region name, empty while the counts are not collected
+	 */
+	public Map<String, Statistics> getStatistics() {
+		Map<String, Statistics> regions = new TreeMap<>();
+		if (!statistics.isStatisticsEnabled()) {
+			return regions;
+		}
+		Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+				.forEach(region -> regions.put(region, getStatistics(region)));
+		return regions;
+	}
+
+	public Statistics getStatistics(String region) {
+		CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+		return new Statistics(
+				regionStatistics.getHitCount(),
+				regionStatistics.getMissCount(),
+				regionStatistics.getPutCount());
+	}
+
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Statistics {
+		private final long hitCount;
+		private final long missCount;
+		private final long putCount;
+	}
+}
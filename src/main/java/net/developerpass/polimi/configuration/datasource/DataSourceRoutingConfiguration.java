@@ -0,0 +1,66 @@
+package net.developerpass.polimi.configuration.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces the single {@code spring.datasource} pool with a primary and one pool per {@code datasource.replica.urls},
+ * the replicas share the primary settings unless their credentials are set.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.urls")
+public class DataSourceRoutingConfiguration {
+
+	/**
+	 * Connections are fetched from the routing data source on their first statement,
+	 * once the transaction read-only flag is known.
+	 * The routing data source is built here rather than injected: the data source initializer resolves this bean
+	 * as soon as any data source is created, so a dependency on another data source bean forms a cycle.
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource(
+			DataSourceProperties properties,
+			@Value("${datasource.replica.urls}") List<String> replicaUrls,
+			@Value("${datasource.replica.username:}") String replicaUsername,
+			@Value("${datasource.replica.password:}") String replicaPassword,
+			@Value("${datasource.replica.read-your-writes-ms:2000}") long readYourWritesMs,
+			@Value("${datasource.replica.read-your-writes.max-size:10000}") int readYourWritesMaxSize) {
+		DataSource primary = properties.initializeDataSourceBuilder().build();
+		List<DataSource> replicas = replicaUrls.stream()
+				.map(String::trim)
+				.filter(StringUtils::hasText)
+				.map(url -> {
+					DataSourceBuilder<?> builder = properties.initializeDataSourceBuilder().url(url);
+					if (StringUtils.hasText(replicaUsername)) {
+						builder.username(replicaUsername).password(replicaPassword);
+					}
+					return builder.build();
+				})
+				.collect(Collectors.toList());
+
+		ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, replicas, readYourWritesMaxSize, Duration.ofMillis(readYourWritesMs));
+		dataSource.afterPropertiesSet();
+		return new LazyConnectionDataSourceProxy(dataSource);
+	}
+
+	/**
+	 * The routing data source behind {@link #dataSource}, for its statistics
+	 */
+	@Bean
+	public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSource dataSource) {
+		return (ReadWriteRoutingDataSource) ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource();
+	}
+}
@@ -0,0 +1,161 @@
+package net.developerpass.polimi.configuration.datasource;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to the replicas in round robin and everything else to the primary.
+ * Once a user commits a read-write transaction, their reads stay on the primary for the read-your-writes window,
+ * so the replication lag never hides their own changes.
+ * The window is kept in the memory of the node that served the write: with several nodes the load balancer must
+ * route every user to the same node (sticky sessions), otherwise a read on another node may miss the write.
+ * Checking the window is lock-free, only a write that finds {@code maxWriters} users tracked pays for dropping
+ * the closed windows.
+ * The lookup key is resolved when the connection is acquired, the data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} to see the transaction read-only flag.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+	public static final String PRIMARY = "primary";
+	public static final String REPLICA = "replica-";
+
+	private final List<DataSource> targets;
+	private final int replicas;
+	private final AtomicInteger nextReplica = new AtomicInteger();
+	private final long readYourWritesNanos;
+	private final int maxWriters;
+	/**
+	 * Users with an open read-your-writes window, by the {@link System#nanoTime()} it closes at
+	 */
+	private final ConcurrentHashMap<String, Long> recentWriters = new ConcurrentHashMap<>();
+	private final AtomicBoolean purging = new AtomicBoolean();
+
+	private final LongAdder primaryReads = new LongAdder();
+	private final LongAdder replicaReads = new LongAdder();
+
+	public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, int maxWriters, Duration readYourWrites) {
+		Map<Object, Object> targetDataSources = new HashMap<>();
+		targetDataSources.put(PRIMARY, primary);
+		for (int i = 0; i < replicas.size(); i++) {
+			targetDataSources.put(REPLICA + i, replicas.get(i));
+		}
+		setTargetDataSources(targetDataSources);
+		setDefaultTargetDataSource(primary);
+
+		this.targets = new ArrayList<>();
+		this.targets.add(primary);
+		this.targets.addAll(replicas);
+		this.replicas = replicas.size();
+		this.readYourWritesNanos = readYourWrites.toNanos();
+		this.maxWriters = Math.max(1, maxWriters);
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			registerWrite();
+			return PRIMARY;
+		}
+		if (replicas == 0 || currentUser().filter(this::isRecentWriter).isPresent()) {
+			primaryReads.increment();
+			return PRIMARY;
+		}
+		replicaReads.increment();
+		return REPLICA + Math.floorMod(nextReplica.getAndIncrement(), replicas);
+	}
+
+	/**
+	 * Starts the read-your-writes window of the current user when the surrounding transaction commits
+	 */
+	private void registerWrite() {
+		if (readYourWritesNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		currentUser().ifPresent(user -> TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCommit() {
+				if (recentWriters.size() >= maxWriters) {
+					purge();
+				}
+				recentWriters.put(user, System.nanoTime() + readYourWritesNanos);
+			}
+		}));
+	}
+
+	private boolean isRecentWriter(String user) {
+		Long closesAt = recentWriters.get(user);
+		return closesAt != null && closesAt - System.nanoTime() > 0;
+	}
+
+	/**
+	 * Drops the closed windows, one thread at a time. If every window is still open the oldest are not known,
+	 * all of them are dropped: those users may read from a replica before the end of their window.
+	 */
+	private void purge() {
+		if (!purging.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			long now = System.nanoTime();
+			recentWriters.values().removeIf(closesAt -> closesAt - now <= 0);
+			if (recentWriters.size() >= maxWriters) {
+				recentWriters.clear();
+			}
+		} finally {
+			purging.set(false);
+		}
+	}
+
+	private Optional<String> currentUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(authentication.getName());
+	}
+
+	public Statistics getStatistics() {
+		return new Statistics(primaryReads.sum(), replicaReads.sum(), recentWriters.size());
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (DataSource target : targets) {
+			if (target instanceof Closeable) {
+				((Closeable) target).close();
+			}
+		}
+	}
+
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Statistics {
+		/**
+		 * Read-only transactions kept on the primary, no replica or within a read-your-writes window
+		 */
+		private final long primaryReadCount;
+		private final long replicaReadCount;
+		private final int recentWriterCount;
+	}
+}
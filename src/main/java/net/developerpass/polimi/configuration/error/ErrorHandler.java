@@ -1,6 +1,7 @@
 package net.developerpass.polimi.configuration.error;
 
 import io.swagger.v3.oas.annotations.Hidden;
+import net.developerpass.polimi.security.ratelimit.RateLimitExceededException;
 import net.developerpass.polimi.service.jwt.JWTService;
 import org.apache.catalina.connector.ClientAbortException;
 import org.hibernate.AssertionFailure;
@@ -9,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -61,6 +63,10 @@ public class ErrorHandler {
 			error = HttpStatus.BAD_REQUEST;
 		} else if (ex instanceof JWTService.TokenVerificationException) {
 			error = HttpStatus.FORBIDDEN;
+		} else if (ex instanceof RateLimitExceededException) {
+			error = HttpStatus.TOO_MANY_REQUESTS;
+		} else if (ex instanceof ConcurrencyFailureException) {
+			error = HttpStatus.CONFLICT;
 		} else if (ex instanceof HttpRequestMethodNotSupportedException ||
 				ex instanceof HttpMediaTypeNotSupportedException ||
 				ex instanceof HttpMediaTypeNotAcceptableException ||
@@ -77,7 +83,8 @@ public class ErrorHandler {
 
 		if (!(ex instanceof InvalidParameterException
 				|| ex instanceof BadCredentialsException
-				|| ex instanceof JWTService.TokenVerificationException)) {
+				|| ex instanceof JWTService.TokenVerificationException
+				|| ex instanceof RateLimitExceededException)) {
 			log.error(String.format("ERROR: %s; MESSAGE: %s, USER: %s STACKTRACE: %s",
 					ex.getClass().toString(), ex.getMessage(), getUserData(), stackTraceFilter(ex.getStackTrace())));
 		} else {
@@ -92,6 +99,9 @@ public class ErrorHandler {
 
 		HttpHeaders headers = new HttpHeaders();
 		headers.setContentType(new MediaType("application", "json"));
+		if (ex instanceof RateLimitExceededException) {
+			headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(((RateLimitExceededException) ex).getRetryAfterSeconds()));
+		}
 
 		if (HttpStatus.INTERNAL_SERVER_ERROR.equals(error)) {
 			request.setAttribute(WebUtils.ERROR_EXCEPTION_ATTRIBUTE, ex, WebRequest.SCOPE_REQUEST);
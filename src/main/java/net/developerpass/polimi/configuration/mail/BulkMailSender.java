@@ -0,0 +1,148 @@
+package net.developerpass.polimi.configuration.mail;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends large amounts of mails over a pool of open SMTP connections.
+ * Messages are split in batches, each batch is sent by one worker over one pooled {@link Transport}.
+ */
+@Component
+public class BulkMailSender implements DisposableBean {
+	private final Logger log = LoggerFactory.getLogger(this.getClass());
+	private final JavaMailSenderImpl mailSender;
+	private final BlockingQueue<Transport> transports;
+	private final ExecutorService workers;
+	private final int batchSize;
+
+	public BulkMailSender(
+			@Lazy JavaMailSenderImpl mailSender,
+			@Value("${mail.bulk.pool-size:4}") int poolSize,
+			@Value("${mail.bulk.batch-size:50}") int batchSize) {
+		this.mailSender = mailSender;
+		this.transports = new ArrayBlockingQueue<>(poolSize);
+		this.batchSize = batchSize;
+		AtomicInteger threads = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(poolSize, runnable -> {
+			Thread thread = new Thread(runnable, "bulk-mail-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Sends all the messages and waits for completion.
+	 *
+	 * @return the messages that could not be sent with their error, empty when all were sent
+	 */
+	public Map<MimeMessage, Exception> send(List<MimeMessage> messages) {
+		Map<MimeMessage, Exception> failures = new ConcurrentHashMap<>();
+		List<Future<?>> batches = new ArrayList<>();
+		for (int from = 0; from < messages.size(); from += batchSize) {
+			List<MimeMessage> batch = messages.subList(from, Math.min(messages.size(), from + batchSize));
+			batches.add(workers.submit(() -> sendBatch(batch, failures)));
+		}
+		for (Future<?> batch : batches) {
+			try {
+				batch.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while sending mails", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Unable to send mails", e.getCause());
+			}
+		}
+		return failures;
+	}
+
+	private void sendBatch(List<MimeMessage> batch, Map<MimeMessage, Exception> failures) {
+		Transport transport = null;
+		try {
+			for (int i = 0; i < batch.size(); i++) {
+				MimeMessage message = batch.get(i);
+				if (transport == null || !transport.isConnected()) {
+					close(transport);
+					transport = null;
+					try {
+						transport = borrow();
+					} catch (MessagingException e) {
+						// No connection, the rest of the batch cannot be sent
+						for (MimeMessage unsent : batch.subList(i, batch.size())) {
+							failures.put(unsent, e);
+						}
+						return;
+					}
+				}
+				try {
+					if (message.getSentDate() == null) {
+						message.setSentDate(new Date());
+					}
+					message.saveChanges();
+					transport.sendMessage(message, message.getAllRecipients());
+				} catch (MessagingException e) {
+					failures.put(message, e);
+				}
+			}
+		} finally {
+			release(transport);
+		}
+	}
+
+	private Transport borrow() throws MessagingException {
+		Transport transport = transports.poll();
+		if (transport != null && transport.isConnected()) {
+			return transport;
+		}
+		close(transport);
+		transport = mailSender.getSession().getTransport(mailSender.getProtocol() == null ? "smtp" : mailSender.getProtocol());
+		transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+		return transport;
+	}
+
+	private void release(Transport transport) {
+		if (transport != null && (!transport.isConnected() || !transports.offer(transport))) {
+			close(transport);
+		}
+	}
+
+	private void close(Transport transport) {
+		if (transport == null) {
+			return;
+		}
+		try {
+			transport.close();
+		} catch (MessagingException e) {
+			log.warn(String.format("ERROR WHILE CLOSING MAIL TRANSPORT: %s", e.getMessage()));
+		}
+	}
+
+	@Override
+	public void destroy() {
+		workers.shutdownNow();
+		Transport transport;
+		while ((transport = transports.poll()) != null) {
+			close(transport);
+		}
+	}
+}
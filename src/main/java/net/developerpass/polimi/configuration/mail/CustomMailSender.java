@@ -1,6 +1,8 @@
 package net.developerpass.polimi.configuration.mail;
 
 import lombok.RequiredArgsConstructor;
+import net.developerpass.polimi.entity.OutboxMail;
+import net.developerpass.polimi.repository.OutboxMailRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,9 +11,13 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
+import javax.mail.MessagingException;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
+import java.io.UnsupportedEncodingException;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 @SuppressWarnings({"SpellCheckingInspection", "FieldCanBeLocal"})
@@ -22,16 +28,21 @@ public class CustomMailSender {
     private final String from = "5b7a69fc5f-4a2988@inbox.mailtrap.io";
     private final Logger log = LoggerFactory.getLogger(this.getClass());
     private final JavaMailSender emailSender;
+    private final OutboxMailRepository outboxMailRepository;
+
+    public MimeMessage createMail(String to, String subject, String document, Boolean html) throws MessagingException, UnsupportedEncodingException {
+        MimeMessage mimeMessage = emailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, "UTF-8");
+        message.setTo(to);
+        message.setFrom(new InternetAddress(from, fromName));
+        message.setSubject(subject);
+        message.setText(document, html);
+        return mimeMessage;
+    }
 
     public void sendMail(String to, String subject, String document, Boolean html, String typeMail){
         try{
-            MimeMessage mimeMessage = emailSender.createMimeMessage();
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, "UTF-8");
-            message.setTo(to);
-            message.setFrom(new InternetAddress(from, fromName));
-            message.setSubject(subject);
-            message.setText(document, html);
-            emailSender.send(mimeMessage);
+            emailSender.send(createMail(to, subject, document, html));
             log.info(String.format("EMAIL (%s) SENDED TO: %s", typeMail, to));
         } catch (Exception ignored) {
             log.error(String.format("ERROR WHILE SENDING EMAIL (%s) TO: %s", typeMail, to));
@@ -39,12 +50,27 @@ public class CustomMailSender {
         }
     }
 
+    /**
+     * Stores the mail in the outbox within the current transaction, it is sent by {@link OutboxMailDispatcher}
+     */
+    public void queueMail(String to, String subject, String document, Boolean html, String typeMail) {
+        outboxMailRepository.save(new OutboxMail(to, subject, document, html, typeMail));
+        log.info(String.format("EMAIL (%s) QUEUED FOR: %s", typeMail, to));
+    }
+
+    public void queueMails(List<String> to, String subject, String document, Boolean html, String typeMail) {
+        outboxMailRepository.saveAll(to.stream()
+                .map(recipient -> new OutboxMail(recipient, subject, document, html, typeMail))
+                .collect(Collectors.toList()));
+        log.info(String.format("EMAIL (%s) QUEUED FOR %d RECIPIENTS", typeMail, to.size()));
+    }
+
     public boolean sendResetStudent(String to, Map<String, String> data){
         if(!data.containsKey("password")) return false;
 
         String document = "New password: " + data.get("password");
 
-        sendMail(to, "Reset Password", document, false, "sendResetPasswordStudent");
+        queueMail(to, "Reset Password", document, false, "sendResetPasswordStudent");
         return true;
     }
 
@@ -53,7 +79,25 @@ public class CustomMailSender {
 
         String document = "New password: " + data.get("password");
 
-        sendMail(to, "Reset Password", document, false, "sendResetPasswordProfessor");
+        queueMail(to, "Reset Password", document, false, "sendResetPasswordProfessor");
+        return true;
+    }
+
+    public boolean sendDiscussionRescheduled(List<String> to, Map<String, String> data){
+        if(!data.containsKey("name") || !data.containsKey("date")) return false;
+
+        String document = String.format("The discussion \"%s\" has been moved to %s", data.get("name"), data.get("date"));
+
+        queueMails(to, "Discussion rescheduled", document, false, "sendDiscussionRescheduled");
+        return true;
+    }
+
+    public boolean sendDiscussionCancelled(List<String> to, Map<String, String> data){
+        if(!data.containsKey("name") || !data.containsKey("date")) return false;
+
+        String document = String.format("The discussion \"%s\" of %s has been cancelled", data.get("name"), data.get("date"));
+
+        queueMails(to, "Discussion cancelled", document, false, "sendDiscussionCancelled");
         return true;
     }
 }
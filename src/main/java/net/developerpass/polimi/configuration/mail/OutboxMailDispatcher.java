@@ -0,0 +1,169 @@
+package net.developerpass.polimi.configuration.mail;
+
+import net.developerpass.polimi.entity.OutboxMail;
+import net.developerpass.polimi.repository.OutboxMailRepository;
+import net.developerpass.polimi.utils.object.OutboxStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Delivers the mails stored in the outbox in batches through {@link BulkMailSender}, outside of any request.
+ * Failed mails are retried with exponential backoff until {@code mail.outbox.max-attempts}.
+ * Every batch is claimed before it is sent, so dispatchers running on several nodes never send the same mail.
+ */
+@Component
+@ConditionalOnProperty(name = "mail.outbox.enabled", matchIfMissing = true)
+public class OutboxMailDispatcher {
+	private static final int MAX_ERROR_LENGTH = 255;
+
+	private final Logger log = LoggerFactory.getLogger(this.getClass());
+	private final BulkMailSender bulkMailSender;
+	private final CustomMailSender customMailSender;
+	private final OutboxMailRepository outboxMailRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final int maxAttempts;
+	private final long backoffSeconds;
+	private final long maxBackoffSeconds;
+	private final long lockSeconds;
+
+	public OutboxMailDispatcher(
+			BulkMailSender bulkMailSender,
+			CustomMailSender customMailSender,
+			OutboxMailRepository outboxMailRepository,
+			TransactionTemplate transactionTemplate,
+			@Value("${mail.outbox.batch-size:500}") int batchSize,
+			@Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+			@Value("${mail.outbox.backoff-seconds:10}") long backoffSeconds,
+			@Value("${mail.outbox.max-backoff-seconds:3600}") long maxBackoffSeconds,
+			@Value("${mail.outbox.lock-seconds:600}") long lockSeconds) {
+		this.bulkMailSender = bulkMailSender;
+		this.customMailSender = customMailSender;
+		this.outboxMailRepository = outboxMailRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.batchSize = batchSize;
+		this.maxAttempts = maxAttempts;
+		this.backoffSeconds = backoffSeconds;
+		this.maxBackoffSeconds = maxBackoffSeconds;
+		this.lockSeconds = lockSeconds;
+	}
+
+	@Scheduled(
+			initialDelayString = "${mail.outbox.poll-delay-ms:5000}",
+			fixedDelayString = "${mail.outbox.poll-delay-ms:5000}")
+	public void scheduledDispatch() {
+		int processed;
+		do {
+			processed = dispatch();
+		} while (processed == batchSize);
+	}
+
+	/**
+	 * Sends one batch of due mails.
+	 *
+	 * @return the number of mails processed
+	 */
+	public int dispatch() {
+		LocalDateTime now = LocalDateTime.now();
+		List<OutboxMail> mails = claim(now);
+		if (mails.isEmpty()) {
+			return 0;
+		}
+
+		Map<MimeMessage, OutboxMail> messages = new IdentityHashMap<>();
+		for (OutboxMail mail : mails) {
+			try {
+				messages.put(customMailSender.createMail(mail.getRecipient(), mail.getSubject(), mail.getDocument(), mail.getHtml()), mail);
+			} catch (Exception e) {
+				failed(mail, e, now);
+			}
+		}
+
+		Map<MimeMessage, Exception> failures;
+		try {
+			failures = bulkMailSender.send(new ArrayList<>(messages.keySet()));
+		} catch (Exception e) {
+			failures = new IdentityHashMap<>();
+			for (MimeMessage message : messages.keySet()) {
+				failures.put(message, e);
+			}
+		}
+
+		for (Map.Entry<MimeMessage, OutboxMail> entry : messages.entrySet()) {
+			Exception failure = failures.get(entry.getKey());
+			if (failure == null) {
+				sent(entry.getValue(), now);
+			} else {
+				failed(entry.getValue(), failure, now);
+			}
+		}
+		outboxMailRepository.saveAll(mails);
+		return mails.size();
+	}
+
+	/**
+	 * Claims a batch of due mails for this dispatch, committed before any of them is sent. The conditional update
+	 * skips the rows claimed by another dispatcher after they were read, the mails returned are the ones it took.
+	 * A claim expires after {@code mail.outbox.lock-seconds}: the mails of a dispatcher stopped while sending are
+	 * claimed and sent again, the delay must be longer than the time taken to send a batch.
+	 */
+	private List<OutboxMail> claim(LocalDateTime now) {
+		String lockedBy = UUID.randomUUID().toString();
+		return transactionTemplate.execute(status -> {
+			List<Long> ids = outboxMailRepository.findAllIdsToClaim(now, PageRequest.of(0, batchSize));
+			if (ids.isEmpty() || outboxMailRepository.claim(ids, lockedBy, now.plusSeconds(lockSeconds), now) == 0) {
+				return List.of();
+			}
+			return outboxMailRepository.findAllByLockedByOrderByIdAsc(lockedBy);
+		});
+	}
+
+	private void release(OutboxMail mail) {
+		mail.setLockedBy(null);
+		mail.setLockedUntil(null);
+	}
+
+	private void sent(OutboxMail mail, LocalDateTime now) {
+		mail.setStatus(OutboxStatus.Sent);
+		mail.setAttempts(mail.getAttempts() + 1);
+		mail.setSentOn(now);
+		mail.setDocument(null);
+		mail.setLastError(null);
+		release(mail);
+		log.info(String.format("EMAIL (%s) SENDED TO: %s", mail.getTypeMail(), mail.getRecipient()));
+	}
+
+	private void failed(OutboxMail mail, Exception e, LocalDateTime now) {
+		int attempts = mail.getAttempts() + 1;
+		mail.setAttempts(attempts);
+		String error = String.valueOf(e.getMessage());
+		mail.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+		release(mail);
+		if (attempts >= maxAttempts) {
+			mail.setStatus(OutboxStatus.Failed);
+			mail.setDocument(null);
+			log.error(String.format("ERROR WHILE SENDING EMAIL (%s) TO: %s, GIVING UP AFTER %d ATTEMPTS",
+					mail.getTypeMail(), mail.getRecipient(), attempts));
+		} else {
+			long delay = Math.min(maxBackoffSeconds, backoffSeconds << Math.min(attempts - 1, 30));
+			mail.setStatus(OutboxStatus.Pending);
+			mail.setNextAttemptOn(now.plusSeconds(delay));
+			log.warn(String.format("ERROR WHILE SENDING EMAIL (%s) TO: %s, RETRY IN %d SECONDS",
+					mail.getTypeMail(), mail.getRecipient(), delay));
+		}
+	}
+}
@@ -15,10 +15,25 @@ import net.developerpass.polimi.entity.Group;
 import net.developerpass.polimi.entity.Professor;
 import net.developerpass.polimi.entity.Reservation;
 import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.entity.history.DiscussionHistory;
+import net.developerpass.polimi.entity.history.GroupHistory;
+import net.developerpass.polimi.entity.projection.DiscussionSummary;
+import net.developerpass.polimi.entity.projection.FileSummary;
+import net.developerpass.polimi.entity.projection.GroupSummary;
+import net.developerpass.polimi.entity.projection.ProfessorSummary;
+import net.developerpass.polimi.entity.projection.ReservationSummary;
+import net.developerpass.polimi.entity.projection.StudentSummary;
 import net.developerpass.polimi.service.ProfessorService;
+import net.developerpass.polimi.service.StatisticsService;
+import net.developerpass.polimi.service.StudentImportService;
+import net.developerpass.polimi.utils.object.ApplicationStatistics;
+import net.developerpass.polimi.utils.object.CursorPage;
+import net.developerpass.polimi.utils.object.StudentImportReport;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -26,10 +41,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 
 @CrossOrigin
@@ -42,6 +59,8 @@ import java.time.LocalDateTime;
 public class ProfessorApiController {
 
 	private final ProfessorService professorService;
+	private final StudentImportService studentImportService;
+	private final StatisticsService statisticsService;
 
 	@GetMapping(path = "/profile", produces = "application/json")
 	@Operation(summary = "Get professor data")
@@ -54,6 +73,17 @@ public class ProfessorApiController {
 		return professorService.getProfile();
 	}
 
+	@GetMapping(path = "/statistics", produces = "application/json")
+	@Operation(summary = "Get cache, rate limit and datasource routing statistics", description = "Counters of the node serving the request")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	ApplicationStatistics getStatistics() {
+		return statisticsService.getStatistics();
+	}
+
 
 	@GetMapping(path = "/professor/list", produces = "application/json")
 	@Operation(summary = "Get professors")
@@ -62,11 +92,35 @@ public class ProfessorApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<Professor> getProfessors(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+	Page<ProfessorSummary> getProfessors(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 								  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return professorService.getProfessors(page, pageSize);
 	}
 
+	@GetMapping(path = "/professor/list/slice", produces = "application/json")
+	@Operation(summary = "Get professors without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<ProfessorSummary> getProfessorsSlice(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+								  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getProfessorsSlice(page, pageSize);
+	}
+
+	@GetMapping(path = "/professor/list/cursor", produces = "application/json")
+	@Operation(summary = "Get professors by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<ProfessorSummary> getProfessorsByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+								  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getProfessorsByCursor(cursor, pageSize);
+	}
+
 	@GetMapping(path = "/professor/id/{professorId}", produces = "application/json")
 	@Operation(summary = "Get professor")
 	@ApiResponses({
@@ -86,11 +140,35 @@ public class ProfessorApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<Group> getGroups(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+	Page<GroupSummary> getGroups(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 						  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return professorService.getGroups(page, pageSize);
 	}
 
+	@GetMapping(path = "/group/list/slice", produces = "application/json")
+	@Operation(summary = "Get groups without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<GroupSummary> getGroupsSlice(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+						  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getGroupsSlice(page, pageSize);
+	}
+
+	@GetMapping(path = "/group/list/cursor", produces = "application/json")
+	@Operation(summary = "Get groups by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<GroupSummary> getGroupsByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+						  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getGroupsByCursor(cursor, pageSize);
+	}
+
 	@GetMapping(path = "/group/id/{groupId}", produces = "application/json")
 	@Operation(summary = "Get group")
 	@ApiResponses({
@@ -110,11 +188,46 @@ public class ProfessorApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<Student> getStudents(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+	Page<StudentSummary> getStudents(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 							  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return professorService.getStudents(page, pageSize);
 	}
 
+	@GetMapping(path = "/student/list/slice", produces = "application/json")
+	@Operation(summary = "Get students without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<StudentSummary> getStudentsSlice(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+							  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getStudentsSlice(page, pageSize);
+	}
+
+	@GetMapping(path = "/student/list/cursor", produces = "application/json")
+	@Operation(summary = "Get students by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<StudentSummary> getStudentsByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+							  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getStudentsByCursor(cursor, pageSize);
+	}
+
+	@PostMapping(path = "/student/import", consumes = {StudentImportService.CSV, StudentImportService.NDJSON}, produces = "application/json")
+	@Operation(summary = "Import students from a CSV (username,password,name,surname) or NDJSON roster")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	StudentImportReport importStudents(InputStream roster, @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+		return studentImportService.importStudents(roster, contentType);
+	}
+
 	@GetMapping(path = "/student/id/{studentId}", produces = "application/json")
 	@Operation(summary = "Get student")
 	@ApiResponses({
@@ -134,12 +247,38 @@ public class ProfessorApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<File> getFiles(@PathVariable("groupId") Long groupId,
+	Page<FileSummary> getFiles(@PathVariable("groupId") Long groupId,
 						@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 						@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return professorService.getFiles(groupId, page, pageSize);
 	}
 
+	@GetMapping(path = "/file/list/{groupId}/slice", produces = "application/json")
+	@Operation(summary = "Get files without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<FileSummary> getFilesSlice(@PathVariable("groupId") Long groupId,
+						@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+						@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getFilesSlice(groupId, page, pageSize);
+	}
+
+	@GetMapping(path = "/file/list/{groupId}/cursor", produces = "application/json")
+	@Operation(summary = "Get files by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<FileSummary> getFilesByCursor(@PathVariable("groupId") Long groupId,
+						@RequestParam(value = "cursor", required = false) String cursor,
+						@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getFilesByCursor(groupId, cursor, pageSize);
+	}
+
 	@GetMapping(path = "/file/id/{fileId}", produces = "application/json")
 	@Operation(summary = "Get file")
 	@ApiResponses({
@@ -159,11 +298,35 @@ public class ProfessorApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<Discussion> getDiscussions(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+	Page<DiscussionSummary> getDiscussions(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 									@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return professorService.getDiscussions(page, pageSize);
 	}
 
+	@GetMapping(path = "/discussion/list/slice", produces = "application/json")
+	@Operation(summary = "Get discussions without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<DiscussionSummary> getDiscussionsSlice(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+									@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getDiscussionsSlice(page, pageSize);
+	}
+
+	@GetMapping(path = "/discussion/list/cursor", produces = "application/json")
+	@Operation(summary = "Get discussions by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<DiscussionSummary> getDiscussionsByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+									@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getDiscussionsByCursor(cursor, pageSize);
+	}
+
 	@GetMapping(path = "/discussion/id/{discussionId}", produces = "application/json")
 	@Operation(summary = "Get discussion")
 	@ApiResponses({
@@ -219,11 +382,35 @@ public class ProfessorApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<Reservation> getReservations(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+	Page<ReservationSummary> getReservations(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 									  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return professorService.getReservations(page, pageSize);
 	}
 
+	@GetMapping(path = "/reservation/list/slice", produces = "application/json")
+	@Operation(summary = "Get discussion reservations without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<ReservationSummary> getReservationsSlice(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+									  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getReservationsSlice(page, pageSize);
+	}
+
+	@GetMapping(path = "/reservation/list/cursor", produces = "application/json")
+	@Operation(summary = "Get discussion reservations by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<ReservationSummary> getReservationsByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+									  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getReservationsByCursor(cursor, pageSize);
+	}
+
 	@GetMapping(path = "/reservation/id/{reservationId}", produces = "application/json")
 	@Operation(summary = "Get discussion reservation")
 	@ApiResponses({
@@ -246,4 +433,28 @@ public class ProfessorApiController {
 		professorService.deleteReservation(reservationId);
 	}
 
+	@GetMapping(path = "/archive/group/list", produces = "application/json")
+	@Operation(summary = "Get archived groups")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Page<GroupHistory> getArchivedGroups(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+									@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getArchivedGroups(page, pageSize);
+	}
+
+	@GetMapping(path = "/archive/discussion/list", produces = "application/json")
+	@Operation(summary = "Get archived discussions")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Page<DiscussionHistory> getArchivedDiscussions(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+									@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return professorService.getArchivedDiscussions(page, pageSize);
+	}
+
 }
@@ -8,6 +8,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import net.developerpass.polimi.configuration.error.ErrorResponse;
+import net.developerpass.polimi.security.ratelimit.ClientAddressResolver;
+import net.developerpass.polimi.security.ratelimit.PublicRateLimiter;
 import net.developerpass.polimi.service.PublicService;
 import net.developerpass.polimi.utils.object.RegisterGeneric;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +20,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletRequest;
+
 @CrossOrigin
 @RestController
 @RequestMapping("api")
@@ -26,15 +30,20 @@ import org.springframework.web.bind.annotation.RestController;
 public class PublicApiController {
 
 	private final PublicService publicService;
+	private final PublicRateLimiter rateLimiter;
+	private final ClientAddressResolver clientAddressResolver;
 
 	@PostMapping(path = "/register/student")
 	@Operation(summary = "Student Register")
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "Successful Operation", content = @Content(mediaType = "text/plain")),
-			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "429", description = "Too many requests", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
 	})
 	public String register(
+			HttpServletRequest request,
 			@RequestBody RegisterGeneric data) {
+		rateLimiter.checkRegister(clientAddressResolver.resolve(request), data.getUsername());
 		return publicService.register(data);
 	}
 
@@ -43,11 +52,14 @@ public class PublicApiController {
 	@Operation(summary = "Student Login")
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "Successful Operation", content = @Content(mediaType = "text/plain")),
-			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "429", description = "Too many requests", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
 	})
 	public String loginStudent(
+			HttpServletRequest request,
 			@RequestParam("username") String username,
 			@RequestParam("password") String password) {
+		rateLimiter.checkLogin(clientAddressResolver.resolve(request), username);
 		return publicService.loginStudent(username, password);
 	}
 
@@ -55,11 +67,14 @@ public class PublicApiController {
 	@Operation(summary = "Professor Login")
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "Successful Operation", content = @Content(mediaType = "text/plain")),
-			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "429", description = "Too many requests", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
 	})
 	public String loginProfessor(
+			HttpServletRequest request,
 			@RequestParam("username") String username,
 			@RequestParam("password") String password) {
+		rateLimiter.checkLogin(clientAddressResolver.resolve(request), username);
 		return publicService.loginProfessor(username, password);
 	}
 
@@ -68,10 +83,13 @@ public class PublicApiController {
 	@Operation(summary = "Student Password Reset")
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "Successful Operation"),
-			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "429", description = "Too many requests", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
 	})
 	public void resetStudent(
+			HttpServletRequest request,
 			@RequestParam("username") String username) {
+		rateLimiter.checkReset(clientAddressResolver.resolve(request), username);
 		publicService.resetStudent(username);
 	}
 
@@ -79,10 +97,13 @@ public class PublicApiController {
 	@Operation(summary = "Professor Password Reset")
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "Successful Operation"),
-			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "429", description = "Too many requests", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
 	})
 	public void resetProfessor(
+			HttpServletRequest request,
 			@RequestParam("username") String username) {
+		rateLimiter.checkReset(clientAddressResolver.resolve(request), username);
 		publicService.resetProfessor(username);
 	}
 
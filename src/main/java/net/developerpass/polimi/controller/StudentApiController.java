@@ -15,9 +15,20 @@ import net.developerpass.polimi.entity.Group;
 import net.developerpass.polimi.entity.Professor;
 import net.developerpass.polimi.entity.Reservation;
 import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.entity.history.FileHistory;
+import net.developerpass.polimi.entity.history.GroupHistory;
+import net.developerpass.polimi.entity.history.ReservationHistory;
+import net.developerpass.polimi.entity.projection.DiscussionSummary;
+import net.developerpass.polimi.entity.projection.FileSummary;
+import net.developerpass.polimi.entity.projection.GroupSummary;
+import net.developerpass.polimi.entity.projection.ProfessorSummary;
+import net.developerpass.polimi.entity.projection.ReservationSummary;
+import net.developerpass.polimi.entity.projection.StudentSummary;
 import net.developerpass.polimi.service.StudentService;
+import net.developerpass.polimi.utils.object.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -60,11 +71,35 @@ public class StudentApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<Student> getStudents(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+	Page<StudentSummary> getStudents(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 							  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return studentService.getStudents(page, pageSize);
 	}
 
+	@GetMapping(path = "/list/slice", produces = "application/json")
+	@Operation(summary = "Get students without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<StudentSummary> getStudentsSlice(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+							  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getStudentsSlice(page, pageSize);
+	}
+
+	@GetMapping(path = "/list/cursor", produces = "application/json")
+	@Operation(summary = "Get students by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<StudentSummary> getStudentsByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+							  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getStudentsByCursor(cursor, pageSize);
+	}
+
 	@GetMapping(path = "/id/{studentId}", produces = "application/json")
 	@Operation(summary = "Get student")
 	@ApiResponses({
@@ -84,11 +119,35 @@ public class StudentApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<Group> getGroups(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+	Page<GroupSummary> getGroups(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 						  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return studentService.getGroups(page, pageSize);
 	}
 
+	@GetMapping(path = "/group/list/slice", produces = "application/json")
+	@Operation(summary = "Get groups without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<GroupSummary> getGroupsSlice(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+						  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getGroupsSlice(page, pageSize);
+	}
+
+	@GetMapping(path = "/group/list/cursor", produces = "application/json")
+	@Operation(summary = "Get groups by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<GroupSummary> getGroupsByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+						  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getGroupsByCursor(cursor, pageSize);
+	}
+
 	@GetMapping(path = "/group/id/{groupId}", produces = "application/json")
 	@Operation(summary = "Get group")
 	@ApiResponses({
@@ -174,12 +233,38 @@ public class StudentApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<File> getFiles(@PathVariable("groupId") Long groupId,
+	Page<FileSummary> getFiles(@PathVariable("groupId") Long groupId,
 						@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 						@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return studentService.getFiles(groupId, page, pageSize);
 	}
 
+	@GetMapping(path = "/file/list/{groupId}/slice", produces = "application/json")
+	@Operation(summary = "Get files without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<FileSummary> getFilesSlice(@PathVariable("groupId") Long groupId,
+						@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+						@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getFilesSlice(groupId, page, pageSize);
+	}
+
+	@GetMapping(path = "/file/list/{groupId}/cursor", produces = "application/json")
+	@Operation(summary = "Get files by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<FileSummary> getFilesByCursor(@PathVariable("groupId") Long groupId,
+						@RequestParam(value = "cursor", required = false) String cursor,
+						@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getFilesByCursor(groupId, cursor, pageSize);
+	}
+
 	@GetMapping(path = "/file/id/{fileId}", produces = "application/json")
 	@Operation(summary = "Get file")
 	@ApiResponses({
@@ -221,11 +306,35 @@ public class StudentApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<Professor> getProfessors(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+	Page<ProfessorSummary> getProfessors(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 								  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return studentService.getProfessors(page, pageSize);
 	}
 
+	@GetMapping(path = "/professor/list/slice", produces = "application/json")
+	@Operation(summary = "Get professors without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<ProfessorSummary> getProfessorsSlice(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+								  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getProfessorsSlice(page, pageSize);
+	}
+
+	@GetMapping(path = "/professor/list/cursor", produces = "application/json")
+	@Operation(summary = "Get professors by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<ProfessorSummary> getProfessorsByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+								  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getProfessorsByCursor(cursor, pageSize);
+	}
+
 	@GetMapping(path = "/professor/id/{professorId}", produces = "application/json")
 	@Operation(summary = "Get professor")
 	@ApiResponses({
@@ -245,12 +354,38 @@ public class StudentApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<Discussion> getDiscussions(@PathVariable("professorId") Long professorId,
+	Page<DiscussionSummary> getDiscussions(@PathVariable("professorId") Long professorId,
 									@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 									@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return studentService.getDiscussions(professorId, page, pageSize);
 	}
 
+	@GetMapping(path = "/professor/id/{professorId}/discussions/slice", produces = "application/json")
+	@Operation(summary = "Get discussions without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<DiscussionSummary> getDiscussionsSlice(@PathVariable("professorId") Long professorId,
+									@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+									@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getDiscussionsSlice(professorId, page, pageSize);
+	}
+
+	@GetMapping(path = "/professor/id/{professorId}/discussions/cursor", produces = "application/json")
+	@Operation(summary = "Get discussions by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<DiscussionSummary> getDiscussionsByCursor(@PathVariable("professorId") Long professorId,
+									@RequestParam(value = "cursor", required = false) String cursor,
+									@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getDiscussionsByCursor(professorId, cursor, pageSize);
+	}
+
 	@GetMapping(path = "/discussion/id/{discussionId}", produces = "application/json")
 	@Operation(summary = "Get discussion")
 	@ApiResponses({
@@ -270,12 +405,38 @@ public class StudentApiController {
 			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
 			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
 	})
-	Page<Reservation> getReservations(@PathVariable("groupId") Long groupId,
+	Page<ReservationSummary> getReservations(@PathVariable("groupId") Long groupId,
 									  @RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
 									  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
 		return studentService.getReservations(groupId, page, pageSize);
 	}
 
+	@GetMapping(path = "/group/id/{groupId}/reservations/slice", produces = "application/json")
+	@Operation(summary = "Get discussion reservations without the total", description = "The total count query is skipped, only the last flag tells if there is a next page")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Slice<ReservationSummary> getReservationsSlice(@PathVariable("groupId") Long groupId,
+									  @RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+									  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getReservationsSlice(groupId, page, pageSize);
+	}
+
+	@GetMapping(path = "/group/id/{groupId}/reservations/cursor", produces = "application/json")
+	@Operation(summary = "Get discussion reservations by cursor")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	CursorPage<ReservationSummary> getReservationsByCursor(@PathVariable("groupId") Long groupId,
+									  @RequestParam(value = "cursor", required = false) String cursor,
+									  @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getReservationsByCursor(groupId, cursor, pageSize);
+	}
+
 	@GetMapping(path = "/reservation/id/{reservationId}", produces = "application/json")
 	@Operation(summary = "Get discussion reservation")
 	@ApiResponses({
@@ -320,4 +481,40 @@ public class StudentApiController {
 		studentService.deleteReservation(reservationId);
 	}
 
+	@GetMapping(path = "/archive/group/list", produces = "application/json")
+	@Operation(summary = "Get archived groups")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Page<GroupHistory> getArchivedGroups(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+									@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getArchivedGroups(page, pageSize);
+	}
+
+	@GetMapping(path = "/archive/file/list", produces = "application/json")
+	@Operation(summary = "Get archived files of the student groups")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Page<FileHistory> getArchivedFiles(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+									@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getArchivedFiles(page, pageSize);
+	}
+
+	@GetMapping(path = "/archive/reservation/list", produces = "application/json")
+	@Operation(summary = "Get archived reservations of the student groups")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Successful Operation"),
+			@ApiResponse(responseCode = "400", description = "Operation failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+			@ApiResponse(responseCode = "403", description = "Authentication Failure", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+	})
+	Page<ReservationHistory> getArchivedReservations(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+									@RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSize) {
+		return studentService.getArchivedReservations(page, pageSize);
+	}
+
 }
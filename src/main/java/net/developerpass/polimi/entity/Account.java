@@ -9,6 +9,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import net.developerpass.polimi.utils.object.Role;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.Basic;
 import javax.persistence.Column;
@@ -18,21 +20,32 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import java.io.Serializable;
 
+/**
+ * Only the username to id mapping is kept in the second-level cache. The password and token version change on reset
+ * and the cache regions are local to each node, so the account itself is always read from the database.
+ */
 @Entity
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_account_role_username_password", columnList = "role, username, password"))
 @EqualsAndHashCode(callSuper = false)
+@NaturalIdCache(region = "account-username")
 public class Account extends HibernateEntity implements Serializable {
 
 	@Id
 	@Column(nullable = false)
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Account_seq")
+	@SequenceGenerator(name = "Account_seq", sequenceName = "Account_seq", allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
+	@NaturalId
 	@Column(nullable = false, unique = true, length = 120)
 	private String username;
 	@Basic
@@ -44,6 +57,18 @@ public class Account extends HibernateEntity implements Serializable {
 	@Column(nullable = false)
 	@Enumerated(EnumType.STRING)
 	private Role role;
+	@Basic
+	@Hidden
+	@JsonIgnore
+	@Column(nullable = false, columnDefinition = "INT DEFAULT 0")
+	private Integer tokenVersion = 0;
+
+	public Account(Long id, String username, String password, Role role) {
+		this.id = id;
+		this.username = username;
+		this.password = password;
+		this.role = role;
+	}
 
 	public Account(String username, String password, Role role) {
 		this.username = username;
@@ -7,19 +7,28 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.OnDelete;
 
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 
 @Entity
@@ -28,12 +37,21 @@ import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_discussion_professor_deleted_created", columnList = "professorId, deleted, createdOn, id"))
 @EqualsAndHashCode(callSuper = false)
+@Cacheable
+@Cache(usage = READ_WRITE, region = "discussion")
+@NamedEntityGraph(name = Discussion.WITH_PROFESSOR, attributeNodes = @NamedAttributeNode("professor"))
 public class Discussion extends HibernateEntity implements Serializable {
+	/**
+	 * Fetch plan of a single discussion: the professor is joined
+	 */
+	public static final String WITH_PROFESSOR = "Discussion.withProfessor";
 
 	@Id
 	@Column(nullable = false)
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Discussion_seq")
+	@SequenceGenerator(name = "Discussion_seq", sequenceName = "Discussion_seq", allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 	@Basic
 	@Column(name = "professorId", nullable = false)
@@ -55,7 +73,9 @@ public class Discussion extends HibernateEntity implements Serializable {
 		this.date = date;
 	}
 
-	@ManyToOne
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@ManyToOne(fetch = FetchType.LAZY)
 	@OnDelete(action = CASCADE)
 	@JoinColumn(name = "professorId", referencedColumnName = "id", insertable = false, updatable = false)
 	private Professor professor;
@@ -1,5 +1,7 @@
 package net.developerpass.polimi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.Hidden;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -11,11 +13,16 @@ import org.hibernate.annotations.OnDelete;
 import javax.persistence.Basic;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import java.io.Serializable;
 
 import static org.hibernate.annotations.OnDeleteAction.CASCADE;
@@ -26,12 +33,22 @@ import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+		@Index(name = "idx_fellow_student_group_deleted", columnList = "groupId, deleted, studentId"),
+		@Index(name = "idx_fellow_student_student_group_deleted", columnList = "studentId, groupId, deleted"),
+		@Index(name = FellowStudent.UNIQUE_ACTIVE, columnList = "groupId, studentId, active", unique = true)
+})
 @EqualsAndHashCode(callSuper = false)
 public class FellowStudent extends HibernateEntity implements Serializable {
+	/**
+	 * Unique key of the live fellow students, (groupId, studentId, active)
+	 */
+	public static final String UNIQUE_ACTIVE = "uk_fellow_student_group_student_active";
 
 	@Id
 	@Column(nullable = false)
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "FellowStudent_seq")
+	@SequenceGenerator(name = "FellowStudent_seq", sequenceName = "FellowStudent_seq", allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 	@Basic
 	@Column(name = "studentId", nullable = false)
@@ -42,13 +59,35 @@ public class FellowStudent extends HibernateEntity implements Serializable {
 	@Basic
 	@Column(nullable = false)
 	private Boolean deleted = Boolean.FALSE;
+	/**
+	 * TRUE while the fellow student is not deleted and NULL afterwards, as for {@link Reservation}:
+	 * the unique key on (groupId, studentId, active) only applies to the live fellow students
+	 */
+	@Basic
+	@Hidden
+	@JsonIgnore
+	@Column(name = "active")
+	private Boolean active = Boolean.TRUE;
+	@Hidden
+	@Version
+	@JsonIgnore
+	@EqualsAndHashCode.Exclude
+	@Column(nullable = false)
+	private Long version;
 
 	public FellowStudent(Long studentId, Long groupId) {
 		this.studentId = studentId;
 		this.groupId = groupId;
 	}
 
-	@ManyToOne
+	public void setDeleted(Boolean deleted) {
+		this.deleted = deleted;
+		this.active = Boolean.TRUE.equals(deleted) ? null : Boolean.TRUE;
+	}
+
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@ManyToOne(fetch = FetchType.LAZY)
 	@OnDelete(action = CASCADE)
 	@JoinColumn(name = "studentId", insertable = false, updatable = false)
 	private Student student;
@@ -1,5 +1,7 @@
 package net.developerpass.polimi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.Hidden;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -15,8 +17,12 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import java.io.Serializable;
 
 import static org.hibernate.annotations.OnDeleteAction.CASCADE;
@@ -27,12 +33,14 @@ import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_file_group_deleted_created", columnList = "groupId, deleted, createdOn"))
 @EqualsAndHashCode(callSuper = false)
 public class File extends HibernateEntity implements Serializable {
 
 	@Id
 	@Column(nullable = false)
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "File_seq")
+	@SequenceGenerator(name = "File_seq", sequenceName = "File_seq", allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 	@Basic
 	@Column(name = "groupId", nullable = false)
@@ -46,6 +54,12 @@ public class File extends HibernateEntity implements Serializable {
 	@Basic
 	@Column(nullable = false)
 	private Boolean deleted = Boolean.FALSE;
+	@Hidden
+	@Version
+	@JsonIgnore
+	@EqualsAndHashCode.Exclude
+	@Column(nullable = false)
+	private Long version;
 
 	public File(Long groupId, String name, String fileName) {
 		this.groupId = groupId;
@@ -53,7 +67,9 @@ public class File extends HibernateEntity implements Serializable {
 		this.fileName = fileName;
 	}
 
-	@ManyToOne
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@ManyToOne(fetch = FetchType.LAZY)
 	@OnDelete(action = CASCADE)
 	@JoinColumn(name = "groupId", referencedColumnName = "id", insertable = false, updatable = false)
 	private Group group;
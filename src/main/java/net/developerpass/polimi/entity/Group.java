@@ -1,5 +1,7 @@
 package net.developerpass.polimi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.Hidden;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -15,10 +17,17 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedEntityGraphs;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,13 +40,48 @@ import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "\"Group\"")
+@Table(name = "\"Group\"", indexes = {
+		@Index(name = "idx_group_professor_deleted_created", columnList = "professorId, deleted, createdOn, id"),
+		@Index(name = "idx_group_admin_deleted", columnList = "adminId, deleted")
+})
 @EqualsAndHashCode(callSuper = false)
+@NamedEntityGraphs({
+		@NamedEntityGraph(name = Group.WITH_MEMBERS, attributeNodes = {
+				@NamedAttributeNode(value = "professor", subgraph = "professorAccount"),
+				@NamedAttributeNode(value = "admin", subgraph = "adminAccount")
+		}, subgraphs = {
+				@NamedSubgraph(name = "professorAccount", attributeNodes = @NamedAttributeNode("account")),
+				@NamedSubgraph(name = "adminAccount", attributeNodes = @NamedAttributeNode("account"))
+		}),
+		@NamedEntityGraph(name = Group.WITH_DETAILS, attributeNodes = {
+				@NamedAttributeNode(value = "professor", subgraph = "professorAccount"),
+				@NamedAttributeNode(value = "admin", subgraph = "adminAccount"),
+				@NamedAttributeNode(value = "fellowStudent", subgraph = "fellowStudents")
+		}, subgraphs = {
+				@NamedSubgraph(name = "professorAccount", attributeNodes = @NamedAttributeNode("account")),
+				@NamedSubgraph(name = "adminAccount", attributeNodes = @NamedAttributeNode("account")),
+				@NamedSubgraph(name = "fellowStudents", attributeNodes = @NamedAttributeNode(value = "student", subgraph = "fellowStudentAccount")),
+				@NamedSubgraph(name = "fellowStudentAccount", attributeNodes = @NamedAttributeNode("account"))
+		})
+})
 public class Group extends HibernateEntity implements Serializable {
+	/**
+	 * Fellow students a group can have besides its admin
+	 */
+	public static final int MAX_FELLOW_STUDENTS = 2;
+	/**
+	 * Fetch plan of the group pages: professor and admin are joined, the fellow students are batch fetched
+	 */
+	public static final String WITH_MEMBERS = "Group.withMembers";
+	/**
+	 * Fetch plan of a single group: professor, admin and fellow students with their accounts
+	 */
+	public static final String WITH_DETAILS = "Group.withDetails";
 
 	@Id
 	@Column(nullable = false)
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Group_seq")
+	@SequenceGenerator(name = "Group_seq", sequenceName = "Group_seq", allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 	@Basic
 	@Column(name = "professorId", nullable = false)
@@ -51,6 +95,25 @@ public class Group extends HibernateEntity implements Serializable {
 	@Basic
 	@Column(nullable = false)
 	private Boolean deleted = Boolean.FALSE;
+	/**
+	 * Incremented by every reservation booked for the group, so concurrent bookings of the same group conflict
+	 */
+	@Hidden
+	@Version
+	@JsonIgnore
+	@EqualsAndHashCode.Exclude
+	@Column(nullable = false)
+	private Long version;
+	/**
+	 * Live fellow students, changed only by the conditional updates of {@link net.developerpass.polimi.repository.GroupRepository}
+	 * so concurrent joins cannot overfill the group
+	 */
+	@Basic
+	@Hidden
+	@JsonIgnore
+	@EqualsAndHashCode.Exclude
+	@Column(nullable = false, updatable = false, columnDefinition = "INT DEFAULT 0")
+	private Integer fellowStudentCount = 0;
 
 	public Group(Long professorId, Long adminId, String name) {
 		this.professorId = professorId;
@@ -58,17 +121,23 @@ public class Group extends HibernateEntity implements Serializable {
 		this.name = name;
 	}
 
-	@OneToOne
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@OneToOne(fetch = FetchType.LAZY)
 	@OnDelete(action = CASCADE)
 	@JoinColumn(name = "professorId", referencedColumnName = "id", insertable = false, updatable = false)
 	private Professor professor;
 
-	@OneToOne
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@OneToOne(fetch = FetchType.LAZY)
 	@OnDelete(action = CASCADE)
 	@JoinColumn(name = "adminId", referencedColumnName = "id", insertable = false, updatable = false)
 	private Student admin;
 
-	@OneToMany(fetch = FetchType.EAGER)
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@OneToMany
 	@JoinColumn(name = "groupId", referencedColumnName = "id", insertable = false, updatable = false)
 	private List<FellowStudent> fellowStudent = new ArrayList<>();
 
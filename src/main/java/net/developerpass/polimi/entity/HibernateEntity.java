@@ -18,6 +18,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @EqualsAndHashCode
 public abstract class HibernateEntity implements Serializable {
+	/**
+	 * Ids reserved by each access to an entity sequence: inserts do not need the generated key back,
+	 * so they are sent in JDBC batches
+	 */
+	public static final int ID_ALLOCATION_SIZE = 50;
 
 	@Column(updatable = false, columnDefinition="DATETIME DEFAULT CURRENT_TIMESTAMP")
 	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy HH:mm:ss")
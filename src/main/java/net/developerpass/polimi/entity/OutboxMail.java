@@ -0,0 +1,101 @@
+package net.developerpass.polimi.entity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import net.developerpass.polimi.utils.object.OutboxStatus;
+import org.hibernate.annotations.Type;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = "document")
+@Table(indexes = {
+		@Index(name = "idx_outbox_mail_status_next_attempt", columnList = "status, nextAttemptOn, id"),
+		@Index(name = "idx_outbox_mail_locked_by", columnList = "lockedBy")
+})
+@EqualsAndHashCode(callSuper = false)
+public class OutboxMail extends HibernateEntity implements Serializable {
+
+	@Id
+	@Column(nullable = false)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "OutboxMail_seq")
+	@SequenceGenerator(name = "OutboxMail_seq", sequenceName = "OutboxMail_seq", allocationSize = ID_ALLOCATION_SIZE)
+	private Long id;
+	@Basic
+	@Column(nullable = false, length = 120)
+	private String recipient;
+	@Basic
+	@Column(nullable = false)
+	private String subject;
+	/**
+	 * Cleared once the mail is sent, reset mails carry the new password
+	 */
+	@Basic
+	@Column
+	@Type(type = "text")
+	private String document;
+	@Basic
+	@Column(nullable = false)
+	private Boolean html;
+	@Basic
+	@Column(name = "typeMail", nullable = false)
+	private String typeMail;
+	@Basic
+	@Column(nullable = false)
+	@Enumerated(EnumType.STRING)
+	private OutboxStatus status = OutboxStatus.Pending;
+	@Basic
+	@Column(nullable = false)
+	private Integer attempts = 0;
+	@Basic
+	@Column(name = "nextAttemptOn", nullable = false)
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy HH:mm:ss")
+	private LocalDateTime nextAttemptOn = LocalDateTime.now();
+	@Basic
+	@Column(name = "sentOn")
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy HH:mm:ss")
+	private LocalDateTime sentOn;
+	@Basic
+	@Column(name = "lastError")
+	private String lastError;
+	/**
+	 * Dispatcher holding the claim while the mail is {@code Sending}, any dispatcher can claim it again after lockedUntil
+	 */
+	@Basic
+	@Column(name = "lockedBy", length = 36)
+	private String lockedBy;
+	@Basic
+	@Column(name = "lockedUntil")
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy HH:mm:ss")
+	private LocalDateTime lockedUntil;
+
+	public OutboxMail(String recipient, String subject, String document, Boolean html, String typeMail) {
+		this.recipient = recipient;
+		this.subject = subject;
+		this.document = document;
+		this.html = html;
+		this.typeMail = typeMail;
+	}
+
+}
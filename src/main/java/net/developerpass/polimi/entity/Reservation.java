@@ -1,5 +1,7 @@
 package net.developerpass.polimi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.Hidden;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -11,11 +13,18 @@ import org.hibernate.annotations.OnDelete;
 import javax.persistence.Basic;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import java.io.Serializable;
 
 import static org.hibernate.annotations.OnDeleteAction.CASCADE;
@@ -26,12 +35,28 @@ import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+		@Index(name = "idx_reservation_group_deleted", columnList = "groupId, deleted, discussionId"),
+		@Index(name = "idx_reservation_group_deleted_created", columnList = "groupId, deleted, createdOn, id"),
+		@Index(name = "idx_reservation_discussion_deleted", columnList = "discussionId, deleted, groupId"),
+		@Index(name = Reservation.UNIQUE_ACTIVE, columnList = "groupId, discussionId, active", unique = true)
+})
 @EqualsAndHashCode(callSuper = false)
+@NamedEntityGraph(name = Reservation.WITH_DISCUSSION, attributeNodes = @NamedAttributeNode("discussion"))
 public class Reservation extends HibernateEntity implements Serializable {
+	/**
+	 * Unique key of the live reservations, (groupId, discussionId, active)
+	 */
+	public static final String UNIQUE_ACTIVE = "uk_reservation_group_discussion_active";
+	/**
+	 * Fetch plan of a single reservation: the discussion is joined
+	 */
+	public static final String WITH_DISCUSSION = "Reservation.withDiscussion";
 
 	@Id
 	@Column(nullable = false)
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Reservation_seq")
+	@SequenceGenerator(name = "Reservation_seq", sequenceName = "Reservation_seq", allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 	@Basic
 	@Column(name = "groupId", nullable = false)
@@ -42,18 +67,42 @@ public class Reservation extends HibernateEntity implements Serializable {
 	@Basic
 	@Column(nullable = false)
 	private Boolean deleted = Boolean.FALSE;
+	/**
+	 * TRUE while the reservation is not deleted and NULL afterwards, the unique key on (groupId, discussionId, active)
+	 * only applies to the live reservations since NULLs never collide
+	 */
+	@Basic
+	@Hidden
+	@JsonIgnore
+	@Column(name = "active")
+	private Boolean active = Boolean.TRUE;
+	@Hidden
+	@Version
+	@JsonIgnore
+	@EqualsAndHashCode.Exclude
+	@Column(nullable = false)
+	private Long version;
 
 	public Reservation(Long groupId, Long discussionId) {
 		this.groupId = groupId;
 		this.discussionId = discussionId;
 	}
 
-	@ManyToOne
+	public void setDeleted(Boolean deleted) {
+		this.deleted = deleted;
+		this.active = Boolean.TRUE.equals(deleted) ? null : Boolean.TRUE;
+	}
+
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@ManyToOne(fetch = FetchType.LAZY)
 	@OnDelete(action = CASCADE)
 	@JoinColumn(name = "groupId", insertable = false, updatable = false)
 	private Group group;
 
-	@ManyToOne
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@ManyToOne(fetch = FetchType.LAZY)
 	@OnDelete(action = CASCADE)
 	@JoinColumn(name = "discussionId", insertable = false, updatable = false)
 	private Discussion discussion;
@@ -6,19 +6,30 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.OnDelete;
 
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import java.io.Serializable;
 
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 
 @Entity
@@ -27,14 +38,27 @@ import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+		@Index(name = "uk_student_account", columnList = "accountId", unique = true),
+		@Index(name = "idx_student_created", columnList = "createdOn, id")
+})
 @EqualsAndHashCode(callSuper = false)
+@Cacheable
+@Cache(usage = READ_WRITE, region = "student")
+@NaturalIdCache(region = "student-account")
+@NamedEntityGraph(name = Student.WITH_ACCOUNT, attributeNodes = @NamedAttributeNode("account"))
 public class Student extends HibernateEntity implements Serializable {
+	/**
+	 * Fetch plan of the profile: the account is joined
+	 */
+	public static final String WITH_ACCOUNT = "Student.withAccount";
 
 	@Id
 	@Column(nullable = false)
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Student_seq")
+	@SequenceGenerator(name = "Student_seq", sequenceName = "Student_seq", allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
-	@Basic
+	@NaturalId
 	@Column(name = "accountId", nullable = false)
 	private Long accountId;
 	@Basic
@@ -50,8 +74,10 @@ public class Student extends HibernateEntity implements Serializable {
 		this.surname = surname;
 	}
 
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
 	@OnDelete(action = CASCADE)
-	@OneToOne(cascade = CascadeType.REMOVE, orphanRemoval = true)
+	@OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.REMOVE, orphanRemoval = true)
 	@JoinColumn(name = "accountId", referencedColumnName = "id", insertable = false, updatable = false)
 	private Account account;
 
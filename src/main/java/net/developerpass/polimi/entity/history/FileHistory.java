@@ -0,0 +1,51 @@
+package net.developerpass.polimi.entity.history;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import net.developerpass.polimi.entity.HibernateEntity;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Archived {@link net.developerpass.polimi.entity.File}, see {@link net.developerpass.polimi.service.archive.ArchiveService}
+ */
+@Entity
+@Getter
+@ToString
+@Immutable
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_file_history_group_archived", columnList = "groupId, archivedOn"))
+@EqualsAndHashCode(callSuper = false)
+public class FileHistory extends HibernateEntity implements Serializable {
+
+	@Id
+	@Column(nullable = false)
+	private Long id;
+	@Basic
+	@Column(name = "groupId", nullable = false)
+	private Long groupId;
+	@Basic
+	@Column(nullable = false)
+	private String name;
+	@Basic
+	@Column(name = "fileName", nullable = false)
+	private String fileName;
+	@Basic
+	@Column(nullable = false)
+	private Boolean deleted;
+	@Column(nullable = false)
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy HH:mm:ss")
+	private LocalDateTime archivedOn;
+
+}
@@ -0,0 +1,54 @@
+package net.developerpass.polimi.entity.history;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import net.developerpass.polimi.entity.HibernateEntity;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Archived {@link net.developerpass.polimi.entity.Group}, see {@link net.developerpass.polimi.service.archive.ArchiveService}
+ */
+@Entity
+@Getter
+@ToString
+@Immutable
+@NoArgsConstructor
+@Table(indexes = {
+		@Index(name = "idx_group_history_professor_archived", columnList = "professorId, archivedOn"),
+		@Index(name = "idx_group_history_admin", columnList = "adminId")
+})
+@EqualsAndHashCode(callSuper = false)
+public class GroupHistory extends HibernateEntity implements Serializable {
+
+	@Id
+	@Column(nullable = false)
+	private Long id;
+	@Basic
+	@Column(name = "professorId", nullable = false)
+	private Long professorId;
+	@Basic
+	@Column(name = "adminId", nullable = false)
+	private Long adminId;
+	@Basic
+	@Column(nullable = false)
+	private String name;
+	@Basic
+	@Column(nullable = false)
+	private Boolean deleted;
+	@Column(nullable = false)
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy HH:mm:ss")
+	private LocalDateTime archivedOn;
+
+}
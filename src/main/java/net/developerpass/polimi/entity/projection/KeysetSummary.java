@@ -0,0 +1,14 @@
+package net.developerpass.polimi.entity.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * List item ordered by (createdOn, id), the last item of a page is the cursor of the next one
+ */
+public interface KeysetSummary {
+
+	Long getId();
+
+	LocalDateTime getCreatedOn();
+
+}
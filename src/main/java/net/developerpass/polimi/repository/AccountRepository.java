@@ -2,18 +2,64 @@ package net.developerpass.polimi.repository;
 
 import net.developerpass.polimi.entity.Account;
 import net.developerpass.polimi.utils.object.Role;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends NaturalIdRepository<Account, Long> {
 
-	Optional<Account> findByUsername(String username);
+	/**
+	 * Resolved through the username natural id cache
+	 */
+	default Optional<Account> findByUsername(String username) {
+		return findBySimpleNaturalId(username);
+	}
 
-	Optional<Account> findByRoleAndUsername(Role role, String username);
+	default Optional<Account> findByRoleAndUsername(Role role, String username) {
+		return findByUsername(username)
+				.filter(account -> account.getRole() == role);
+	}
 
-	Optional<Account> findByRoleAndUsernameAndPassword(Role role, String username, String password);
+	/**
+	 * The password hashes are compared in constant time
+	 */
+	default Optional<Account> findByRoleAndUsernameAndPassword(Role role, String username, String password) {
+		return findByRoleAndUsername(role, username)
+				.filter(account -> password != null && MessageDigest.isEqual(
+						account.getPassword().getBytes(StandardCharsets.UTF_8),
+						password.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Group primary keys, then the Student and Account primary keys
+	 */
+	@Query("SELECT a.username FROM Group g, Student s, Account a WHERE g.id IN :groupIds AND g.deleted = FALSE AND s.id = g.adminId AND a.id = s.accountId")
+	List<String> findAllAdminUsernamesByGroupIds(Collection<Long> groupIds);
+
+	/**
+	 * idx_fellow_student_group_deleted (groupId, deleted, studentId), then the Group, Student and Account primary keys
+	 */
+	@Query("SELECT a.username FROM FellowStudent fs, Group g, Student s, Account a WHERE fs.groupId IN :groupIds AND fs.deleted = FALSE AND g.id = fs.groupId AND g.deleted = FALSE AND s.id = fs.studentId AND a.id = s.accountId")
+	List<String> findAllFellowStudentUsernamesByGroupIds(Collection<Long> groupIds);
+
+	/**
+	 * Usernames of the admins and live fellow students of the live groups, each once.
+	 * Two indexed joins merged here instead of a single join on admin or fellow student, which the database
+	 * can only run as a cross join.
+	 */
+	default List<String> findAllMemberUsernamesByGroupIds(Collection<Long> groupIds) {
+		Set<String> usernames = new LinkedHashSet<>(findAllAdminUsernamesByGroupIds(groupIds));
+		usernames.addAll(findAllFellowStudentUsernamesByGroupIds(groupIds));
+		return new ArrayList<>(usernames);
+	}
 
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package net.developerpass.polimi.repository;
+
+import net.developerpass.polimi.entity.history.DiscussionHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DiscussionHistoryRepository extends JpaRepository<DiscussionHistory, Long> {
+
+	Page<DiscussionHistory> findAllByProfessorIdOrderByArchivedOnDesc(Long professorId, Pageable pageable);
+
+}
@@ -1,11 +1,16 @@
 package net.developerpass.polimi.repository;
 
 import net.developerpass.polimi.entity.Discussion;
+import net.developerpass.polimi.entity.projection.DiscussionSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -13,6 +18,19 @@ public interface DiscussionRepository extends JpaRepository<Discussion, Long> {
 
 	Optional<Discussion> findByIdAndDeletedFalse(Long id);
 
+	@EntityGraph(Discussion.WITH_PROFESSOR)
+	Optional<Discussion> findWithProfessorByIdAndDeletedFalse(Long id);
+
 	Page<Discussion> findAllByProfessorIdAndDeletedFalse(Long professorId, Pageable pageable);
 
+	@Query(value = "SELECT new net.developerpass.polimi.entity.projection.DiscussionSummary(d.id, d.professorId, d.name, d.date, d.createdOn) FROM Discussion d WHERE d.professorId = :professorId AND d.deleted = FALSE",
+			countQuery = "SELECT COUNT(d) FROM Discussion d WHERE d.professorId = :professorId AND d.deleted = FALSE")
+	Page<DiscussionSummary> findAllSummariesByProfessorIdAndDeletedFalse(Long professorId, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.DiscussionSummary(d.id, d.professorId, d.name, d.date, d.createdOn) FROM Discussion d WHERE d.professorId = :professorId AND d.deleted = FALSE")
+	Slice<DiscussionSummary> findAllSummariesSliceByProfessorIdAndDeletedFalse(Long professorId, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.DiscussionSummary(d.id, d.professorId, d.name, d.date, d.createdOn) FROM Discussion d WHERE d.professorId = :professorId AND d.deleted = FALSE AND (d.createdOn < :createdOn OR (d.createdOn = :createdOn AND d.id < :id)) ORDER BY d.createdOn DESC, d.id DESC")
+	Slice<DiscussionSummary> findAllSummariesByProfessorIdAndDeletedFalseBefore(Long professorId, LocalDateTime createdOn, Long id, Pageable pageable);
+
 }
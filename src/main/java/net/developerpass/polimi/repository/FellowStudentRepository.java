@@ -2,16 +2,31 @@ package net.developerpass.polimi.repository;
 
 import net.developerpass.polimi.entity.FellowStudent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface FellowStudentRepository extends JpaRepository<FellowStudent, Long> {
 
-	List<FellowStudent> findAllByGroupIdAndDeletedFalse(Long groupId);
-
 	Optional<FellowStudent> findByStudentIdAndGroupIdAndDeletedFalse(Long studentId, Long groupId);
 
+	/**
+	 * Soft deletes every fellow student of the group with a single statement, returns the number of fellow students deleted.
+	 * The version is incremented, a fellow student loaded before the delete can no longer be saved over it
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE FellowStudent fs SET fs.deleted = TRUE, fs.active = NULL, fs.version = fs.version + 1 WHERE fs.groupId = :groupId AND fs.deleted = FALSE")
+	int softDeleteAllByGroupId(Long groupId);
+
+	/**
+	 * Soft deletes the student membership, returns 0 when the student is not, or no longer, in the group.
+	 * The version is incremented as in {@link #softDeleteAllByGroupId(Long)}
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE FellowStudent fs SET fs.deleted = TRUE, fs.active = NULL, fs.version = fs.version + 1 WHERE fs.studentId = :studentId AND fs.groupId = :groupId AND fs.deleted = FALSE")
+	int softDeleteByStudentIdAndGroupId(Long studentId, Long groupId);
+
 }
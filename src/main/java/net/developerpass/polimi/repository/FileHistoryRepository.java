@@ -0,0 +1,16 @@
+package net.developerpass.polimi.repository;
+
+import net.developerpass.polimi.entity.history.FileHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface FileHistoryRepository extends JpaRepository<FileHistory, Long> {
+
+	Page<FileHistory> findAllByGroupIdInOrderByArchivedOnDesc(Collection<Long> groupIds, Pageable pageable);
+
+}
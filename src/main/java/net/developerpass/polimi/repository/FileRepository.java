@@ -1,11 +1,16 @@
 package net.developerpass.polimi.repository;
 
 import net.developerpass.polimi.entity.File;
+import net.developerpass.polimi.entity.projection.FileSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -15,5 +20,22 @@ public interface FileRepository extends JpaRepository<File, Long> {
 
 	Page<File> findAllByGroupIdAndDeletedFalseOrderByCreatedOnDesc(Long groupId, Pageable pageable);
 
+	@Query(value = "SELECT new net.developerpass.polimi.entity.projection.FileSummary(f.id, f.groupId, f.name, f.fileName, f.createdOn) FROM File f WHERE f.groupId = :groupId AND f.deleted = FALSE ORDER BY f.createdOn DESC",
+			countQuery = "SELECT COUNT(f) FROM File f WHERE f.groupId = :groupId AND f.deleted = FALSE")
+	Page<FileSummary> findAllSummariesByGroupIdAndDeletedFalse(Long groupId, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.FileSummary(f.id, f.groupId, f.name, f.fileName, f.createdOn) FROM File f WHERE f.groupId = :groupId AND f.deleted = FALSE ORDER BY f.createdOn DESC")
+	Slice<FileSummary> findAllSummariesSliceByGroupIdAndDeletedFalse(Long groupId, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.FileSummary(f.id, f.groupId, f.name, f.fileName, f.createdOn) FROM File f WHERE f.groupId = :groupId AND f.deleted = FALSE AND (f.createdOn < :createdOn OR (f.createdOn = :createdOn AND f.id < :id)) ORDER BY f.createdOn DESC, f.id DESC")
+	Slice<FileSummary> findAllSummariesByGroupIdAndDeletedFalseBefore(Long groupId, LocalDateTime createdOn, Long id, Pageable pageable);
+
+	/**
+	 * Soft deletes every file of the group with a single statement, returns the number of files deleted.
+	 * The version is incremented, a file loaded before the delete can no longer be saved over it
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE File f SET f.deleted = TRUE, f.version = f.version + 1 WHERE f.groupId = :groupId AND f.deleted = FALSE")
+	int softDeleteAllByGroupId(Long groupId);
 
 }
@@ -0,0 +1,27 @@
+package net.developerpass.polimi.repository;
+
+import net.developerpass.polimi.entity.history.GroupHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GroupHistoryRepository extends JpaRepository<GroupHistory, Long> {
+
+	Page<GroupHistory> findAllByProfessorIdOrderByArchivedOnDesc(Long professorId, Pageable pageable);
+
+	/**
+	 * Archived groups where the student was the admin or a fellow student
+	 */
+	@Query(value = "SELECT g FROM GroupHistory g WHERE g.adminId = :studentId OR g.id IN (SELECT fs.groupId FROM FellowStudentHistory fs WHERE fs.studentId = :studentId) ORDER BY g.archivedOn DESC",
+			countQuery = "SELECT COUNT(g) FROM GroupHistory g WHERE g.adminId = :studentId OR g.id IN (SELECT fs.groupId FROM FellowStudentHistory fs WHERE fs.studentId = :studentId)")
+	Page<GroupHistory> findAllByStudentId(Long studentId, Pageable pageable);
+
+	@Query("SELECT g.id FROM GroupHistory g WHERE g.adminId = :studentId OR g.id IN (SELECT fs.groupId FROM FellowStudentHistory fs WHERE fs.studentId = :studentId)")
+	List<Long> findAllIdsByStudentId(Long studentId);
+
+}
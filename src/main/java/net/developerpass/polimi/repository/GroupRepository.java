@@ -1,25 +1,153 @@
 package net.developerpass.polimi.repository;
 
 import net.developerpass.polimi.entity.Group;
+import net.developerpass.polimi.entity.projection.GroupSummary;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, Long> {
 
 	Optional<Group> findByIdAndDeletedFalse(Long id);
 
-	@Query("SELECT g FROM Group g WHERE g.deleted = FALSE AND (g.adminId = :studentId OR ( SELECT COUNT(fs.id) FROM FellowStudent fs WHERE fs.studentId = :studentId AND fs.deleted = FALSE ) = 1)")
-	Page<Group> findAllByStudentIdAndDeletedFalse(Long studentId, Pageable pageable);
+	/**
+	 * The group version is incremented when the transaction commits, so two transactions booking for the same group
+	 * cannot both commit
+	 */
+	@Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+	Optional<Group> findForBookingByIdAndDeletedFalse(Long id);
 
+	/**
+	 * Takes a fellow student place in the group with a single conditional statement, returns 0 when the group is full
+	 * or deleted. The row stays locked until the transaction ends, so concurrent joins are applied one at a time,
+	 * on every node sharing the database.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Group g SET g.fellowStudentCount = g.fellowStudentCount + 1 WHERE g.id = :id AND g.deleted = FALSE AND g.fellowStudentCount < :capacity")
+	int incrementFellowStudentCount(Long id, int capacity);
+
+	/**
+	 * Releases a fellow student place, returns 0 when the group has none taken
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Group g SET g.fellowStudentCount = g.fellowStudentCount - 1 WHERE g.id = :id AND g.fellowStudentCount > 0")
+	int decrementFellowStudentCount(Long id);
+
+	@EntityGraph(Group.WITH_DETAILS)
+	Optional<Group> findWithDetailsById(Long id);
+
+	@EntityGraph(Group.WITH_DETAILS)
+	Optional<Group> findWithDetailsByIdAndDeletedFalse(Long id);
+
+	/**
+	 * Groups where the student is the admin or a fellow student.
+	 * The memberships are read with two index lookups, (adminId, deleted) and (studentId, groupId, deleted),
+	 * then the page is loaded by primary key.
+	 */
+	default Page<Group> findAllByStudentIdAndDeletedFalse(Long studentId, Pageable pageable) {
+		Set<Long> groupIds = findAllIdsByStudentIdAndDeletedFalse(studentId);
+		if (groupIds.isEmpty()) {
+			return new PageImpl<>(List.of(), pageable, 0);
+		}
+		return findAllByIdInAndDeletedFalse(groupIds, pageable);
+	}
+
+	/**
+	 * List view of {@link #findAllByStudentIdAndDeletedFalse(Long, Pageable)}
+	 */
+	default Page<GroupSummary> findAllSummariesByStudentIdAndDeletedFalse(Long studentId, Pageable pageable) {
+		Set<Long> groupIds = findAllIdsByStudentIdAndDeletedFalse(studentId);
+		if (groupIds.isEmpty()) {
+			return new PageImpl<>(List.of(), pageable, 0);
+		}
+		return findAllSummariesByIdInAndDeletedFalse(groupIds, pageable);
+	}
+
+	/**
+	 * Count-free view of {@link #findAllSummariesByStudentIdAndDeletedFalse(Long, Pageable)}
+	 */
+	default Slice<GroupSummary> findAllSummariesSliceByStudentIdAndDeletedFalse(Long studentId, Pageable pageable) {
+		Set<Long> groupIds = findAllIdsByStudentIdAndDeletedFalse(studentId);
+		if (groupIds.isEmpty()) {
+			return new SliceImpl<>(List.of(), pageable, false);
+		}
+		return findAllSummariesSliceByIdInAndDeletedFalse(groupIds, pageable);
+	}
+
+	/**
+	 * Keyset view of {@link #findAllSummariesByStudentIdAndDeletedFalse(Long, Pageable)}
+	 */
+	default Slice<GroupSummary> findAllSummariesByStudentIdAndDeletedFalseBefore(Long studentId, LocalDateTime createdOn, Long id, Pageable pageable) {
+		Set<Long> groupIds = findAllIdsByStudentIdAndDeletedFalse(studentId);
+		if (groupIds.isEmpty()) {
+			return new SliceImpl<>(List.of(), pageable, false);
+		}
+		return findAllSummariesByIdInAndDeletedFalseBefore(groupIds, createdOn, id, pageable);
+	}
+
+	default Set<Long> findAllIdsByStudentIdAndDeletedFalse(Long studentId) {
+		Set<Long> groupIds = new HashSet<>(findAllIdsByAdminIdAndDeletedFalse(studentId));
+		groupIds.addAll(findAllIdsByFellowStudentIdAndDeletedFalse(studentId));
+		return groupIds;
+	}
+
+	@Query("SELECT g.id FROM Group g WHERE g.adminId = :studentId AND g.deleted = FALSE")
+	List<Long> findAllIdsByAdminIdAndDeletedFalse(Long studentId);
+
+	@Query("SELECT fs.groupId FROM FellowStudent fs WHERE fs.studentId = :studentId AND fs.deleted = FALSE")
+	List<Long> findAllIdsByFellowStudentIdAndDeletedFalse(Long studentId);
+
+	@EntityGraph(Group.WITH_MEMBERS)
+	Page<Group> findAllByIdInAndDeletedFalse(Collection<Long> ids, Pageable pageable);
+
+	@Query(value = "SELECT new net.developerpass.polimi.entity.projection.GroupSummary(g.id, g.professorId, g.adminId, g.name, g.createdOn) FROM Group g WHERE g.id IN :ids AND g.deleted = FALSE",
+			countQuery = "SELECT COUNT(g) FROM Group g WHERE g.id IN :ids AND g.deleted = FALSE")
+	Page<GroupSummary> findAllSummariesByIdInAndDeletedFalse(Collection<Long> ids, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.GroupSummary(g.id, g.professorId, g.adminId, g.name, g.createdOn) FROM Group g WHERE g.id IN :ids AND g.deleted = FALSE")
+	Slice<GroupSummary> findAllSummariesSliceByIdInAndDeletedFalse(Collection<Long> ids, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.GroupSummary(g.id, g.professorId, g.adminId, g.name, g.createdOn) FROM Group g WHERE g.id IN :ids AND g.deleted = FALSE AND (g.createdOn < :createdOn OR (g.createdOn = :createdOn AND g.id < :id)) ORDER BY g.createdOn DESC, g.id DESC")
+	Slice<GroupSummary> findAllSummariesByIdInAndDeletedFalseBefore(Collection<Long> ids, LocalDateTime createdOn, Long id, Pageable pageable);
+
+	@EntityGraph(Group.WITH_MEMBERS)
 	Page<Group> findAllByProfessorIdAndDeletedFalse(Long professorId, Pageable pageable);
 
-	@Query("SELECT COUNT(g) FROM Group g WHERE g.deleted = FALSE AND g.professorId = :professorId AND (g.adminId = :studentId OR ( SELECT COUNT(fs.id) FROM FellowStudent fs WHERE fs.studentId = :studentId AND fs.deleted = FALSE ) = 1)")
-	Long countAllByStudentIdAndProfessorIdAndDeletedFalse(Long studentId, Long professorId);
+	@Query(value = "SELECT new net.developerpass.polimi.entity.projection.GroupSummary(g.id, g.professorId, g.adminId, g.name, g.createdOn) FROM Group g WHERE g.professorId = :professorId AND g.deleted = FALSE",
+			countQuery = "SELECT COUNT(g) FROM Group g WHERE g.professorId = :professorId AND g.deleted = FALSE")
+	Page<GroupSummary> findAllSummariesByProfessorIdAndDeletedFalse(Long professorId, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.GroupSummary(g.id, g.professorId, g.adminId, g.name, g.createdOn) FROM Group g WHERE g.professorId = :professorId AND g.deleted = FALSE")
+	Slice<GroupSummary> findAllSummariesSliceByProfessorIdAndDeletedFalse(Long professorId, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.GroupSummary(g.id, g.professorId, g.adminId, g.name, g.createdOn) FROM Group g WHERE g.professorId = :professorId AND g.deleted = FALSE AND (g.createdOn < :createdOn OR (g.createdOn = :createdOn AND g.id < :id)) ORDER BY g.createdOn DESC, g.id DESC")
+	Slice<GroupSummary> findAllSummariesByProfessorIdAndDeletedFalseBefore(Long professorId, LocalDateTime createdOn, Long id, Pageable pageable);
+
+	default Long countAllByStudentIdAndProfessorIdAndDeletedFalse(Long studentId, Long professorId) {
+		return countAllByAdminIdAndProfessorIdAndDeletedFalse(studentId, professorId)
+				+ countAllByFellowStudentIdAndProfessorIdAndDeletedFalse(studentId, professorId);
+	}
+
+	Long countAllByAdminIdAndProfessorIdAndDeletedFalse(Long adminId, Long professorId);
+
+	@Query("SELECT COUNT(g) FROM FellowStudent fs, Group g WHERE fs.studentId = :studentId AND fs.deleted = FALSE AND g.id = fs.groupId AND g.professorId = :professorId AND g.deleted = FALSE")
+	Long countAllByFellowStudentIdAndProfessorIdAndDeletedFalse(Long studentId, Long professorId);
 
 }
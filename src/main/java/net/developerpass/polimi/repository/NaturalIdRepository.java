@@ -0,0 +1,21 @@
+package net.developerpass.polimi.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * Repository of an entity with a single {@link org.hibernate.annotations.NaturalId} attribute
+ */
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+	/**
+	 * Loads the entity by its natural id.
+	 * When the entity has a natural id cache the id is resolved without a query, then the entity is read from the second-level cache.
+	 */
+	Optional<T> findBySimpleNaturalId(Serializable naturalId);
+
+}
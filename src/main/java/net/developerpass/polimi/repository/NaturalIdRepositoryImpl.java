@@ -0,0 +1,29 @@
+package net.developerpass.polimi.repository;
+
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import javax.persistence.EntityManager;
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * Base class of every repository, see {@link NaturalIdRepository}
+ */
+public class NaturalIdRepositoryImpl<T, ID extends Serializable> extends SimpleJpaRepository<T, ID> implements NaturalIdRepository<T, ID> {
+	private final EntityManager entityManager;
+
+	public NaturalIdRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+		super(entityInformation, entityManager);
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public Optional<T> findBySimpleNaturalId(Serializable naturalId) {
+		return entityManager.unwrap(Session.class)
+				.bySimpleNaturalId(getDomainClass())
+				.loadOptional(naturalId);
+	}
+
+}
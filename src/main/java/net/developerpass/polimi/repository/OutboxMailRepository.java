@@ -0,0 +1,46 @@
+package net.developerpass.polimi.repository;
+
+import net.developerpass.polimi.entity.OutboxMail;
+import net.developerpass.polimi.utils.object.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+
+	@Query("SELECT m.id FROM OutboxMail m " +
+			"WHERE (m.status = :pending AND m.nextAttemptOn <= :now) OR (m.status = :sending AND m.lockedUntil <= :now) " +
+			"ORDER BY m.id ASC")
+	List<Long> findAllIdsToClaim(OutboxStatus pending, OutboxStatus sending, LocalDateTime now, Pageable pageable);
+
+	/**
+	 * Ids of the mails to claim: pending and due, or still sending under a claim that expired
+	 */
+	default List<Long> findAllIdsToClaim(LocalDateTime now, Pageable pageable) {
+		return findAllIdsToClaim(OutboxStatus.Pending, OutboxStatus.Sending, now, pageable);
+	}
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE OutboxMail m SET m.status = :sending, m.lockedBy = :lockedBy, m.lockedUntil = :lockedUntil " +
+			"WHERE m.id IN :ids " +
+			"AND ((m.status = :pending AND m.nextAttemptOn <= :now) OR (m.status = :sending AND m.lockedUntil <= :now))")
+	int claim(OutboxStatus pending, OutboxStatus sending, Collection<Long> ids, String lockedBy, LocalDateTime lockedUntil, LocalDateTime now);
+
+	/**
+	 * Claims the mails still claimable among the ids, the rows taken by another dispatcher since they were read
+	 * are skipped. Returns the number of mails claimed.
+	 */
+	default int claim(Collection<Long> ids, String lockedBy, LocalDateTime lockedUntil, LocalDateTime now) {
+		return claim(OutboxStatus.Pending, OutboxStatus.Sending, ids, lockedBy, lockedUntil, now);
+	}
+
+	List<OutboxMail> findAllByLockedByOrderByIdAsc(String lockedBy);
+
+}
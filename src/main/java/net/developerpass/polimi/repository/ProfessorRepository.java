@@ -1,18 +1,40 @@
 package net.developerpass.polimi.repository;
 
 import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.entity.projection.ProfessorSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
-public interface ProfessorRepository extends JpaRepository<Professor, Long> {
+public interface ProfessorRepository extends NaturalIdRepository<Professor, Long> {
 
-	Optional<Professor> findByAccountId(Long accountId);
+	/**
+	 * Resolved through the accountId natural id cache
+	 */
+	default Optional<Professor> findByAccountId(Long accountId) {
+		return findBySimpleNaturalId(accountId);
+	}
+
+	@EntityGraph(Professor.WITH_ACCOUNT)
+	Optional<Professor> findWithAccountById(Long id);
 
 	Page<Professor> findAll(Pageable pageable);
 
+	@Query(value = "SELECT new net.developerpass.polimi.entity.projection.ProfessorSummary(p.id, p.name, p.surname, p.createdOn) FROM Professor p",
+			countQuery = "SELECT COUNT(p) FROM Professor p")
+	Page<ProfessorSummary> findAllSummaries(Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.ProfessorSummary(p.id, p.name, p.surname, p.createdOn) FROM Professor p")
+	Slice<ProfessorSummary> findAllSummariesSlice(Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.ProfessorSummary(p.id, p.name, p.surname, p.createdOn) FROM Professor p WHERE (p.createdOn < :createdOn OR (p.createdOn = :createdOn AND p.id < :id)) ORDER BY p.createdOn DESC, p.id DESC")
+	Slice<ProfessorSummary> findAllSummariesBefore(LocalDateTime createdOn, Long id, Pageable pageable);
+
 }
\ No newline at end of file
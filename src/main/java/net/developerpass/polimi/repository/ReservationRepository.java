@@ -1,9 +1,13 @@
 package net.developerpass.polimi.repository;
 
 import net.developerpass.polimi.entity.Reservation;
+import net.developerpass.polimi.entity.projection.ReservationSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -16,13 +20,48 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
 
 	Optional<Reservation> findByIdAndDeletedFalse(Long id);
 
+	@EntityGraph(Reservation.WITH_DISCUSSION)
+	Optional<Reservation> findWithDiscussionById(Long id);
+
+	@EntityGraph(Reservation.WITH_DISCUSSION)
+	Optional<Reservation> findWithDiscussionByIdAndDeletedFalse(Long id);
+
 	@Query("SELECT COUNT(r) FROM Reservation r WHERE r.groupId = :groupId AND r.discussion.date > :now AND r.discussion.deleted = FALSE AND r.deleted = FALSE")
 	Long countAllByGroupIdAndDateAndDeletedFalse(Long groupId, LocalDateTime now);
 
-	List<Reservation> findAllByDiscussionIdAndDeletedFalse(Long discussionId);
+	@Query("SELECT r.groupId FROM Reservation r WHERE r.discussionId = :discussionId AND r.deleted = FALSE")
+	List<Long> findAllGroupIdsByDiscussionIdAndDeletedFalse(Long discussionId);
+
+	/**
+	 * Soft deletes every reservation of the discussion with a single statement, returns the number of reservations deleted.
+	 * The version is incremented, a reservation loaded before the delete can no longer be saved over it
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Reservation r SET r.deleted = TRUE, r.active = NULL, r.version = r.version + 1 WHERE r.discussionId = :discussionId AND r.deleted = FALSE")
+	int softDeleteAllByDiscussionId(Long discussionId);
 
 	Page<Reservation> findAllByGroupIdAndDeletedFalse(Long groupId, Pageable pageable);
 
 	Page<Reservation> findAllByDiscussion_ProfessorIdAndDeletedFalse(Long professorId, Pageable pageable);
 
+	@Query(value = "SELECT new net.developerpass.polimi.entity.projection.ReservationSummary(r.id, r.groupId, r.discussionId, d.name, d.date, r.createdOn) FROM Reservation r JOIN r.discussion d WHERE r.groupId = :groupId AND r.deleted = FALSE",
+			countQuery = "SELECT COUNT(r) FROM Reservation r WHERE r.groupId = :groupId AND r.deleted = FALSE")
+	Page<ReservationSummary> findAllSummariesByGroupIdAndDeletedFalse(Long groupId, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.ReservationSummary(r.id, r.groupId, r.discussionId, d.name, d.date, r.createdOn) FROM Reservation r JOIN r.discussion d WHERE r.groupId = :groupId AND r.deleted = FALSE")
+	Slice<ReservationSummary> findAllSummariesSliceByGroupIdAndDeletedFalse(Long groupId, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.ReservationSummary(r.id, r.groupId, r.discussionId, d.name, d.date, r.createdOn) FROM Reservation r JOIN r.discussion d WHERE r.groupId = :groupId AND r.deleted = FALSE AND (r.createdOn < :createdOn OR (r.createdOn = :createdOn AND r.id < :id)) ORDER BY r.createdOn DESC, r.id DESC")
+	Slice<ReservationSummary> findAllSummariesByGroupIdAndDeletedFalseBefore(Long groupId, LocalDateTime createdOn, Long id, Pageable pageable);
+
+	@Query(value = "SELECT new net.developerpass.polimi.entity.projection.ReservationSummary(r.id, r.groupId, r.discussionId, d.name, d.date, r.createdOn) FROM Reservation r JOIN r.discussion d WHERE d.professorId = :professorId AND r.deleted = FALSE",
+			countQuery = "SELECT COUNT(r) FROM Reservation r JOIN r.discussion d WHERE d.professorId = :professorId AND r.deleted = FALSE")
+	Page<ReservationSummary> findAllSummariesByProfessorIdAndDeletedFalse(Long professorId, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.ReservationSummary(r.id, r.groupId, r.discussionId, d.name, d.date, r.createdOn) FROM Reservation r JOIN r.discussion d WHERE d.professorId = :professorId AND r.deleted = FALSE")
+	Slice<ReservationSummary> findAllSummariesSliceByProfessorIdAndDeletedFalse(Long professorId, Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.ReservationSummary(r.id, r.groupId, r.discussionId, d.name, d.date, r.createdOn) FROM Reservation r JOIN r.discussion d WHERE d.professorId = :professorId AND r.deleted = FALSE AND (r.createdOn < :createdOn OR (r.createdOn = :createdOn AND r.id < :id)) ORDER BY r.createdOn DESC, r.id DESC")
+	Slice<ReservationSummary> findAllSummariesByProfessorIdAndDeletedFalseBefore(Long professorId, LocalDateTime createdOn, Long id, Pageable pageable);
+
 }
@@ -1,14 +1,38 @@
 package net.developerpass.polimi.repository;
 
 import net.developerpass.polimi.entity.Student;
-import org.springframework.data.jpa.repository.JpaRepository;
+import net.developerpass.polimi.entity.projection.StudentSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends NaturalIdRepository<Student, Long> {
 
-	Optional<Student> findByAccountId(Long accountId);
+	/**
+	 * Resolved through the accountId natural id cache
+	 */
+	default Optional<Student> findByAccountId(Long accountId) {
+		return findBySimpleNaturalId(accountId);
+	}
+
+	@EntityGraph(Student.WITH_ACCOUNT)
+	Optional<Student> findWithAccountById(Long id);
+
+	@Query(value = "SELECT new net.developerpass.polimi.entity.projection.StudentSummary(s.id, s.name, s.surname, s.createdOn) FROM Student s",
+			countQuery = "SELECT COUNT(s) FROM Student s")
+	Page<StudentSummary> findAllSummaries(Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.StudentSummary(s.id, s.name, s.surname, s.createdOn) FROM Student s")
+	Slice<StudentSummary> findAllSummariesSlice(Pageable pageable);
+
+	@Query("SELECT new net.developerpass.polimi.entity.projection.StudentSummary(s.id, s.name, s.surname, s.createdOn) FROM Student s WHERE (s.createdOn < :createdOn OR (s.createdOn = :createdOn AND s.id < :id)) ORDER BY s.createdOn DESC, s.id DESC")
+	Slice<StudentSummary> findAllSummariesBefore(LocalDateTime createdOn, Long id, Pageable pageable);
 
 }
@@ -0,0 +1,30 @@
+package net.developerpass.polimi.security;
+
+import lombok.Getter;
+import net.developerpass.polimi.service.jwt.TokenClaims;
+import net.developerpass.polimi.utils.object.Role;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+/**
+ * Principal stored in the SecurityContext for token requests, services read the current user from it
+ * without querying the database.
+ */
+@Getter
+public class AuthenticatedUser extends User {
+	private final Long accountId;
+	private final Role role;
+	/**
+	 * Student id or Professor id, depending on the role
+	 */
+	private final Long userId;
+
+	public AuthenticatedUser(TokenClaims claims) {
+		super(claims.getUsername(), "", List.of(new SimpleGrantedAuthority(claims.getRole().name())));
+		this.accountId = claims.getAccountId();
+		this.role = claims.getRole();
+		this.userId = claims.getUserId();
+	}
+}
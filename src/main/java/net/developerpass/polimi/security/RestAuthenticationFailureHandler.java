@@ -0,0 +1,63 @@
+package net.developerpass.polimi.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import net.developerpass.polimi.configuration.error.ErrorResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.http.HttpStatus.FORBIDDEN;
+
+/**
+ * Writes the NOT_LOGGED error for rejected tokens.
+ * The body only changes with its timestamp, so it is serialized at most once per second.
+ */
+public class RestAuthenticationFailureHandler implements AuthenticationFailureHandler {
+	private final ObjectMapper mapper;
+	private final Clock clock;
+	private final AtomicReference<CachedBody> body = new AtomicReference<>(new CachedBody(-1, new byte[0]));
+
+	public RestAuthenticationFailureHandler() {
+		this(new ObjectMapper().findAndRegisterModules(), Clock.systemDefaultZone());
+	}
+
+	RestAuthenticationFailureHandler(ObjectMapper mapper, Clock clock) {
+		this.mapper = mapper;
+		this.clock = clock;
+	}
+
+	@Override
+	public void onAuthenticationFailure(
+			HttpServletRequest request,
+			HttpServletResponse response,
+			AuthenticationException exception) throws IOException {
+		byte[] bytes = currentBody();
+		response.setContentType("application/json");
+		response.setStatus(FORBIDDEN.value());
+		response.setContentLength(bytes.length);
+		response.getOutputStream().write(bytes);
+	}
+
+	private byte[] currentBody() throws JsonProcessingException {
+		long second = clock.millis() / 1000;
+		CachedBody cached = body.get();
+		if (cached.second != second) {
+			cached = new CachedBody(second, mapper.writeValueAsBytes(new ErrorResponse(FORBIDDEN.value(), "NOT_LOGGED")));
+			body.set(cached);
+		}
+		return cached.bytes;
+	}
+
+	@AllArgsConstructor
+	private static class CachedBody {
+		private final long second;
+		private final byte[] bytes;
+	}
+}
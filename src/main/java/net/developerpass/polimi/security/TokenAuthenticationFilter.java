@@ -1,5 +1,6 @@
 package net.developerpass.polimi.security;
 
+import net.developerpass.polimi.service.jwt.JWTService;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -16,9 +17,13 @@ import java.util.Optional;
 public class TokenAuthenticationFilter extends AbstractAuthenticationProcessingFilter {
 	private static final String AUTHORIZATION = "Authorization";
 	private static final String BEARER = "Bearer";
+	private static final int MAX_TOKEN_LENGTH = 4096;
 
-	public TokenAuthenticationFilter(RequestMatcher requiresAuth) {
+	private final JWTService jwtService;
+
+	public TokenAuthenticationFilter(RequestMatcher requiresAuth, JWTService jwtService) {
 		super(requiresAuth);
+		this.jwtService = jwtService;
 	}
 
 	@Override
@@ -26,13 +31,48 @@ public class TokenAuthenticationFilter extends AbstractAuthenticationProcessingF
 			HttpServletRequest request,
 			HttpServletResponse response) {
 		String token = Optional.ofNullable(request.getHeader(AUTHORIZATION))
-				.map(v -> v.replace(BEARER, "").strip())
+				.map(v -> v.startsWith(BEARER) ? v.substring(BEARER.length()) : v)
+				.map(String::strip)
 				.orElseThrow(() -> new BadCredentialsException("Missing authentication token"));
 
+		// Reject malformed and unsigned tokens before reaching the authentication manager
+		if (!isWellFormed(token)) {
+			throw new BadCredentialsException("Malformed authentication token");
+		}
+		try {
+			jwtService.verify(token);
+		} catch (JWTService.TokenVerificationException e) {
+			throw new BadCredentialsException("Invalid authentication token");
+		}
+
 		Authentication auth = new UsernamePasswordAuthenticationToken(token, token);
 		return getAuthenticationManager().authenticate(auth);
 	}
 
+	/**
+	 * Checks the compact JWS shape: three non-empty base64url segments separated by dots.
+	 */
+	static boolean isWellFormed(String token) {
+		int length = token.length();
+		if (length == 0 || length > MAX_TOKEN_LENGTH) {
+			return false;
+		}
+		int dots = 0;
+		char previous = '.';
+		for (int i = 0; i < length; i++) {
+			char c = token.charAt(i);
+			if (c == '.') {
+				if (previous == '.' || ++dots > 2) {
+					return false;
+				}
+			} else if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+				return false;
+			}
+			previous = c;
+		}
+		return dots == 2 && previous != '.';
+	}
+
 	@Override
 	protected void successfulAuthentication(
 			HttpServletRequest request,
@@ -42,4 +82,4 @@ public class TokenAuthenticationFilter extends AbstractAuthenticationProcessingF
 		super.successfulAuthentication(request, response, chain, authResult);
 		chain.doFilter(request, response);
 	}
-}
\ No newline at end of file
+}
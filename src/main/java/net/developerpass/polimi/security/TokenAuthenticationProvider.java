@@ -7,7 +7,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.dao.AbstractUserDetailsAuthenticationProvider;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -29,11 +28,7 @@ public class TokenAuthenticationProvider extends AbstractUserDetailsAuthenticati
 				.ofNullable(token)
 				.flatMap(t ->
 						Optional.of(jwtAuthenticationService.authenticateByToken(String.valueOf(t)))
-								.map(u -> User.builder()
-									.username(u.getUsername())
-									.password(u.getPassword())
-									.authorities(u.getRole().name())
-									.build()))
+								.map(AuthenticatedUser::new))
 				.orElseThrow(() -> new BadCredentialsException("Invalid authentication token=" + token));
 	}
 }
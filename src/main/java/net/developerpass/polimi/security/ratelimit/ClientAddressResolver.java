@@ -0,0 +1,72 @@
+package net.developerpass.polimi.security.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the client IP the public endpoints are limited by.
+ * X-Forwarded-For is only read when the request comes from one of the trusted proxies, the client is then the
+ * nearest address of the chain that is not a trusted proxy. Addresses before it were written by the client
+ * and are ignored.
+ */
+@Component
+public class ClientAddressResolver {
+	private static final String FORWARDED_FOR = "X-Forwarded-For";
+	/**
+	 * IPv4 or IPv6 literals, anything else would be resolved through DNS by the matchers
+	 */
+	private static final Pattern IP_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}|[0-9a-fA-F]*:[0-9a-fA-F:.]*");
+
+	private final List<IpAddressMatcher> trustedProxies;
+
+	public ClientAddressResolver(@Value("${rate-limit.trusted-proxies:}") List<String> trustedProxies) {
+		this.trustedProxies = trustedProxies.stream()
+				.map(String::strip)
+				.filter(proxy -> !proxy.isEmpty())
+				.map(IpAddressMatcher::new)
+				.collect(Collectors.toList());
+	}
+
+	public String resolve(HttpServletRequest request) {
+		String address = request.getRemoteAddr();
+		if (!isTrustedProxy(address)) {
+			return address;
+		}
+
+		List<String> chain = new ArrayList<>();
+		for (String header : Collections.list(request.getHeaders(FORWARDED_FOR))) {
+			for (String hop : header.split(",")) {
+				if (!hop.isBlank()) {
+					chain.add(hop.strip());
+				}
+			}
+		}
+		for (int i = chain.size() - 1; i >= 0; i--) {
+			address = chain.get(i);
+			if (!isTrustedProxy(address)) {
+				return address;
+			}
+		}
+		return address;
+	}
+
+	private boolean isTrustedProxy(String address) {
+		if (trustedProxies.isEmpty() || !IP_LITERAL.matcher(address).matches()) {
+			return false;
+		}
+		try {
+			return trustedProxies.stream().anyMatch(proxy -> proxy.matches(address));
+		} catch (IllegalArgumentException e) {
+			// Malformed IPv6 literal
+			return false;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package net.developerpass.polimi.security.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the public login, register and reset endpoints by client IP and by username.
+ * Many clients may share an IP behind a NAT, the IP buckets are therefore larger than the username ones.
+ */
+@Component
+public class PublicRateLimiter {
+	private static final int STRIPES = 64;
+	private static final int MAX_KEYS_PER_STRIPE = 1024;
+
+	private final Limit login;
+	private final Limit register;
+	private final Limit reset;
+
+	@Autowired
+	public PublicRateLimiter(
+			@Value("${rate-limit.login.ip-capacity:200}") int loginIpCapacity,
+			@Value("${rate-limit.login.ip-refill-per-minute:100}") int loginIpRefill,
+			@Value("${rate-limit.login.capacity:10}") int loginCapacity,
+			@Value("${rate-limit.login.refill-per-minute:10}") int loginRefill,
+			@Value("${rate-limit.register.ip-capacity:50}") int registerIpCapacity,
+			@Value("${rate-limit.register.ip-refill-per-minute:20}") int registerIpRefill,
+			@Value("${rate-limit.register.capacity:5}") int registerCapacity,
+			@Value("${rate-limit.register.refill-per-minute:5}") int registerRefill,
+			@Value("${rate-limit.reset.ip-capacity:20}") int resetIpCapacity,
+			@Value("${rate-limit.reset.ip-refill-per-minute:5}") int resetIpRefill,
+			@Value("${rate-limit.reset.capacity:3}") int resetCapacity,
+			@Value("${rate-limit.reset.refill-per-minute:1}") int resetRefill) {
+		this(new Limit(loginIpCapacity, loginIpRefill, loginCapacity, loginRefill),
+				new Limit(registerIpCapacity, registerIpRefill, registerCapacity, registerRefill),
+				new Limit(resetIpCapacity, resetIpRefill, resetCapacity, resetRefill));
+	}
+
+	PublicRateLimiter(Limit login, Limit register, Limit reset) {
+		this.login = login;
+		this.register = register;
+		this.reset = reset;
+	}
+
+	public void checkLogin(String ip, String username) throws RateLimitExceededException {
+		login.check(ip, username);
+	}
+
+	public void checkRegister(String ip, String username) throws RateLimitExceededException {
+		register.check(ip, username);
+	}
+
+	public void checkReset(String ip, String username) throws RateLimitExceededException {
+		reset.check(ip, username);
+	}
+
+	/**
+	 * Allowed and rejected requests for each endpoint group
+	 */
+	public Map<String, TokenBucketRateLimiter.Statistics> getStatistics() {
+		return Map.of(
+				"login", login.getStatistics(),
+				"register", register.getStatistics(),
+				"reset", reset.getStatistics()
+		);
+	}
+
+	/**
+	 * The IP and username buckets of an endpoint group
+	 */
+	static class Limit {
+		private final TokenBucketRateLimiter ips;
+		private final TokenBucketRateLimiter usernames;
+
+		Limit(int ipCapacity, int ipRefillPerMinute, int usernameCapacity, int usernameRefillPerMinute) {
+			this.ips = new TokenBucketRateLimiter(ipCapacity, ipRefillPerMinute, STRIPES, MAX_KEYS_PER_STRIPE);
+			this.usernames = new TokenBucketRateLimiter(usernameCapacity, usernameRefillPerMinute, STRIPES, MAX_KEYS_PER_STRIPE);
+		}
+
+		/**
+		 * The IP token is only kept once the username bucket accepted the request as well,
+		 * requests rejected for their username do not drain the bucket shared by the other clients of the IP
+		 */
+		private void check(String ip, String username) {
+			String ipKey = "ip:" + ip;
+			long waitNanos = ips.tryAcquire(ipKey);
+			if (waitNanos == 0 && username != null) {
+				waitNanos = usernames.tryAcquire("user:" + username.strip().toLowerCase());
+				if (waitNanos > 0) {
+					ips.release(ipKey);
+				}
+			}
+			if (waitNanos > 0) {
+				long retryAfterSeconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+				throw new RateLimitExceededException(retryAfterSeconds);
+			}
+		}
+
+		/**
+		 * Every allowed request took an IP token, a rejected one was rejected by exactly one of the buckets
+		 */
+		private TokenBucketRateLimiter.Statistics getStatistics() {
+			TokenBucketRateLimiter.Statistics ipStatistics = ips.getStatistics();
+			return new TokenBucketRateLimiter.Statistics(ipStatistics.getAllowedCount(),
+					ipStatistics.getRejectedCount() + usernames.getStatistics().getRejectedCount());
+		}
+	}
+}
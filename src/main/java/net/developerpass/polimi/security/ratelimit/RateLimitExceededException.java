@@ -0,0 +1,13 @@
+package net.developerpass.polimi.security.ratelimit;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+	private final long retryAfterSeconds;
+
+	public RateLimitExceededException(long retryAfterSeconds) {
+		super("Too many requests");
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+}
@@ -0,0 +1,116 @@
+package net.developerpass.polimi.security.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process token bucket per key.
+ * Keys are spread over independently locked stripes, each stripe keeps at most {@code maxKeysPerStripe}
+ * buckets and drops the least recently used one when full.
+ */
+public class TokenBucketRateLimiter {
+	private final double capacity;
+	private final double tokensPerNano;
+	private final Stripe[] stripes;
+
+	private final LongAdder allowed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	public TokenBucketRateLimiter(int capacity, int refillPerMinute, int stripeCount, int maxKeysPerStripe) {
+		if (capacity < 1 || refillPerMinute < 1 || stripeCount < 1 || maxKeysPerStripe < 1) {
+			throw new IllegalArgumentException("Invalid rate limiter configuration");
+		}
+		this.capacity = capacity;
+		this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+		this.stripes = new Stripe[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			stripes[i] = new Stripe(maxKeysPerStripe);
+		}
+	}
+
+	/**
+	 * Takes one token from the key bucket.
+	 *
+	 * @return 0 when the token was taken, otherwise the nanoseconds until the next token is available
+	 */
+	public long tryAcquire(String key) {
+		long now = System.nanoTime();
+		Stripe stripe = stripe(key);
+		synchronized (stripe) {
+			Bucket bucket = stripe.buckets.get(key);
+			if (bucket == null) {
+				bucket = new Bucket(capacity, now);
+				stripe.buckets.put(key, bucket);
+			} else {
+				bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefill) * tokensPerNano);
+				bucket.lastRefill = now;
+			}
+			if (bucket.tokens >= 1) {
+				bucket.tokens -= 1;
+				allowed.increment();
+				return 0;
+			}
+			rejected.increment();
+			return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+		}
+	}
+
+	/**
+	 * Gives back a token taken by {@link #tryAcquire(String)} for a request that another bucket rejected afterwards
+	 */
+	public void release(String key) {
+		Stripe stripe = stripe(key);
+		synchronized (stripe) {
+			Bucket bucket = stripe.buckets.get(key);
+			if (bucket != null) {
+				bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+			}
+			allowed.decrement();
+		}
+	}
+
+	public Statistics getStatistics() {
+		return new Statistics(allowed.sum(), rejected.sum());
+	}
+
+	private Stripe stripe(String key) {
+		return stripes[(key.hashCode() & Integer.MAX_VALUE) % stripes.length];
+	}
+
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Statistics {
+		private final long allowedCount;
+		private final long rejectedCount;
+	}
+
+	private static class Bucket {
+		private double tokens;
+		private long lastRefill;
+
+		private Bucket(double tokens, long lastRefill) {
+			this.tokens = tokens;
+			this.lastRefill = lastRefill;
+		}
+	}
+
+	private static class Stripe {
+		private final Map<String, Bucket> buckets;
+
+		private Stripe(int maxKeys) {
+			this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+					return size() > maxKeys;
+				}
+			};
+		}
+	}
+}
@@ -9,18 +9,34 @@ import net.developerpass.polimi.entity.Group;
 import net.developerpass.polimi.entity.Professor;
 import net.developerpass.polimi.entity.Reservation;
 import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.entity.history.DiscussionHistory;
+import net.developerpass.polimi.entity.history.GroupHistory;
+import net.developerpass.polimi.entity.projection.DiscussionSummary;
+import net.developerpass.polimi.entity.projection.FileSummary;
+import net.developerpass.polimi.entity.projection.GroupSummary;
+import net.developerpass.polimi.entity.projection.ProfessorSummary;
+import net.developerpass.polimi.entity.projection.ReservationSummary;
+import net.developerpass.polimi.entity.projection.StudentSummary;
 import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.repository.DiscussionHistoryRepository;
 import net.developerpass.polimi.repository.DiscussionRepository;
 import net.developerpass.polimi.repository.FileRepository;
+import net.developerpass.polimi.repository.GroupHistoryRepository;
 import net.developerpass.polimi.repository.GroupRepository;
 import net.developerpass.polimi.repository.ProfessorRepository;
 import net.developerpass.polimi.repository.ReservationRepository;
 import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.security.AuthenticatedUser;
 import net.developerpass.polimi.service.jwt.JWTService;
+import net.developerpass.polimi.service.notification.DiscussionChangedEvent;
+import net.developerpass.polimi.utils.object.Cursor;
+import net.developerpass.polimi.utils.object.CursorPage;
 import net.developerpass.polimi.utils.object.Role;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -33,7 +49,7 @@ import java.util.List;
 
 @Slf4j
 @Service
-@Transactional
+@Transactional(readOnly = true)
 @RequiredArgsConstructor(onConstructor_ = {@Autowired})
 public class ProfessorService {
 	private final FileRepository fileRepository;
@@ -43,70 +59,144 @@ public class ProfessorService {
 	private final ProfessorRepository professorRepository;
 	private final DiscussionRepository discussionRepository;
 	private final ReservationRepository reservationRepository;
+	private final GroupHistoryRepository groupHistoryRepository;
+	private final DiscussionHistoryRepository discussionHistoryRepository;
+	private final ApplicationEventPublisher eventPublisher;
 
-	private Professor getProfessor() {
+	private Long getCurrentProfessorId() {
 		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 		if (authentication != null) {
+			if (authentication.getPrincipal() instanceof AuthenticatedUser) {
+				AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+
+				if (user.getRole() != Role.Professor) {
+					throw new JWTService.TokenVerificationException();
+				}
+
+				return user.getUserId();
+			}
+
+			// Principals not issued by the token filter (e.g. mock users) are resolved by username
 			User user = ((User) authentication.getPrincipal());
 
 			if (!user.getAuthorities().contains(new SimpleGrantedAuthority(Role.Professor.name()))) {
 				throw new JWTService.TokenVerificationException();
 			}
 
-			Account account = accountRepository.findByRoleAndUsernameAndPassword(Role.Professor, user.getUsername(), user.getPassword())
+			Account account = accountRepository.findByRoleAndUsername(Role.Professor, user.getUsername())
 					.orElseThrow(JWTService.TokenVerificationException::new);
 			return professorRepository.findByAccountId(account.getId())
+					.map(Professor::getId)
 					.orElseThrow(JWTService.TokenVerificationException::new);
 		}
 		throw new JWTService.TokenVerificationException();
 	}
 
 	public Professor getProfile() {
-		return getProfessor();
+		return professorRepository.findWithAccountById(getCurrentProfessorId())
+				.orElseThrow(JWTService.TokenVerificationException::new);
+	}
+
+	public Page<ProfessorSummary> getProfessors(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		return professorRepository.findAllSummaries(PageRequest.of(page, pageSize));
 	}
 
-	public Page<Professor> getProfessors(Integer page, Integer pageSize) {
+	public Slice<ProfessorSummary> getProfessorsSlice(Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		return professorRepository.findAll(PageRequest.of(page, pageSize));
+		return professorRepository.findAllSummariesSlice(PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<ProfessorSummary> getProfessorsByCursor(String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(professorRepository.findAllSummariesBefore(position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public Professor getProfessor(Long professorId) {
-		return professorRepository.findById(professorId)
+		return professorRepository.findWithAccountById(professorId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid professorId"));
 	}
 
-	public Page<Group> getGroups(Integer page, Integer pageSize) {
+	public Page<GroupSummary> getGroups(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Long currentProfessorId = getCurrentProfessorId();
+		return groupRepository.findAllSummariesByProfessorIdAndDeletedFalse(currentProfessorId, PageRequest.of(page, pageSize));
+	}
+
+	public Slice<GroupSummary> getGroupsSlice(Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		Professor professor = getProfessor();
-		return groupRepository.findAllByProfessorIdAndDeletedFalse(professor.getId(), PageRequest.of(page, pageSize));
+		Long currentProfessorId = getCurrentProfessorId();
+		return groupRepository.findAllSummariesSliceByProfessorIdAndDeletedFalse(currentProfessorId, PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<GroupSummary> getGroupsByCursor(String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Long currentProfessorId = getCurrentProfessorId();
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(groupRepository.findAllSummariesByProfessorIdAndDeletedFalseBefore(currentProfessorId, position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public Group getGroup(Long groupId) {
-		return groupRepository.findById(groupId)
+		return groupRepository.findWithDetailsById(groupId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid groupId"));
 	}
 
-	public Page<Student> getStudents(Integer page, Integer pageSize) {
+	public Page<StudentSummary> getStudents(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		return studentRepository.findAllSummaries(PageRequest.of(page, pageSize));
+	}
+
+	public Slice<StudentSummary> getStudentsSlice(Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		return studentRepository.findAll(PageRequest.of(page, pageSize));
+		return studentRepository.findAllSummariesSlice(PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<StudentSummary> getStudentsByCursor(String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(studentRepository.findAllSummariesBefore(position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public Student getStudent(Long studentId) {
-		return studentRepository.findById(studentId)
+		return studentRepository.findWithAccountById(studentId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid studentId"));
 	}
 
-	public Page<File> getFiles(Long groupId, Integer page, Integer pageSize) {
+	public Page<FileSummary> getFiles(Long groupId, Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		return fileRepository.findAllSummariesByGroupIdAndDeletedFalse(groupId, PageRequest.of(page, pageSize));
+	}
+
+	public Slice<FileSummary> getFilesSlice(Long groupId, Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		return fileRepository.findAllByGroupIdAndDeletedFalseOrderByCreatedOnDesc(groupId, PageRequest.of(page, pageSize));
+		return fileRepository.findAllSummariesSliceByGroupIdAndDeletedFalse(groupId, PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<FileSummary> getFilesByCursor(Long groupId, String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(fileRepository.findAllSummariesByGroupIdAndDeletedFalseBefore(groupId, position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public File getFile(Long fileId) {
@@ -114,12 +204,28 @@ public class ProfessorService {
 				.orElseThrow(() -> new IllegalArgumentException("Invalid fileId"));
 	}
 
-	public Page<Discussion> getDiscussions(Integer page, Integer pageSize) {
+	public Page<DiscussionSummary> getDiscussions(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Long currentProfessorId = getCurrentProfessorId();
+		return discussionRepository.findAllSummariesByProfessorIdAndDeletedFalse(currentProfessorId, PageRequest.of(page, pageSize));
+	}
+
+	public Slice<DiscussionSummary> getDiscussionsSlice(Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		Professor professor = getProfessor();
-		return discussionRepository.findAllByProfessorIdAndDeletedFalse(professor.getId(), PageRequest.of(page, pageSize));
+		Long currentProfessorId = getCurrentProfessorId();
+		return discussionRepository.findAllSummariesSliceByProfessorIdAndDeletedFalse(currentProfessorId, PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<DiscussionSummary> getDiscussionsByCursor(String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Long currentProfessorId = getCurrentProfessorId();
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(discussionRepository.findAllSummariesByProfessorIdAndDeletedFalseBefore(currentProfessorId, position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public Discussion getDiscussion(Long discussionId) {
@@ -127,23 +233,25 @@ public class ProfessorService {
 				.orElseThrow(() -> new IllegalArgumentException("Invalid discussionId"));
 	}
 
+	@Transactional
 	public Discussion createDiscussion(String name, LocalDateTime date) {
-		Professor professor = getProfessor();
+		Long currentProfessorId = getCurrentProfessorId();
 
 		if (LocalDateTime.now().isAfter(date)) {
 			throw new IllegalArgumentException("Unable to create a discussion with an earlier date than the current one");
 		}
 
-		return discussionRepository.save(new Discussion(professor.getId(), name, date));
+		return discussionRepository.save(new Discussion(currentProfessorId, name, date));
 	}
 
+	@Transactional
 	public Discussion updateDiscussion(Long discussionId, String name, LocalDateTime date) {
-		Professor professor = getProfessor();
+		Long currentProfessorId = getCurrentProfessorId();
 
 		Discussion discussion = discussionRepository.findByIdAndDeletedFalse(discussionId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid discussionId"));
 
-		if (!discussion.getProfessorId().equals(professor.getId())) {
+		if (!discussion.getProfessorId().equals(currentProfessorId)) {
 			throw new IllegalArgumentException("You are not the professor of this discussion");
 		}
 
@@ -155,18 +263,26 @@ public class ProfessorService {
 			throw new IllegalArgumentException("Unable to update the date with an earlier than the current one");
 		}
 
+		boolean rescheduled = !date.equals(discussion.getDate());
 		discussion.setName(name);
 		discussion.setDate(date);
-		return discussionRepository.save(discussion);
+		discussion = discussionRepository.save(discussion);
+
+		if (rescheduled) {
+			eventPublisher.publishEvent(new DiscussionChangedEvent(discussionId, name, date, false,
+					reservationRepository.findAllGroupIdsByDiscussionIdAndDeletedFalse(discussionId)));
+		}
+		return discussion;
 	}
 
+	@Transactional
 	public void deleteDiscussion(Long discussionId) {
-		Professor professor = getProfessor();
+		Long currentProfessorId = getCurrentProfessorId();
 
 		Discussion discussion = discussionRepository.findByIdAndDeletedFalse(discussionId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid reservationId"));
 
-		if (!discussion.getProfessorId().equals(professor.getId())) {
+		if (!discussion.getProfessorId().equals(currentProfessorId)) {
 			throw new IllegalArgumentException("You are not the professor of this discussion");
 		}
 
@@ -176,26 +292,44 @@ public class ProfessorService {
 
 		discussion.setDeleted(true);
 		discussionRepository.save(discussion);
-		List<Reservation> reservations = reservationRepository.findAllByDiscussionIdAndDeletedFalse(discussionId);
-		reservations.forEach(reservation -> reservation.setDeleted(true));
-		reservationRepository.saveAll(reservations);
+		List<Long> groupIds = reservationRepository.findAllGroupIdsByDiscussionIdAndDeletedFalse(discussionId);
+		reservationRepository.softDeleteAllByDiscussionId(discussionId);
+
+		eventPublisher.publishEvent(new DiscussionChangedEvent(discussionId, discussion.getName(), discussion.getDate(), true, groupIds));
+	}
+
+	public Page<ReservationSummary> getReservations(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Long currentProfessorId = getCurrentProfessorId();
+		return reservationRepository.findAllSummariesByProfessorIdAndDeletedFalse(currentProfessorId, PageRequest.of(page, pageSize));
 	}
 
-	public Page<Reservation> getReservations(Integer page, Integer pageSize) {
+	public Slice<ReservationSummary> getReservationsSlice(Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		Professor professor = getProfessor();
-		return reservationRepository.findAllByDiscussion_ProfessorIdAndDeletedFalse(professor.getId(), PageRequest.of(page, pageSize));
+		Long currentProfessorId = getCurrentProfessorId();
+		return reservationRepository.findAllSummariesSliceByProfessorIdAndDeletedFalse(currentProfessorId, PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<ReservationSummary> getReservationsByCursor(String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Long currentProfessorId = getCurrentProfessorId();
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(reservationRepository.findAllSummariesByProfessorIdAndDeletedFalseBefore(currentProfessorId, position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public Reservation getReservation(Long reservationId) {
-		return reservationRepository.findById(reservationId)
+		return reservationRepository.findWithDiscussionById(reservationId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid reservationId"));
 	}
 
+	@Transactional
 	public void deleteReservation(Long reservationId) {
-		Professor professor = getProfessor();
+		Long currentProfessorId = getCurrentProfessorId();
 
 		Reservation reservation = reservationRepository.findById(reservationId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid reservationId"));
@@ -203,11 +337,28 @@ public class ProfessorService {
 		Discussion discussion = discussionRepository.findById(reservation.getDiscussionId())
 				.orElseThrow(() -> new IllegalArgumentException("Invalid reservationId"));
 
-		if (!discussion.getProfessorId().equals(professor.getId())) {
+		if (!discussion.getProfessorId().equals(currentProfessorId)) {
 			throw new IllegalArgumentException("You are not the professor of this discussion");
 		}
 
 		reservation.setDeleted(true);
 		reservationRepository.save(reservation);
 	}
+
+	public Page<GroupHistory> getArchivedGroups(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Long currentProfessorId = getCurrentProfessorId();
+		return groupHistoryRepository.findAllByProfessorIdOrderByArchivedOnDesc(currentProfessorId, PageRequest.of(page, pageSize));
+	}
+
+	public Page<DiscussionHistory> getArchivedDiscussions(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Long currentProfessorId = getCurrentProfessorId();
+		return discussionHistoryRepository.findAllByProfessorIdOrderByArchivedOnDesc(currentProfessorId, PageRequest.of(page, pageSize));
+	}
+
 }
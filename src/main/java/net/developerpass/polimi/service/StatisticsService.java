@@ -0,0 +1,45 @@
+package net.developerpass.polimi.service;
+
+import net.developerpass.polimi.configuration.cache.SecondLevelCacheStatistics;
+import net.developerpass.polimi.configuration.datasource.ReadWriteRoutingDataSource;
+import net.developerpass.polimi.security.ratelimit.PublicRateLimiter;
+import net.developerpass.polimi.service.jwt.JWTService;
+import net.developerpass.polimi.service.jwt.TokenVersionRegistry;
+import net.developerpass.polimi.utils.object.ApplicationStatistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+/**
+ * Collects the counters of this node, every node keeps its own
+ */
+@Service
+public class StatisticsService {
+	private final SecondLevelCacheStatistics secondLevelCacheStatistics;
+	private final JWTService jwtService;
+	private final TokenVersionRegistry tokenVersionRegistry;
+	private final PublicRateLimiter publicRateLimiter;
+	private final ObjectProvider<ReadWriteRoutingDataSource> readWriteRoutingDataSource;
+
+	public StatisticsService(
+			SecondLevelCacheStatistics secondLevelCacheStatistics,
+			JWTService jwtService,
+			TokenVersionRegistry tokenVersionRegistry,
+			PublicRateLimiter publicRateLimiter,
+			ObjectProvider<ReadWriteRoutingDataSource> readWriteRoutingDataSource) {
+		this.secondLevelCacheStatistics = secondLevelCacheStatistics;
+		this.jwtService = jwtService;
+		this.tokenVersionRegistry = tokenVersionRegistry;
+		this.publicRateLimiter = publicRateLimiter;
+		this.readWriteRoutingDataSource = readWriteRoutingDataSource;
+	}
+
+	public ApplicationStatistics getStatistics() {
+		ReadWriteRoutingDataSource routing = readWriteRoutingDataSource.getIfAvailable();
+		return new ApplicationStatistics(
+				secondLevelCacheStatistics.getStatistics(),
+				jwtService.getClaimsCacheStatistics(),
+				tokenVersionRegistry.getStatistics(),
+				publicRateLimiter.getStatistics(),
+				routing != null ? routing.getStatistics() : null);
+	}
+}
@@ -0,0 +1,312 @@
+package net.developerpass.polimi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.service.authentication.StudentAuthenticationService;
+import net.developerpass.polimi.utils.object.RegisterGeneric;
+import net.developerpass.polimi.utils.object.Role;
+import net.developerpass.polimi.utils.object.StudentImportReport;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports a student roster streamed as CSV ({@code username,password,name,surname}) or NDJSON ({@link RegisterGeneric}).
+ * Rows are read line by line and written in chunks of {@code student-import.batch-size} with batched JDBC statements,
+ * each chunk in its own transaction, so memory does not depend on the roster size.
+ */
+@Slf4j
+@Service
+public class StudentImportService {
+	public static final String CSV = "text/csv";
+	public static final String NDJSON = "application/x-ndjson";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final StudentAuthenticationService studentAuthenticationService;
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final EntityManagerFactory entityManagerFactory;
+	private final int batchSize;
+	private final int maxReportedErrors;
+
+	private volatile Statements statements;
+
+	public StudentImportService(
+			StudentAuthenticationService studentAuthenticationService,
+			NamedParameterJdbcTemplate jdbcTemplate,
+			TransactionTemplate transactionTemplate,
+			EntityManagerFactory entityManagerFactory,
+			@Value("${student-import.batch-size:1000}") int batchSize,
+			@Value("${student-import.max-reported-errors:10000}") int maxReportedErrors) {
+		this.studentAuthenticationService = studentAuthenticationService;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.entityManagerFactory = entityManagerFactory;
+		this.batchSize = batchSize;
+		this.maxReportedErrors = maxReportedErrors;
+	}
+
+	public StudentImportReport importStudents(InputStream roster, String contentType) {
+		boolean csv = contentType != null && contentType.startsWith(CSV);
+		if (!csv && (contentType == null || !contentType.startsWith(NDJSON))) {
+			throw new IllegalArgumentException("Unsupported roster type, use " + CSV + " or " + NDJSON);
+		}
+
+		StudentImportReport report = new StudentImportReport();
+		Map<String, Row> chunk = new LinkedHashMap<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(roster, StandardCharsets.UTF_8))) {
+			String line;
+			long lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isBlank() || (csv && lineNumber == 1 && line.strip().toLowerCase().startsWith("username"))) {
+					continue;
+				}
+
+				RegisterGeneric data;
+				String email;
+				try {
+					data = csv ? parseCsv(line) : parseJson(line);
+					email = studentAuthenticationService.validate(data);
+				} catch (IllegalArgumentException e) {
+					failed(report, lineNumber, null, e.getMessage());
+					continue;
+				}
+
+				if (chunk.containsKey(email)) {
+					failed(report, lineNumber, email, "Used email");
+					continue;
+				}
+				chunk.put(email, new Row(lineNumber, email, data));
+				if (chunk.size() >= batchSize) {
+					write(chunk, report);
+					chunk.clear();
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to read the roster");
+		}
+		if (!chunk.isEmpty()) {
+			write(chunk, report);
+		}
+
+		log.info(String.format("STUDENT IMPORT: %d IMPORTED, %d FAILED", report.getImported(), report.getFailed()));
+		return report;
+	}
+
+	private void write(Map<String, Row> chunk, StudentImportReport report) {
+		Statements statements = getStatements();
+		try {
+			written(chunk.values(), insertChunk(statements, chunk), report);
+		} catch (DataIntegrityViolationException e) {
+			// The chunk still violates a constraint, the rows are written one at a time and only the failing ones are reported
+			log.warn(String.format("STUDENT IMPORT: CHUNK OF %d ROWS REJECTED, WRITING THE ROWS ONE AT A TIME", chunk.size()));
+			for (Row row : chunk.values()) {
+				try {
+					written(List.of(row), transactionTemplate.execute(status -> insert(statements, Map.of(row.email, row))), report);
+				} catch (DataIntegrityViolationException rowException) {
+					failed(report, row.line, row.email, rowException instanceof DuplicateKeyException ? "Used email" : "Invalid row");
+				}
+			}
+		}
+	}
+
+	private List<Row> insertChunk(Statements statements, Map<String, Row> chunk) {
+		try {
+			return transactionTemplate.execute(status -> insert(statements, chunk));
+		} catch (DataIntegrityViolationException e) {
+			// A concurrent registration used one of the emails after the check, the chunk is written again
+			return transactionTemplate.execute(status -> insert(statements, chunk));
+		}
+	}
+
+	/**
+	 * Counts the inserted rows, the other rows were skipped because their email is used
+	 */
+	private void written(Collection<Row> rows, List<Row> inserted, StudentImportReport report) {
+		Set<Row> insertedRows = new HashSet<>(inserted);
+		for (Row row : rows) {
+			if (!insertedRows.contains(row)) {
+				failed(report, row.line, row.email, "Used email");
+			}
+		}
+		report.setImported(report.getImported() + inserted.size());
+	}
+
+	/**
+	 * Inserts the rows whose email is not used yet
+	 *
+	 * @return the inserted rows
+	 */
+	private List<Row> insert(Statements statements, Map<String, Row> chunk) {
+		Set<String> used = new HashSet<>(jdbcTemplate.queryForList(
+				statements.selectUsernames, new MapSqlParameterSource("usernames", chunk.keySet()), String.class));
+		List<Row> rows = new ArrayList<>(chunk.size());
+		for (Row row : chunk.values()) {
+			if (!used.contains(row.email)) {
+				rows.add(row);
+			}
+		}
+		if (rows.isEmpty()) {
+			return rows;
+		}
+
+		// Ids come from the pooled sequences used by Hibernate, so the account ids are known without reading them back
+		SharedSessionContractImplementor session = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+				.unwrap(SharedSessionContractImplementor.class);
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		MapSqlParameterSource[] accounts = new MapSqlParameterSource[rows.size()];
+		MapSqlParameterSource[] students = new MapSqlParameterSource[rows.size()];
+		for (int i = 0; i < rows.size(); i++) {
+			Row row = rows.get(i);
+			Long accountId = (Long) statements.accountIds.generate(session, null);
+			accounts[i] = new MapSqlParameterSource()
+					.addValue("id", accountId)
+					.addValue("username", row.email)
+					.addValue("password", DigestUtils.sha3_256Hex(row.data.getPassword()))
+					.addValue("role", Role.Student.name())
+					.addValue("now", now);
+			students[i] = new MapSqlParameterSource()
+					.addValue("id", statements.studentIds.generate(session, null))
+					.addValue("accountId", accountId)
+					.addValue("name", row.data.getName())
+					.addValue("surname", row.data.getSurname())
+					.addValue("now", now);
+		}
+		jdbcTemplate.batchUpdate(statements.insertAccount, accounts);
+		jdbcTemplate.batchUpdate(statements.insertStudent, students);
+		return rows;
+	}
+
+	private RegisterGeneric parseJson(String line) {
+		try {
+			return objectMapper.readValue(line, RegisterGeneric.class);
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Invalid row");
+		}
+	}
+
+	/**
+	 * Parses a CSV line, fields may be quoted and quotes are escaped by doubling them
+	 */
+	private RegisterGeneric parseCsv(String line) {
+		List<String> fields = new ArrayList<>(4);
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString().strip());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString().strip());
+
+		if (quoted || fields.size() != 4) {
+			throw new IllegalArgumentException("Invalid row");
+		}
+		return new RegisterGeneric(fields.get(0), fields.get(1), fields.get(2), fields.get(3));
+	}
+
+	private void failed(StudentImportReport report, long line, String username, String message) {
+		report.setFailed(report.getFailed() + 1);
+		if (report.getErrors().size() < maxReportedErrors) {
+			report.getErrors().add(new StudentImportReport.RowError(line, username, message));
+		} else {
+			report.setTruncated(true);
+		}
+	}
+
+	/**
+	 * The statements are built from the Hibernate mapping, so they follow the configured naming strategy
+	 */
+	private Statements getStatements() {
+		if (statements == null) {
+			SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+			AbstractEntityPersister account = (AbstractEntityPersister) sessionFactory.getMetamodel().entityPersister(Account.class);
+			AbstractEntityPersister student = (AbstractEntityPersister) sessionFactory.getMetamodel().entityPersister(Student.class);
+			statements = new Statements(account, student);
+		}
+		return statements;
+	}
+
+	private static String column(AbstractEntityPersister persister, String property) {
+		return persister.getPropertyColumnNames(property)[0];
+	}
+
+	private static class Statements {
+		private final String selectUsernames;
+		private final String insertAccount;
+		private final String insertStudent;
+		private final IdentifierGenerator accountIds;
+		private final IdentifierGenerator studentIds;
+
+		private Statements(AbstractEntityPersister account, AbstractEntityPersister student) {
+			String accountTable = account.getTableName();
+			String username = column(account, "username");
+			this.selectUsernames = String.format("SELECT %s FROM %s WHERE %s IN (:usernames)", username, accountTable, username);
+			this.insertAccount = String.format("INSERT INTO %s (%s, %s, %s, %s, %s, %s, %s) VALUES (:id, :username, :password, :role, 0, :now, :now)",
+					accountTable, account.getIdentifierColumnNames()[0], username, column(account, "password"), column(account, "role"),
+					column(account, "tokenVersion"), column(account, "createdOn"), column(account, "lastModified"));
+			this.insertStudent = String.format("INSERT INTO %s (%s, %s, %s, %s, %s, %s) VALUES (:id, :accountId, :name, :surname, :now, :now)",
+					student.getTableName(), student.getIdentifierColumnNames()[0], column(student, "accountId"), column(student, "name"),
+					column(student, "surname"), column(student, "createdOn"), column(student, "lastModified"));
+			this.accountIds = account.getIdentifierGenerator();
+			this.studentIds = student.getIdentifierGenerator();
+		}
+	}
+
+	private static class Row {
+		private final long line;
+		private final String email;
+		private final RegisterGeneric data;
+
+		private Row(long line, String email, RegisterGeneric data) {
+			this.line = line;
+			this.email = email;
+			this.data = data;
+		}
+	}
+}
@@ -10,25 +10,43 @@ import net.developerpass.polimi.entity.Group;
 import net.developerpass.polimi.entity.Professor;
 import net.developerpass.polimi.entity.Reservation;
 import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.entity.history.FileHistory;
+import net.developerpass.polimi.entity.history.GroupHistory;
+import net.developerpass.polimi.entity.history.ReservationHistory;
+import net.developerpass.polimi.entity.projection.DiscussionSummary;
+import net.developerpass.polimi.entity.projection.FileSummary;
+import net.developerpass.polimi.entity.projection.GroupSummary;
+import net.developerpass.polimi.entity.projection.ProfessorSummary;
+import net.developerpass.polimi.entity.projection.ReservationSummary;
+import net.developerpass.polimi.entity.projection.StudentSummary;
 import net.developerpass.polimi.repository.AccountRepository;
 import net.developerpass.polimi.repository.DiscussionRepository;
 import net.developerpass.polimi.repository.FellowStudentRepository;
+import net.developerpass.polimi.repository.FileHistoryRepository;
 import net.developerpass.polimi.repository.FileRepository;
+import net.developerpass.polimi.repository.GroupHistoryRepository;
 import net.developerpass.polimi.repository.GroupRepository;
 import net.developerpass.polimi.repository.ProfessorRepository;
+import net.developerpass.polimi.repository.ReservationHistoryRepository;
 import net.developerpass.polimi.repository.ReservationRepository;
 import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.security.AuthenticatedUser;
 import net.developerpass.polimi.service.jwt.JWTService;
+import net.developerpass.polimi.service.transaction.TransactionRetryTemplate;
+import net.developerpass.polimi.utils.object.Cursor;
+import net.developerpass.polimi.utils.object.CursorPage;
 import net.developerpass.polimi.utils.object.Role;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
@@ -39,12 +57,13 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
 @Service
-@Transactional
+@Transactional(readOnly = true)
 @RequiredArgsConstructor(onConstructor_ = {@Autowired})
 public class StudentService {
 	private final FileRepository fileRepository;
@@ -55,13 +74,28 @@ public class StudentService {
 	private final DiscussionRepository discussionRepository;
 	private final ReservationRepository reservationRepository;
 	private final FellowStudentRepository fellowStudentRepository;
+	private final GroupHistoryRepository groupHistoryRepository;
+	private final FileHistoryRepository fileHistoryRepository;
+	private final ReservationHistoryRepository reservationHistoryRepository;
+	private final TransactionRetryTemplate transactionRetryTemplate;
 
 	@Value("${file.upload-dir}")
 	private String uploadDir;
 
-	private Student getStudent() {
+	private Long getCurrentStudentId() {
 		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 		if (authentication != null) {
+			if (authentication.getPrincipal() instanceof AuthenticatedUser) {
+				AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+
+				if (user.getRole() != Role.Student) {
+					throw new JWTService.TokenVerificationException();
+				}
+
+				return user.getUserId();
+			}
+
+			// Principals not issued by the token filter (e.g. mock users) are resolved by username
 			User user = ((User) authentication.getPrincipal());
 
 			if (!user.getAuthorities().contains(new SimpleGrantedAuthority(Role.Student.name()))) {
@@ -71,61 +105,95 @@ public class StudentService {
 			Account account = accountRepository.findByRoleAndUsername(Role.Student, user.getUsername())
 					.orElseThrow(JWTService.TokenVerificationException::new);
 			return studentRepository.findByAccountId(account.getId())
+					.map(Student::getId)
 					.orElseThrow(JWTService.TokenVerificationException::new);
 		}
 		throw new JWTService.TokenVerificationException();
 	}
 
 	public Student getProfile() {
-		return getStudent();
+		return studentRepository.findWithAccountById(getCurrentStudentId())
+				.orElseThrow(JWTService.TokenVerificationException::new);
 	}
 
-	public Page<Student> getStudents(Integer page, Integer pageSize) {
+	public Page<StudentSummary> getStudents(Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		return studentRepository.findAll(PageRequest.of(page, pageSize));
+		return studentRepository.findAllSummaries(PageRequest.of(page, pageSize));
+	}
+
+	public Slice<StudentSummary> getStudentsSlice(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		return studentRepository.findAllSummariesSlice(PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<StudentSummary> getStudentsByCursor(String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(studentRepository.findAllSummariesBefore(position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public Student getStudent(Long studentId) {
-		return studentRepository.findById(studentId)
+		return studentRepository.findWithAccountById(studentId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid studentId"));
 	}
 
-	public Page<Group> getGroups(Integer page, Integer pageSize) {
+	public Page<GroupSummary> getGroups(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Long currentStudentId = getCurrentStudentId();
+		return groupRepository.findAllSummariesByStudentIdAndDeletedFalse(currentStudentId, PageRequest.of(page, pageSize));
+	}
+
+	public Slice<GroupSummary> getGroupsSlice(Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		Student student = getStudent();
-		return groupRepository.findAllByStudentIdAndDeletedFalse(student.getId(), PageRequest.of(page, pageSize));
+		Long currentStudentId = getCurrentStudentId();
+		return groupRepository.findAllSummariesSliceByStudentIdAndDeletedFalse(currentStudentId, PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<GroupSummary> getGroupsByCursor(String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Long currentStudentId = getCurrentStudentId();
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(groupRepository.findAllSummariesByStudentIdAndDeletedFalseBefore(currentStudentId, position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public Group getGroup(Long groupId) {
-		return groupRepository.findByIdAndDeletedFalse(groupId)
+		return groupRepository.findWithDetailsByIdAndDeletedFalse(groupId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid groupId"));
 	}
 
+	@Transactional
 	public Group createGroup(Long professorId, String name) {
-		Student student = getStudent();
+		Long currentStudentId = getCurrentStudentId();
 
 		professorRepository.findById(professorId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid professorId"));
 
-		Long studentGroupsForProfessor = groupRepository.countAllByStudentIdAndProfessorIdAndDeletedFalse(student.getId(), professorId);
+		Long studentGroupsForProfessor = groupRepository.countAllByStudentIdAndProfessorIdAndDeletedFalse(currentStudentId, professorId);
 		if (studentGroupsForProfessor > 0) {
 			throw new IllegalArgumentException("Already in a group width this professorId");
 		}
 
-		return groupRepository.save(new Group(professorId, student.getId(), name));
+		return groupRepository.save(new Group(professorId, currentStudentId, name));
 	}
 
+	@Transactional
 	public Group updateGroup(Long groupId, String name) {
-		Student student = getStudent();
+		Long currentStudentId = getCurrentStudentId();
 
 		Group group = groupRepository.findByIdAndDeletedFalse(groupId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid groupId"));
 
-		if (!group.getAdminId().equals(student.getId())) {
+		if (!group.getAdminId().equals(currentStudentId)) {
 			throw new IllegalArgumentException("You are not the admin of this group");
 		}
 
@@ -133,83 +201,108 @@ public class StudentService {
 		return groupRepository.save(group);
 	}
 
+	@Transactional
 	public void deleteGroup(Long groupId) {
-		Student student = getStudent();
+		Long currentStudentId = getCurrentStudentId();
 
 		Group group = groupRepository.findByIdAndDeletedFalse(groupId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid groupId"));
 
-		if (!group.getAdminId().equals(student.getId())) {
+		if (!group.getAdminId().equals(currentStudentId)) {
 			throw new IllegalArgumentException("You are not the admin of this group");
 		}
 
 		group.setDeleted(true);
 		groupRepository.save(group);
+		fellowStudentRepository.softDeleteAllByGroupId(groupId);
+		fileRepository.softDeleteAllByGroupId(groupId);
 	}
 
+	/**
+	 * Joins in its own transaction, retried by {@link TransactionRetryTemplate}: the place is taken with a conditional
+	 * update of the group counter and (groupId, studentId) is unique among the live fellow students
+	 */
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public Group joinGroup(Long groupId) {
-		Student student = getStudent();
+		return transactionRetryTemplate.execute(() -> {
+			Long currentStudentId = getCurrentStudentId();
 
-		Group group = groupRepository.findByIdAndDeletedFalse(groupId)
-				.orElseThrow(() -> new IllegalArgumentException("Invalid groupId"));
-
-		List<FellowStudent> fellowStudentList = fellowStudentRepository.findAllByGroupIdAndDeletedFalse(groupId);
-
-		if (group.getAdminId().equals(student.getId())
-				|| fellowStudentList.stream().anyMatch(fStudent -> fStudent.getStudentId().equals(student.getId())
-		)) {
-			throw new IllegalArgumentException("You are already in this group");
-		}
+			Group group = groupRepository.findByIdAndDeletedFalse(groupId)
+					.orElseThrow(() -> new IllegalArgumentException("Invalid groupId"));
 
-		if (fellowStudentList.size() >= 2) {
-			throw new IllegalArgumentException("The group is full");
-		}
+			if (group.getAdminId().equals(currentStudentId)
+					|| fellowStudentRepository.findByStudentIdAndGroupIdAndDeletedFalse(currentStudentId, groupId).isPresent()) {
+				throw new IllegalArgumentException("You are already in this group");
+			}
 
+			if (groupRepository.incrementFellowStudentCount(groupId, Group.MAX_FELLOW_STUDENTS) == 0) {
+				throw new IllegalArgumentException("The group is full");
+			}
 
-		fellowStudentRepository.save(new FellowStudent(student.getId(), groupId));
-		return groupRepository.findByIdAndDeletedFalse(groupId)
-				.orElseThrow(() -> new IllegalArgumentException("Invalid groupId"));
+			fellowStudentRepository.saveAndFlush(new FellowStudent(currentStudentId, groupId));
+			return groupRepository.findWithDetailsByIdAndDeletedFalse(groupId)
+					.orElseThrow(() -> new IllegalArgumentException("Invalid groupId"));
+		});
 	}
 
+	@Transactional
 	public void leaveGroup(Long groupId) {
-		Student student = getStudent();
+		Long currentStudentId = getCurrentStudentId();
 
 		Group group = groupRepository.findByIdAndDeletedFalse(groupId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid groupId"));
 
-		if (group.getAdminId().equals(student.getId())) {
+		if (group.getAdminId().equals(currentStudentId)) {
 			throw new IllegalArgumentException("Unable to leave, but you can delete this group");
 		}
 
-		FellowStudent fellowStudent = fellowStudentRepository.findByStudentIdAndGroupIdAndDeletedFalse(student.getId(), group.getId())
-				.orElseThrow(() -> new IllegalArgumentException("You are not in this group"));
-
-		fellowStudent.setDeleted(true);
-		fellowStudentRepository.save(fellowStudent);
+		removeFellowStudent(groupId, currentStudentId, "You are not in this group");
 	}
 
+	@Transactional
 	public void removeStudentFromGroup(Long groupId, Long studentId) {
-		Student student = getStudent();
+		Long currentStudentId = getCurrentStudentId();
 
 		Group group = groupRepository.findByIdAndDeletedFalse(groupId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid groupId"));
 
-		if (!group.getAdminId().equals(student.getId())) {
+		if (!group.getAdminId().equals(currentStudentId)) {
 			throw new IllegalArgumentException("You are not the admin of this group");
 		}
 
-		FellowStudent fellowStudent = fellowStudentRepository.findByStudentIdAndGroupIdAndDeletedFalse(studentId, groupId)
-				.orElseThrow(() -> new IllegalArgumentException("Invalid studentId"));
+		removeFellowStudent(groupId, studentId, "Invalid studentId");
+	}
 
-		fellowStudent.setDeleted(true);
-		fellowStudentRepository.save(fellowStudent);
+	/**
+	 * Releases the place before the membership, in the same lock order as {@link #joinGroup(Long)}.
+	 * The soft delete is conditional, so a concurrent removal of the same student releases the place only once.
+	 */
+	private void removeFellowStudent(Long groupId, Long studentId, String notMemberMessage) {
+		groupRepository.decrementFellowStudentCount(groupId);
+		if (fellowStudentRepository.softDeleteByStudentIdAndGroupId(studentId, groupId) == 0) {
+			throw new IllegalArgumentException(notMemberMessage);
+		}
 	}
 
-	public Page<File> getFiles(Long groupId, Integer page, Integer pageSize) {
+	public Page<FileSummary> getFiles(Long groupId, Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		return fileRepository.findAllByGroupIdAndDeletedFalseOrderByCreatedOnDesc(groupId, PageRequest.of(page, pageSize));
+		return fileRepository.findAllSummariesByGroupIdAndDeletedFalse(groupId, PageRequest.of(page, pageSize));
+	}
+
+	public Slice<FileSummary> getFilesSlice(Long groupId, Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		return fileRepository.findAllSummariesSliceByGroupIdAndDeletedFalse(groupId, PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<FileSummary> getFilesByCursor(Long groupId, String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(fileRepository.findAllSummariesByGroupIdAndDeletedFalseBefore(groupId, position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public File getFile(Long fileId) {
@@ -217,13 +310,14 @@ public class StudentService {
 				.orElseThrow(() -> new IllegalArgumentException("Invalid fileId"));
 	}
 
+	@Transactional
 	public File putFile(Long groupId, MultipartFile doc) {
-		Student student = getStudent();
+		Long currentStudentId = getCurrentStudentId();
 
 		Group group = groupRepository.findByIdAndDeletedFalse(groupId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid groupId"));
 
-		if (!group.getAdminId().equals(student.getId())) {
+		if (!group.getAdminId().equals(currentStudentId)) {
 			throw new IllegalArgumentException("You are not the admin of this group");
 		}
 
@@ -252,8 +346,9 @@ public class StudentService {
 		}
 	}
 
+	@Transactional
 	public void deleteFile(Long fileId) {
-		Student student = getStudent();
+		Long currentStudentId = getCurrentStudentId();
 
 		File file = fileRepository.findByIdAndDeletedFalse(fileId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid fileId"));
@@ -261,7 +356,7 @@ public class StudentService {
 		Group group = groupRepository.findByIdAndDeletedFalse(file.getGroupId())
 				.orElseThrow(() -> new IllegalArgumentException("Invalid file groupId"));
 
-		if (!group.getAdminId().equals(student.getId())) {
+		if (!group.getAdminId().equals(currentStudentId)) {
 			throw new IllegalArgumentException("You are not the admin of this group");
 		}
 
@@ -269,92 +364,157 @@ public class StudentService {
 		fileRepository.save(file);
 	}
 
-	public Page<Professor> getProfessors(Integer page, Integer pageSize) {
+	public Page<ProfessorSummary> getProfessors(Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		return professorRepository.findAll(PageRequest.of(page, pageSize));
+		return professorRepository.findAllSummaries(PageRequest.of(page, pageSize));
+	}
+
+	public Slice<ProfessorSummary> getProfessorsSlice(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		return professorRepository.findAllSummariesSlice(PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<ProfessorSummary> getProfessorsByCursor(String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(professorRepository.findAllSummariesBefore(position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public Professor getProfessor(Long professorId) {
-		return professorRepository.findById(professorId)
+		return professorRepository.findWithAccountById(professorId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid professorId"));
 	}
 
-	public Page<Discussion> getDiscussions(Long professorId, Integer page, Integer pageSize) {
+	public Page<DiscussionSummary> getDiscussions(Long professorId, Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		return discussionRepository.findAllByProfessorIdAndDeletedFalse(professorId, PageRequest.of(page, pageSize));
+		return discussionRepository.findAllSummariesByProfessorIdAndDeletedFalse(professorId, PageRequest.of(page, pageSize));
+	}
+
+	public Slice<DiscussionSummary> getDiscussionsSlice(Long professorId, Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		return discussionRepository.findAllSummariesSliceByProfessorIdAndDeletedFalse(professorId, PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<DiscussionSummary> getDiscussionsByCursor(Long professorId, String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(discussionRepository.findAllSummariesByProfessorIdAndDeletedFalseBefore(professorId, position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public Discussion getDiscussion(Long discussionId) {
-		return discussionRepository.findByIdAndDeletedFalse(discussionId)
+		return discussionRepository.findWithProfessorByIdAndDeletedFalse(discussionId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid discussionId"));
 	}
 
-	public Page<Reservation> getReservations(Long groupId, Integer page, Integer pageSize) {
+	public Page<ReservationSummary> getReservations(Long groupId, Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		return reservationRepository.findAllSummariesByGroupIdAndDeletedFalse(groupId, PageRequest.of(page, pageSize));
+	}
+
+	public Slice<ReservationSummary> getReservationsSlice(Long groupId, Integer page, Integer pageSize) {
 		if (page == null || page < 0) page = 0;
 		if (pageSize == null || pageSize < 1) pageSize = 1;
 		else if (pageSize > 50) pageSize = 50;
-		return reservationRepository.findAllByGroupIdAndDeletedFalse(groupId, PageRequest.of(page, pageSize));
+		return reservationRepository.findAllSummariesSliceByGroupIdAndDeletedFalse(groupId, PageRequest.of(page, pageSize));
+	}
+
+	public CursorPage<ReservationSummary> getReservationsByCursor(Long groupId, String cursor, Integer pageSize) {
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Cursor position = Cursor.decode(cursor);
+		return CursorPage.of(reservationRepository.findAllSummariesByGroupIdAndDeletedFalseBefore(groupId, position.getCreatedOn(), position.getId(), PageRequest.of(0, pageSize)));
 	}
 
 	public Reservation getReservation(Long reservationId) {
-		return reservationRepository.findByIdAndDeletedFalse(reservationId)
+		return reservationRepository.findWithDiscussionByIdAndDeletedFalse(reservationId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid reservationId"));
 	}
 
+	/**
+	 * Books in its own transaction, retried by {@link TransactionRetryTemplate} when a concurrent booking of the same
+	 * group commits first: every booking increments the group version and (groupId, discussionId) is unique
+	 * among the live reservations
+	 */
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public Reservation createReservation(Long groupId, Long discussionId) {
-		Student student = getStudent();
+		return transactionRetryTemplate.execute(() -> {
+			Long currentStudentId = getCurrentStudentId();
 
-		Group group = groupRepository.findByIdAndDeletedFalse(groupId)
-				.orElseThrow(() -> new IllegalArgumentException("Invalid reservationId"));
+			Group group = groupRepository.findForBookingByIdAndDeletedFalse(groupId)
+					.orElseThrow(() -> new IllegalArgumentException("Invalid reservationId"));
 
-		if (!group.getAdminId().equals(student.getId())) {
-			throw new IllegalArgumentException("You are not the admin of this group");
-		}
+			if (!group.getAdminId().equals(currentStudentId)) {
+				throw new IllegalArgumentException("You are not the admin of this group");
+			}
 
-		Discussion discussion = discussionRepository.findByIdAndDeletedFalse(discussionId)
-				.orElseThrow(() -> new IllegalArgumentException("Invalid discussionId"));
+			Discussion discussion = discussionRepository.findByIdAndDeletedFalse(discussionId)
+					.orElseThrow(() -> new IllegalArgumentException("Invalid discussionId"));
 
-		if (LocalDateTime.now().isAfter(discussion.getDate())) {
-			throw new IllegalArgumentException("Unable to create a reservation for a past discussion");
-		}
+			if (LocalDateTime.now().isAfter(discussion.getDate())) {
+				throw new IllegalArgumentException("Unable to create a reservation for a past discussion");
+			}
 
-		if (reservationRepository.countAllByGroupIdAndDateAndDeletedFalse(groupId, LocalDateTime.now()) > 0) {
-			throw new IllegalArgumentException("Already exist a reservation");
-		}
+			if (reservationRepository.countAllByGroupIdAndDateAndDeletedFalse(groupId, LocalDateTime.now()) > 0) {
+				throw new IllegalArgumentException("Already exist a reservation");
+			}
 
-		return reservationRepository.save(new Reservation(groupId, discussionId));
+			return reservationRepository.saveAndFlush(new Reservation(groupId, discussionId));
+		});
 	}
 
+	/**
+	 * Same concurrency rules as {@link #createReservation(Long, Long)}, the reservation version also rejects
+	 * a concurrent update of the same reservation
+	 */
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public Reservation updateReservation(Long reservationId, Long discussionId) {
-		Student student = getStudent();
+		return transactionRetryTemplate.execute(() -> {
+			Long currentStudentId = getCurrentStudentId();
 
-		Reservation reservation = reservationRepository.findByIdAndDeletedFalse(reservationId)
-				.orElseThrow(() -> new IllegalArgumentException("Invalid reservationId"));
+			Reservation reservation = reservationRepository.findByIdAndDeletedFalse(reservationId)
+					.orElseThrow(() -> new IllegalArgumentException("Invalid reservationId"));
 
-		Group group = groupRepository.findByIdAndDeletedFalse(reservation.getGroupId())
-				.orElseThrow(() -> new IllegalArgumentException("Invalid reservation groupId"));
+			Group group = groupRepository.findForBookingByIdAndDeletedFalse(reservation.getGroupId())
+					.orElseThrow(() -> new IllegalArgumentException("Invalid reservation groupId"));
 
-		if (!group.getAdminId().equals(student.getId())) {
-			throw new IllegalArgumentException("You are not the admin of this group");
-		}
+			if (!group.getAdminId().equals(currentStudentId)) {
+				throw new IllegalArgumentException("You are not the admin of this group");
+			}
 
-		Discussion discussion = discussionRepository.findByIdAndDeletedFalse(reservation.getDiscussionId())
-				.orElseThrow(() -> new IllegalArgumentException("Invalid reservation discussionId"));
+			Discussion discussion = discussionRepository.findByIdAndDeletedFalse(reservation.getDiscussionId())
+					.orElseThrow(() -> new IllegalArgumentException("Invalid reservation discussionId"));
 
-		if (LocalDateTime.now().isAfter(discussion.getDate())) {
-			throw new IllegalArgumentException("Unable to update to a past discussion");
-		}
+			if (LocalDateTime.now().isAfter(discussion.getDate())) {
+				throw new IllegalArgumentException("Unable to update a past reservation");
+			}
 
-		reservation.setDiscussionId(discussionId);
-		return reservationRepository.save(reservation);
+			Discussion target = discussionRepository.findByIdAndDeletedFalse(discussionId)
+					.orElseThrow(() -> new IllegalArgumentException("Invalid discussionId"));
+
+			if (LocalDateTime.now().isAfter(target.getDate())) {
+				throw new IllegalArgumentException("Unable to update to a past discussion");
+			}
+
+			reservation.setDiscussionId(discussionId);
+			return reservationRepository.saveAndFlush(reservation);
+		});
 	}
 
+	@Transactional
 	public void deleteReservation(Long reservationId) {
-		Student student = getStudent();
+		Long currentStudentId = getCurrentStudentId();
 
 		Reservation reservation = reservationRepository.findByIdAndDeletedFalse(reservationId)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid reservationId"));
@@ -362,7 +522,7 @@ public class StudentService {
 		Group group = groupRepository.findByIdAndDeletedFalse(reservation.getGroupId())
 				.orElseThrow(() -> new IllegalArgumentException("Invalid reservation groupId"));
 
-		if (!group.getAdminId().equals(student.getId())) {
+		if (!group.getAdminId().equals(currentStudentId)) {
 			throw new IllegalArgumentException("You are not the admin of this group");
 		}
 
@@ -376,4 +536,45 @@ public class StudentService {
 		reservation.setDeleted(true);
 		reservationRepository.save(reservation);
 	}
+
+	public Page<GroupHistory> getArchivedGroups(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Long currentStudentId = getCurrentStudentId();
+		return groupHistoryRepository.findAllByStudentId(currentStudentId, PageRequest.of(page, pageSize));
+	}
+
+	public Page<FileHistory> getArchivedFiles(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Set<Long> groupIds = getArchiveGroupIds();
+		if (groupIds.isEmpty()) {
+			return Page.empty(PageRequest.of(page, pageSize));
+		}
+		return fileHistoryRepository.findAllByGroupIdInOrderByArchivedOnDesc(groupIds, PageRequest.of(page, pageSize));
+	}
+
+	public Page<ReservationHistory> getArchivedReservations(Integer page, Integer pageSize) {
+		if (page == null || page < 0) page = 0;
+		if (pageSize == null || pageSize < 1) pageSize = 1;
+		else if (pageSize > 50) pageSize = 50;
+		Set<Long> groupIds = getArchiveGroupIds();
+		if (groupIds.isEmpty()) {
+			return Page.empty(PageRequest.of(page, pageSize));
+		}
+		return reservationHistoryRepository.findAllByGroupIdInOrderByArchivedOnDesc(groupIds, PageRequest.of(page, pageSize));
+	}
+
+	/**
+	 * Live and archived groups of the current student, the archived files and reservations may belong to either
+	 */
+	private Set<Long> getArchiveGroupIds() {
+		Long currentStudentId = getCurrentStudentId();
+		Set<Long> groupIds = new HashSet<>(groupRepository.findAllIdsByStudentIdAndDeletedFalse(currentStudentId));
+		groupIds.addAll(groupHistoryRepository.findAllIdsByStudentId(currentStudentId));
+		return groupIds;
+	}
+
 }
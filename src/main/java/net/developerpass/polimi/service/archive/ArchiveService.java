@@ -0,0 +1,186 @@
+package net.developerpass.polimi.service.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import net.developerpass.polimi.entity.Discussion;
+import net.developerpass.polimi.entity.FellowStudent;
+import net.developerpass.polimi.entity.File;
+import net.developerpass.polimi.entity.Group;
+import net.developerpass.polimi.entity.Reservation;
+import net.developerpass.polimi.entity.history.DiscussionHistory;
+import net.developerpass.polimi.entity.history.FellowStudentHistory;
+import net.developerpass.polimi.entity.history.FileHistory;
+import net.developerpass.polimi.entity.history.GroupHistory;
+import net.developerpass.polimi.entity.history.ReservationHistory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves soft-deleted rows, and discussions past {@code archive.retention-days} with their reservations, into the history
+ * tables ({@code entity.history}), read by the archive endpoints.
+ * Rows are moved in batches of {@code archive.batch-size}, each batch in its own transaction, reservations, fellow students
+ * and files before their group or discussion so the foreign keys always hold.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "archive.enabled", matchIfMissing = true)
+public class ArchiveService {
+	private static final String CUTOFF = "cutoff";
+
+	private final EntityManager entityManager;
+	private final EntityManagerFactory entityManagerFactory;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final long retentionDays;
+
+	private volatile List<Step> steps;
+
+	public ArchiveService(
+			EntityManager entityManager,
+			EntityManagerFactory entityManagerFactory,
+			TransactionTemplate transactionTemplate,
+			@Value("${archive.batch-size:500}") int batchSize,
+			@Value("${archive.retention-days:30}") long retentionDays) {
+		this.entityManager = entityManager;
+		this.entityManagerFactory = entityManagerFactory;
+		this.transactionTemplate = transactionTemplate;
+		this.batchSize = batchSize;
+		this.retentionDays = retentionDays;
+	}
+
+	@Scheduled(
+			initialDelayString = "${archive.delay-ms:3600000}",
+			fixedDelayString = "${archive.delay-ms:3600000}")
+	public void scheduledArchive() {
+		archive();
+	}
+
+	/**
+	 * Moves every archivable row
+	 *
+	 * @return the number of rows moved, by live table
+	 */
+	public Map<String, Integer> archive() {
+		LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+		Map<String, Integer> archived = new LinkedHashMap<>();
+		for (Step step : getSteps()) {
+			int total = 0;
+			int moved;
+			do {
+				moved = archive(step, cutoff);
+				total += moved;
+			} while (moved == batchSize);
+			archived.put(step.table, total);
+		}
+
+		log.info(String.format("ARCHIVE: %s", archived));
+		return archived;
+	}
+
+	private int archive(Step step, LocalDateTime cutoff) {
+		return transactionTemplate.execute(status -> {
+			TypedQuery<Long> query = entityManager.createQuery(step.selectIds, Long.class).setMaxResults(batchSize);
+			if (step.selectIds.contains(":" + CUTOFF)) {
+				query.setParameter(CUTOFF, cutoff);
+			}
+			List<Long> ids = query.getResultList();
+			if (ids.isEmpty()) {
+				return 0;
+			}
+			update(step.insertHistory, step.entity, ids);
+			update(step.deleteLive, step.entity, ids);
+			return ids.size();
+		});
+	}
+
+	/**
+	 * Only the region of the archived entity is evicted from the second-level cache, not every region
+	 */
+	private void update(String sql, Class<?> entity, List<Long> ids) {
+		entityManager.createNativeQuery(sql)
+				.unwrap(NativeQuery.class)
+				.addSynchronizedEntityClass(entity)
+				.setParameterList("ids", ids)
+				.executeUpdate();
+	}
+
+	/**
+	 * The statements are built from the Hibernate mapping, so they follow the configured naming strategy
+	 */
+	private List<Step> getSteps() {
+		if (steps == null) {
+			SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+			steps = List.of(
+					new Step(sessionFactory, Reservation.class, ReservationHistory.class,
+							"SELECT r.id FROM Reservation r WHERE r.deleted = TRUE OR r.group.deleted = TRUE OR r.discussion.deleted = TRUE OR r.discussion.date < :cutoff"),
+					new Step(sessionFactory, FellowStudent.class, FellowStudentHistory.class,
+							"SELECT fs.id FROM FellowStudent fs, Group g WHERE g.id = fs.groupId AND (fs.deleted = TRUE OR g.deleted = TRUE)"),
+					new Step(sessionFactory, File.class, FileHistory.class,
+							"SELECT f.id FROM File f WHERE f.deleted = TRUE OR f.group.deleted = TRUE"),
+					new Step(sessionFactory, Group.class, GroupHistory.class,
+							"SELECT g.id FROM Group g WHERE g.deleted = TRUE"
+									+ " AND NOT EXISTS (SELECT fs.id FROM FellowStudent fs WHERE fs.groupId = g.id)"
+									+ " AND NOT EXISTS (SELECT f.id FROM File f WHERE f.groupId = g.id)"
+									+ " AND NOT EXISTS (SELECT r.id FROM Reservation r WHERE r.groupId = g.id)"),
+					new Step(sessionFactory, Discussion.class, DiscussionHistory.class,
+							"SELECT d.id FROM Discussion d WHERE (d.deleted = TRUE OR d.date < :cutoff)"
+									+ " AND NOT EXISTS (SELECT r.id FROM Reservation r WHERE r.discussionId = d.id)"));
+		}
+		return steps;
+	}
+
+	private static String column(AbstractEntityPersister persister, String property) {
+		return persister.getPropertyColumnNames(property)[0];
+	}
+
+	/**
+	 * Archival of one live table: the history table has the same columns plus archivedOn
+	 */
+	private static class Step {
+		private final Class<?> entity;
+		private final String table;
+		private final String selectIds;
+		private final String insertHistory;
+		private final String deleteLive;
+
+		private Step(SessionFactoryImplementor sessionFactory, Class<?> entity, Class<?> history, String selectIds) {
+			AbstractEntityPersister live = (AbstractEntityPersister) sessionFactory.getMetamodel().entityPersister(entity);
+			AbstractEntityPersister archive = (AbstractEntityPersister) sessionFactory.getMetamodel().entityPersister(history);
+			String id = live.getIdentifierColumnNames()[0];
+
+			List<String> historyColumns = new ArrayList<>();
+			List<String> liveColumns = new ArrayList<>();
+			historyColumns.add(archive.getIdentifierColumnNames()[0]);
+			liveColumns.add(id);
+			for (String property : archive.getPropertyNames()) {
+				if (!property.equals("archivedOn")) {
+					historyColumns.add(column(archive, property));
+					liveColumns.add(column(live, property));
+				}
+			}
+			historyColumns.add(column(archive, "archivedOn"));
+			liveColumns.add("CURRENT_TIMESTAMP");
+
+			this.entity = entity;
+			this.table = live.getTableName();
+			this.selectIds = selectIds;
+			this.insertHistory = String.format("INSERT INTO %s (%s) SELECT %s FROM %s WHERE %s IN (:ids)",
+					archive.getTableName(), String.join(", ", historyColumns), String.join(", ", liveColumns), table, id);
+			this.deleteLive = String.format("DELETE FROM %s WHERE %s IN (:ids)", table, id);
+		}
+	}
+}
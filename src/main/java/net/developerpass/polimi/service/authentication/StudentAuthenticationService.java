@@ -6,37 +6,42 @@ import net.developerpass.polimi.entity.Student;
 import net.developerpass.polimi.repository.AccountRepository;
 import net.developerpass.polimi.repository.StudentRepository;
 import net.developerpass.polimi.service.jwt.JWTAuthenticationService;
-import net.developerpass.polimi.service.jwt.JWTService;
 import net.developerpass.polimi.utils.object.RegisterGeneric;
 import net.developerpass.polimi.utils.object.Role;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.util.regex.Pattern;
 
 @Service
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class StudentAuthenticationService {
-	private final JWTService jwtService;
+	private static final Pattern EMAIL_PATTERN = Pattern.compile("^[_a-z0-9-]+(\\.[_a-z0-9-]+)*@[a-z0-9-]+(\\.[a-z0-9-]+)*(\\.[a-z]{2,})$");
+	private static final Pattern PASSWORD_PATTERN = Pattern.compile("^(?=.*?[0-9])(?=.*?[a-z])(?=.*?[A-Z])(.{8,30})$");
+
 	private final AccountRepository accountRepository;
 	private final StudentRepository studentRepository;
 	private final JWTAuthenticationService authenticationService;
 
 	public String login(String username, String password) {
-		return accountRepository
-				.findByRoleAndUsernameAndPassword(Role.Student, username, password)
-				.map(user -> jwtService.create(Role.Student, username, password))
-				.orElseThrow(() -> new BadCredentialsException("Invalid username or password"));
+		return authenticationService.login(Role.Student, username, password);
 	}
 
 	public void reset(String username) {
 		authenticationService.reset(Role.Student, username);
 	}
 
-	public String register(RegisterGeneric data) {
+	/**
+	 * Checks the registration data
+	 *
+	 * @return the normalized email
+	 * @throws IllegalArgumentException with the reason when the data are not valid
+	 */
+	public String validate(RegisterGeneric data) throws IllegalArgumentException {
 		// All compiled
 
 		if (data.hasNull()) {
@@ -45,22 +50,14 @@ public class StudentAuthenticationService {
 
 		// Email validate
 
-		String pattern = "^[_a-z0-9-]+(\\.[_a-z0-9-]+)*@[a-z0-9-]+(\\.[a-z0-9-]+)*(\\.[a-z]{2,})$";
 		String email = data.getUsername().toLowerCase();
-		if (!email.matches(pattern) || email.length() > 120) {
+		if (email.length() > 120 || !EMAIL_PATTERN.matcher(email).matches()) {
 			throwIllegal("Invalid email");
 		}
 
-		// Existing account validate
-
-		accountRepository.findByUsername(email).ifPresent((a) -> {
-			throw throwIllegalReturn("Used email");
-		});
-
 		// Password validate
 
-		pattern = "^(?=.*?[0-9])(?=.*?[a-z])(?=.*?[A-Z])(.{8,30})$";
-		if (!data.getPassword().matches(pattern) || data.getPassword().length() > 30) {
+		if (data.getPassword().length() > 30 || !PASSWORD_PATTERN.matcher(data.getPassword()).matches()) {
 			throwIllegal("Invalid password");
 		}
 
@@ -70,17 +67,28 @@ public class StudentAuthenticationService {
 			throwIllegal("Invalid records length");
 		}
 
-		// Save all
+		return email;
+	}
+
+	public String register(RegisterGeneric data) {
+		String email = validate(data);
+
+		// Save all, the unique username constraint detects used emails
 
 		Role role = Role.Student;
 		String shaPassword = DigestUtils.sha3_256Hex(data.getPassword());
 
-		Account account = accountRepository.save(
-				new Account(email, shaPassword, role));
-		studentRepository.save(
+		Account account;
+		try {
+			account = accountRepository.saveAndFlush(
+					new Account(email, shaPassword, role));
+		} catch (DataIntegrityViolationException e) {
+			throw throwIllegalReturn("Used email");
+		}
+		Student student = studentRepository.save(
 				new Student(account.getId(), data.getName(), data.getSurname()));
 
-		return authenticationService.login(role, email, shaPassword);
+		return authenticationService.createToken(account, student.getId());
 	}
 
 	private void throwIllegal(String msg) throws IllegalArgumentException {
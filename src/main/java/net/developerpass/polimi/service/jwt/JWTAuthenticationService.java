@@ -5,15 +5,19 @@ import lombok.extern.slf4j.Slf4j;
 import net.bytebuddy.utility.RandomString;
 import net.developerpass.polimi.configuration.mail.CustomMailSender;
 import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.entity.Student;
 import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.repository.ProfessorRepository;
+import net.developerpass.polimi.repository.StudentRepository;
 import net.developerpass.polimi.utils.object.Role;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -22,14 +26,39 @@ public class JWTAuthenticationService {
 	private final JWTService jwtService;
 	private final CustomMailSender customMailSender;
 	private final AccountRepository accountRepository;
+	private final StudentRepository studentRepository;
+	private final ProfessorRepository professorRepository;
+	private final TokenVersionRegistry tokenVersionRegistry;
 
 	public String login(Role role, String username, String password) throws BadCredentialsException {
 		return accountRepository
 				.findByRoleAndUsernameAndPassword(role, username, password)
-				.map(user -> jwtService.create(role, username, password))
+				.map(this::createToken)
 				.orElseThrow(() -> new BadCredentialsException("Invalid username or password"));
 	}
 
+	private String createToken(Account account) {
+		Optional<Long> userId;
+		switch (account.getRole()) {
+			case Student:
+				userId = studentRepository.findByAccountId(account.getId()).map(Student::getId);
+				break;
+			case Professor:
+				userId = professorRepository.findByAccountId(account.getId()).map(Professor::getId);
+				break;
+			default:
+				userId = Optional.empty();
+		}
+		return createToken(account, userId.orElseThrow(() -> new BadCredentialsException("Invalid username or password")));
+	}
+
+	/**
+	 * Issues the token of an account whose student or professor id is already known, e.g. right after registration
+	 */
+	public String createToken(Account account, Long userId) {
+		return jwtService.create(account, userId);
+	}
+
 	public void reset(Role role, String username) throws BadCredentialsException {
 		accountRepository
 				.findByRoleAndUsername(role, username)
@@ -37,7 +66,9 @@ public class JWTAuthenticationService {
 						account -> {
 							String newPassword = RandomString.make(10);
 							account.setPassword(DigestUtils.sha3_256Hex(newPassword));
+							tokenVersionRegistry.revoke(account);
 							accountRepository.save(account);
+							jwtService.invalidate(account.getId());
 							switch (role) {
 								case Student: {
 									if (!customMailSender.sendResetStudent(username, Map.of("password", newPassword))) {
@@ -60,16 +91,20 @@ public class JWTAuthenticationService {
 						});
 	}
 
-	public Account authenticateByToken(String token) {
+	/**
+	 * Authenticates a token with the signature and the in-memory token version only, the database is not queried
+	 * unless the account version is not loaded yet.
+	 */
+	public TokenClaims authenticateByToken(String token) {
+		TokenClaims claims;
 		try {
-			Map<String, Object> data = jwtService.verify(token);
-			Role role = Role.valueOf(String.valueOf(data.get("role")));
-			String username = String.valueOf(data.get("username"));
-			String password = String.valueOf(data.get("password"));
-			return accountRepository.findByRoleAndUsernameAndPassword(role, username, password)
-					.orElseThrow(() -> new UsernameNotFoundException("Authentication fail"));
+			claims = jwtService.verify(token);
 		} catch (Exception e) {
 			throw new BadCredentialsException("Invalid token");
 		}
+		if (!tokenVersionRegistry.isCurrent(claims.getAccountId(), claims.getTokenVersion())) {
+			throw new BadCredentialsException("Invalid token");
+		}
+		return claims;
 	}
 }
@@ -3,45 +3,68 @@ package net.developerpass.polimi.service.jwt;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.interfaces.DecodedJWT;
 import lombok.NoArgsConstructor;
-import net.developerpass.polimi.utils.object.Role;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.utils.cache.ExpiringCache;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class JWTService {
 	private final Algorithm algorithm;
+	private final JWTVerifier verifier;
+	private final ExpiringCache<String, TokenClaims> claimsCache;
 
-	public JWTService(@Value("jwt.secret") String secret) {
+	public JWTService(
+			@Value("jwt.secret") String secret,
+			@Value("${jwt.claims-cache.max-size:10000}") int claimsCacheMaxSize,
+			@Value("${jwt.claims-cache.ttl-seconds:300}") long claimsCacheTtlSeconds) {
 		this.algorithm = Algorithm.HMAC256(secret);
+		this.verifier = JWT.require(algorithm).build();
+		this.claimsCache = new ExpiringCache<>(claimsCacheMaxSize, Duration.ofSeconds(claimsCacheTtlSeconds));
 	}
 
-	public String create(Role role, String username, String password) {
+	public String create(Account account, Long userId) {
 		Instant issuedAt = Instant.now();
 		return JWT.create()
 				.withIssuedAt(Date.from(issuedAt))
-				.withClaim("role", role.name())
-				.withClaim("username", username)
-				.withClaim("password", password)
+				.withClaim(TokenClaims.ROLE, account.getRole().name())
+				.withClaim(TokenClaims.USERNAME, account.getUsername())
+				.withClaim(TokenClaims.ACCOUNT_ID, account.getId())
+				.withClaim(TokenClaims.userIdClaim(account.getRole()), userId)
+				.withClaim(TokenClaims.TOKEN_VERSION, account.getTokenVersion())
 				.sign(algorithm);
 	}
 
-	public Map<String, Object> verify(String token) throws TokenVerificationException {
-		JWTVerifier verifier = JWT.require(algorithm).build();
-		try {
-			DecodedJWT jwt = verifier.verify(token);
-			return jwt.getClaims().entrySet()
-					.stream()
-					.collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().as(Object.class)));
-		} catch (Exception e) {
-			throw new TokenVerificationException(e);
-		}
+	/**
+	 * Verifies the token signature and decodes its claims.
+	 * Verified tokens are cached by digest until the cache time to live or the token expiration.
+	 */
+	public TokenClaims verify(String token) throws TokenVerificationException {
+		String digest = DigestUtils.sha256Hex(token);
+		return claimsCache.getIfPresent(digest).orElseGet(() -> {
+			TokenClaims claims;
+			try {
+				claims = TokenClaims.of(verifier.verify(token));
+			} catch (Exception e) {
+				throw new TokenVerificationException(e);
+			}
+			claimsCache.put(digest, claims, claims.getExpiresAt());
+			return claims;
+		});
+	}
+
+	public void invalidate(Long accountId) {
+		claimsCache.invalidateIf(claims -> claims.getAccountId().equals(accountId));
+	}
+
+	public ExpiringCache.Statistics getClaimsCacheStatistics() {
+		return claimsCache.getStatistics();
 	}
 
 	@NoArgsConstructor
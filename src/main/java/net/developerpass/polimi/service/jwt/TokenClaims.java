@@ -0,0 +1,57 @@
+package net.developerpass.polimi.service.jwt;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import net.developerpass.polimi.utils.object.Role;
+
+import java.time.Instant;
+import java.util.Objects;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public final class TokenClaims {
+	public static final String ROLE = "role";
+	public static final String USERNAME = "username";
+	public static final String ACCOUNT_ID = "accountId";
+	public static final String TOKEN_VERSION = "tokenVersion";
+	public static final String STUDENT_ID = "studentId";
+	public static final String PROFESSOR_ID = "professorId";
+
+	private final Long accountId;
+	private final Role role;
+	private final String username;
+	/**
+	 * Student id or Professor id, depending on the role
+	 */
+	private final Long userId;
+	private final Integer tokenVersion;
+	/**
+	 * Null when the token does not expire
+	 */
+	private final Instant expiresAt;
+
+	public static String userIdClaim(Role role) {
+		return role == Role.Student ? STUDENT_ID : PROFESSOR_ID;
+	}
+
+	public static TokenClaims of(DecodedJWT jwt) throws JWTService.TokenVerificationException {
+		try {
+			Role role = Role.valueOf(jwt.getClaim(ROLE).asString());
+			return new TokenClaims(
+					Objects.requireNonNull(jwt.getClaim(ACCOUNT_ID).asLong()),
+					role,
+					Objects.requireNonNull(jwt.getClaim(USERNAME).asString()),
+					Objects.requireNonNull(jwt.getClaim(userIdClaim(role)).asLong()),
+					Objects.requireNonNull(jwt.getClaim(TOKEN_VERSION).asInt()),
+					jwt.getExpiresAt() == null ? null : jwt.getExpiresAt().toInstant()
+			);
+		} catch (RuntimeException e) {
+			throw new JWTService.TokenVerificationException(e);
+		}
+	}
+}
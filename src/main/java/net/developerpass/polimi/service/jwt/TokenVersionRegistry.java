@@ -0,0 +1,65 @@
+package net.developerpass.polimi.service.jwt;
+
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.utils.cache.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * In-memory view of {@link Account#getTokenVersion()}.
+ * Versions are loaded once per account and kept for a bounded time, so other nodes pick up a revocation
+ * within {@code jwt.token-version.ttl-seconds}.
+ */
+@Component
+public class TokenVersionRegistry {
+	private static final int UNKNOWN_ACCOUNT = -1;
+
+	private final AccountRepository accountRepository;
+	private final ExpiringCache<Long, Integer> versions;
+
+	public TokenVersionRegistry(
+			AccountRepository accountRepository,
+			@Value("${jwt.token-version.max-size:100000}") int maxSize,
+			@Value("${jwt.token-version.ttl-seconds:60}") long ttlSeconds) {
+		this.accountRepository = accountRepository;
+		this.versions = new ExpiringCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+	}
+
+	public boolean isCurrent(Long accountId, Integer tokenVersion) {
+		return tokenVersion != null && tokenVersion.equals(current(accountId));
+	}
+
+	public int current(Long accountId) {
+		return versions.get(accountId, id -> accountRepository.findById(id)
+				.map(Account::getTokenVersion)
+				.orElse(UNKNOWN_ACCOUNT));
+	}
+
+	/**
+	 * Increments the account token version, the caller is responsible for saving the account.
+	 * The in-memory version is replaced only once the surrounding transaction commits.
+	 */
+	public void revoke(Account account) {
+		int version = account.getTokenVersion() + 1;
+		account.setTokenVersion(version);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					versions.put(account.getId(), version);
+				}
+			});
+		} else {
+			versions.put(account.getId(), version);
+		}
+	}
+
+	public ExpiringCache.Statistics getStatistics() {
+		return versions.getStatistics();
+	}
+}
@@ -0,0 +1,23 @@
+package net.developerpass.polimi.service.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when a discussion with reservations is rescheduled or cancelled.
+ * The groups are captured when the event is published, since cancelling also deletes their reservations.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class DiscussionChangedEvent {
+	private final Long discussionId;
+	private final String name;
+	private final LocalDateTime date;
+	private final boolean cancelled;
+	private final List<Long> groupIds;
+}
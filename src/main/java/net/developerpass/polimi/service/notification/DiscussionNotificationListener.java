@@ -0,0 +1,53 @@
+package net.developerpass.polimi.service.notification;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.developerpass.polimi.configuration.mail.CustomMailSender;
+import net.developerpass.polimi.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notifies every member of the affected groups of the discussion change.
+ * Runs just before the change commits, in the same transaction, so the outbox mails are committed
+ * or rolled back with the change. The mails are only queued, they are delivered by the dispatcher.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor_ = {@Autowired})
+public class DiscussionNotificationListener {
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+	private final AccountRepository accountRepository;
+	private final CustomMailSender customMailSender;
+
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+	public void onDiscussionChanged(DiscussionChangedEvent event) {
+		if (event.getGroupIds().isEmpty()) {
+			return;
+		}
+
+		List<String> recipients = accountRepository.findAllMemberUsernamesByGroupIds(event.getGroupIds());
+		if (recipients.isEmpty()) {
+			return;
+		}
+
+		Map<String, String> data = Map.of(
+				"name", event.getName(),
+				"date", event.getDate().format(DATE_FORMAT)
+		);
+		if (event.isCancelled()) {
+			customMailSender.sendDiscussionCancelled(recipients, data);
+		} else {
+			customMailSender.sendDiscussionRescheduled(recipients, data);
+		}
+		log.info(String.format("DISCUSSION %d %s, %d MEMBERS NOTIFIED", event.getDiscussionId(),
+				event.isCancelled() ? "CANCELLED" : "RESCHEDULED", recipients.size()));
+	}
+}
@@ -0,0 +1,108 @@
+package net.developerpass.polimi.service.transaction;
+
+import net.developerpass.polimi.entity.FellowStudent;
+import net.developerpass.polimi.entity.Reservation;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs an action in a read-write transaction, started again up to {@code transaction.retry.max-attempts} times when
+ * it loses a race with a concurrent transaction: a stale {@code @Version}, a lock conflict, or a violation of one of the
+ * unique keys of the live rows. Any other integrity violation is a bug or bad input and is thrown at once.
+ * Every attempt runs the whole action again, so its checks see the rows committed by the winner.
+ * Inside an existing transaction the action runs once, only the outermost transaction can be retried.
+ */
+@Component
+public class TransactionRetryTemplate {
+	/**
+	 * Unique keys checked by the actions before writing, so a violation means a concurrent transaction won the race
+	 */
+	private static final Set<String> RACE_CONSTRAINTS = Set.of(Reservation.UNIQUE_ACTIVE, FellowStudent.UNIQUE_ACTIVE);
+
+	private final Logger log = LoggerFactory.getLogger(this.getClass());
+	private final TransactionTemplate transactionTemplate;
+	private final int maxAttempts;
+	private final long backoffMs;
+
+	public TransactionRetryTemplate(
+			PlatformTransactionManager transactionManager,
+			@Value("${transaction.retry.max-attempts:3}") int maxAttempts,
+			@Value("${transaction.retry.backoff-ms:20}") long backoffMs) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.maxAttempts = Math.max(1, maxAttempts);
+		this.backoffMs = backoffMs;
+	}
+
+	public <T> T execute(Supplier<T> action) {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return transactionTemplate.execute(status -> action.get());
+		}
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return transactionTemplate.execute(status -> action.get());
+			} catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+				if (!isRetryable(e)) {
+					throw e;
+				}
+				if (attempt >= maxAttempts) {
+					// Lost every race, answered as a conflict like a stale version
+					throw e instanceof ConcurrencyFailureException ? e : new ConcurrencyFailureException(e.getMessage(), e);
+				}
+				log.debug(String.format("Transaction attempt %d of %d failed: %s", attempt, maxAttempts, e.getMessage()));
+				backoff(attempt, e);
+			}
+		}
+	}
+
+	private static boolean isRetryable(DataAccessException e) {
+		if (e instanceof ConcurrencyFailureException) {
+			return true;
+		}
+		for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException) {
+				return isRaceConstraint(((ConstraintViolationException) cause).getConstraintName());
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The databases report the name in upper case (HSQLDB) or prefixed by the table (MySQL 8)
+	 */
+	private static boolean isRaceConstraint(String constraintName) {
+		if (constraintName == null) {
+			return false;
+		}
+		String name = constraintName.toLowerCase(Locale.ROOT);
+		return RACE_CONSTRAINTS.stream().anyMatch(name::endsWith);
+	}
+
+	/**
+	 * Random wait growing with the attempt, so the transactions that lost the race do not collide again
+	 */
+	private void backoff(int attempt, DataAccessException e) {
+		if (backoffMs <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs * attempt + 1));
+		} catch (InterruptedException interrupted) {
+			Thread.currentThread().interrupt();
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package net.developerpass.polimi.utils.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process LRU cache with a per-entry expiration time.
+ * The loader is executed outside the lock, so concurrent misses for the same key may load twice.
+ */
+public class ExpiringCache<K, V> {
+	private final int maximumSize;
+	private final Duration timeToLive;
+	private final Clock clock;
+	private final LinkedHashMap<K, Entry<V>> entries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public ExpiringCache(int maximumSize, Duration timeToLive) {
+		this(maximumSize, timeToLive, Clock.systemUTC());
+	}
+
+	public ExpiringCache(int maximumSize, Duration timeToLive, Clock clock) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("Invalid cache maximum size");
+		}
+		this.maximumSize = maximumSize;
+		this.timeToLive = timeToLive;
+		this.clock = clock;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				if (size() > ExpiringCache.this.maximumSize) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public Optional<V> getIfPresent(K key) {
+		Instant now = clock.instant();
+		synchronized (entries) {
+			Entry<V> entry = entries.get(key);
+			if (entry != null) {
+				if (entry.expiresAt.isAfter(now)) {
+					hits.increment();
+					return Optional.of(entry.value);
+				}
+				entries.remove(key);
+				evictions.increment();
+			}
+		}
+		misses.increment();
+		return Optional.empty();
+	}
+
+	public V get(K key, Function<K, V> loader) {
+		return getIfPresent(key).orElseGet(() -> {
+			V value = loader.apply(key);
+			put(key, value);
+			return value;
+		});
+	}
+
+	public void put(K key, V value) {
+		put(key, value, null);
+	}
+
+	/**
+	 * Stores the value until the cache time to live elapses or until {@code expiresAt}, whichever comes first.
+	 */
+	public void put(K key, V value, Instant expiresAt) {
+		Instant expiration = clock.instant().plus(timeToLive);
+		if (expiresAt != null && expiresAt.isBefore(expiration)) {
+			expiration = expiresAt;
+		}
+		synchronized (entries) {
+			entries.put(key, new Entry<>(value, expiration));
+		}
+	}
+
+	public void invalidate(K key) {
+		synchronized (entries) {
+			entries.remove(key);
+		}
+	}
+
+	public void invalidateIf(Predicate<V> predicate) {
+		synchronized (entries) {
+			Iterator<Entry<V>> iterator = entries.values().iterator();
+			while (iterator.hasNext()) {
+				if (predicate.test(iterator.next().value)) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	public void invalidateAll() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public Statistics getStatistics() {
+		return new Statistics(hits.sum(), misses.sum(), evictions.sum(), size());
+	}
+
+	@AllArgsConstructor
+	private static class Entry<V> {
+		private final V value;
+		private final Instant expiresAt;
+	}
+
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Statistics {
+		private final long hitCount;
+		private final long missCount;
+		private final long evictionCount;
+		private final int size;
+	}
+}
@@ -0,0 +1,32 @@
+package net.developerpass.polimi.utils.object;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.developerpass.polimi.configuration.cache.SecondLevelCacheStatistics;
+import net.developerpass.polimi.configuration.datasource.ReadWriteRoutingDataSource;
+import net.developerpass.polimi.security.ratelimit.TokenBucketRateLimiter;
+import net.developerpass.polimi.utils.cache.ExpiringCache;
+
+import java.util.Map;
+
+/**
+ * Counters of the in-memory caches, the rate limiter and the datasource routing of this node
+ */
+@Getter
+@AllArgsConstructor
+public class ApplicationStatistics {
+	/**
+	 * By region name, empty when {@code spring.jpa.properties.hibernate.generate_statistics} is disabled
+	 */
+	private Map<String, SecondLevelCacheStatistics.Statistics> secondLevelCache;
+	private ExpiringCache.Statistics claimsCache;
+	private ExpiringCache.Statistics tokenVersions;
+	/**
+	 * By endpoint group
+	 */
+	private Map<String, TokenBucketRateLimiter.Statistics> rateLimit;
+	/**
+	 * Null without {@code datasource.replica.urls}
+	 */
+	private ReadWriteRoutingDataSource.Statistics dataSourceRouting;
+}
@@ -0,0 +1,57 @@
+package net.developerpass.polimi.utils.object;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import net.developerpass.polimi.entity.projection.KeysetSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque position in a list ordered by (createdOn, id) descending, the next page starts after it
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@EqualsAndHashCode
+public class Cursor {
+	/**
+	 * Position before the newest item, the greatest value of a MySQL DATETIME
+	 */
+	public static final Cursor FIRST = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+	private final LocalDateTime createdOn;
+	private final Long id;
+
+	public static Cursor after(KeysetSummary item) {
+		return new Cursor(item.getCreatedOn(), item.getId());
+	}
+
+	/**
+	 * @return {@link #FIRST} when the cursor is empty
+	 */
+	public static Cursor decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return FIRST;
+		}
+		try {
+			String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+			if (position.length != 2) {
+				throw new IllegalArgumentException("Invalid cursor");
+			}
+			return new Cursor(LocalDateTime.parse(position[0]), Long.parseLong(position[1]));
+		} catch (IllegalArgumentException | DateTimeException e) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+
+	public String encode() {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((createdOn + "," + id).getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,36 @@
+package net.developerpass.polimi.utils.object;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import net.developerpass.polimi.entity.projection.KeysetSummary;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Page of a keyset paginated list, {@code nextCursor} is null on the last page
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CursorPage<T> {
+	private List<T> content;
+	private int size;
+	private String nextCursor;
+
+	public static <T extends KeysetSummary> CursorPage<T> of(Slice<T> slice) {
+		List<T> content = slice.getContent();
+		String nextCursor = slice.hasNext() ? Cursor.after(content.get(content.size() - 1)).encode() : null;
+		return new CursorPage<>(content, slice.getSize(), nextCursor);
+	}
+
+}
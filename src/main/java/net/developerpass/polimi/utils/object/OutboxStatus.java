@@ -0,0 +1,8 @@
+package net.developerpass.polimi.utils.object;
+
+public enum OutboxStatus {
+	Pending,
+	Sending,
+	Sent,
+	Failed
+}
@@ -0,0 +1,24 @@
+package net.developerpass.polimi.utils.object;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RestResponseSlice<T> {
+	private List<T> content;
+	private int number;
+	private int size;
+	private boolean last;
+
+	public SliceImpl<T> getSlice() {
+		return new SliceImpl<>(content, PageRequest.of(number, size), !last);
+	}
+
+}
@@ -0,0 +1,32 @@
+package net.developerpass.polimi.utils.object;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StudentImportReport {
+	private long imported;
+	private long failed;
+	/**
+	 * Only the first {@code student-import.max-reported-errors} errors are reported
+	 */
+	private boolean truncated;
+	private List<RowError> errors = new ArrayList<>();
+
+	@Getter
+	@Setter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class RowError {
+		private long line;
+		private String username;
+		private String message;
+	}
+}
@@ -0,0 +1,8 @@
+-- Every dispatcher claims the outbox mails before sending them: the status becomes Sending, lockedBy holds the
+-- dispatcher and lockedUntil the claim expiry, after which another dispatcher can claim the mail again.
+
+ALTER TABLE OutboxMail
+    ADD COLUMN lockedBy    VARCHAR(36) NULL,
+    ADD COLUMN lockedUntil DATETIME(6) NULL;
+
+CREATE INDEX idx_outbox_mail_locked_by ON OutboxMail (lockedBy);
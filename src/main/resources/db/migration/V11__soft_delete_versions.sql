@@ -0,0 +1,6 @@
+-- Fellow students and files are soft deleted in bulk, the bulk updates increment the version
+-- so that a concurrent update of a loaded row fails instead of bringing it back.
+
+ALTER TABLE FellowStudent ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE File ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
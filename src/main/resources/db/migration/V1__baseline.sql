@@ -0,0 +1,96 @@
+-- Schema generated by Hibernate (ddl-auto=update) before versioned migrations.
+-- Existing databases are baselined at this version and skip it.
+
+CREATE TABLE Account (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    username     VARCHAR(120) NOT NULL,
+    password     VARCHAR(64)  NOT NULL,
+    role         VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_account_username UNIQUE (username)
+) ENGINE = InnoDB;
+
+CREATE TABLE Student (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    accountId    BIGINT       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    surname      VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_student_account FOREIGN KEY (accountId) REFERENCES Account (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE TABLE Professor (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    accountId    BIGINT       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    surname      VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_professor_account FOREIGN KEY (accountId) REFERENCES Account (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE TABLE `Group` (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    professorId  BIGINT       NOT NULL,
+    adminId      BIGINT       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    deleted      BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_group_professor FOREIGN KEY (professorId) REFERENCES Professor (id) ON DELETE CASCADE,
+    CONSTRAINT fk_group_admin FOREIGN KEY (adminId) REFERENCES Student (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE TABLE FellowStudent (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    studentId    BIGINT NOT NULL,
+    groupId      BIGINT NOT NULL,
+    deleted      BIT    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_fellow_student_student FOREIGN KEY (studentId) REFERENCES Student (id) ON DELETE CASCADE,
+    CONSTRAINT fk_fellow_student_group FOREIGN KEY (groupId) REFERENCES `Group` (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE Discussion (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    professorId  BIGINT       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    date         DATETIME DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    deleted      BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_discussion_professor FOREIGN KEY (professorId) REFERENCES Professor (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE TABLE File (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    groupId      BIGINT       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    fileName     VARCHAR(255) NOT NULL,
+    deleted      BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_file_group FOREIGN KEY (groupId) REFERENCES `Group` (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE TABLE Reservation (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    groupId      BIGINT NOT NULL,
+    discussionId BIGINT NOT NULL,
+    deleted      BIT    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reservation_group FOREIGN KEY (groupId) REFERENCES `Group` (id) ON DELETE CASCADE,
+    CONSTRAINT fk_reservation_discussion FOREIGN KEY (discussionId) REFERENCES Discussion (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
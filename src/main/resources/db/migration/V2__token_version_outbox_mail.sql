@@ -0,0 +1,21 @@
+-- Schema added by the changes made before the versioned migrations, missing from the databases baselined at version 1:
+-- the token version signed in every JWT, and the outbox of the mails sent by OutboxMailDispatcher.
+
+ALTER TABLE Account ADD COLUMN tokenVersion INT NOT NULL DEFAULT 0;
+
+CREATE TABLE OutboxMail (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    createdOn     DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified  DATETIME DEFAULT CURRENT_TIMESTAMP,
+    recipient     VARCHAR(120) NOT NULL,
+    subject       VARCHAR(255) NOT NULL,
+    document      TEXT,
+    html          BIT          NOT NULL,
+    typeMail      VARCHAR(255) NOT NULL,
+    status        VARCHAR(255) NOT NULL,
+    attempts      INTEGER      NOT NULL,
+    nextAttemptOn DATETIME(6)  NOT NULL,
+    sentOn        DATETIME(6),
+    lastError     VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,23 @@
+-- Composite indexes for the repository lookups, the soft-delete flag is part of every list index
+-- and the trailing columns make the frequent projections index-only.
+
+CREATE INDEX idx_account_role_username_password ON Account (role, username, password);
+
+CREATE INDEX idx_student_account ON Student (accountId);
+
+CREATE INDEX idx_professor_account ON Professor (accountId);
+
+CREATE INDEX idx_group_professor_deleted ON `Group` (professorId, deleted);
+CREATE INDEX idx_group_admin_deleted ON `Group` (adminId, deleted);
+
+CREATE INDEX idx_fellow_student_group_deleted ON FellowStudent (groupId, deleted, studentId);
+CREATE INDEX idx_fellow_student_student_group_deleted ON FellowStudent (studentId, groupId, deleted);
+
+CREATE INDEX idx_discussion_professor_deleted ON Discussion (professorId, deleted);
+
+CREATE INDEX idx_file_group_deleted_created ON File (groupId, deleted, createdOn);
+
+CREATE INDEX idx_reservation_group_deleted ON Reservation (groupId, deleted, discussionId);
+CREATE INDEX idx_reservation_discussion_deleted ON Reservation (discussionId, deleted, groupId);
+
+CREATE INDEX idx_outbox_mail_status_next_attempt ON OutboxMail (status, nextAttemptOn, id);
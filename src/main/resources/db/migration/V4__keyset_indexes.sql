@@ -0,0 +1,16 @@
+-- Indexes for the keyset (cursor) lists, ordered by (createdOn, id) after the equality filters.
+-- The new group and discussion indexes replace their (professorId, deleted) prefixes, they are created
+-- before the old ones are dropped so the professorId foreign keys always have an index.
+-- The file list is already served by idx_file_group_deleted_created, InnoDB appends the primary key.
+
+CREATE INDEX idx_group_professor_deleted_created ON `Group` (professorId, deleted, createdOn, id);
+DROP INDEX idx_group_professor_deleted ON `Group`;
+
+CREATE INDEX idx_discussion_professor_deleted_created ON Discussion (professorId, deleted, createdOn, id);
+DROP INDEX idx_discussion_professor_deleted ON Discussion;
+
+CREATE INDEX idx_reservation_group_deleted_created ON Reservation (groupId, deleted, createdOn, id);
+
+CREATE INDEX idx_student_created ON Student (createdOn, id);
+
+CREATE INDEX idx_professor_created ON Professor (createdOn, id);
@@ -0,0 +1,9 @@
+-- Student and Professor are resolved by accountId through the Hibernate natural id cache,
+-- the one to one relation with Account is now enforced by a unique index.
+-- The unique indexes are created before the old ones are dropped so the accountId foreign keys always have an index.
+
+CREATE UNIQUE INDEX uk_student_account ON Student (accountId);
+DROP INDEX idx_student_account ON Student;
+
+CREATE UNIQUE INDEX uk_professor_account ON Professor (accountId);
+DROP INDEX idx_professor_account ON Professor;
@@ -0,0 +1,31 @@
+-- Ids are generated by Hibernate pooled sequences instead of AUTO_INCREMENT, so inserts can be sent in JDBC batches.
+-- MySQL has no sequences: Hibernate keeps each one in a single row table, next_val is the highest id of the next block.
+-- Every block is HibernateEntity.ID_ALLOCATION_SIZE (50) ids, the first one starts right after the current highest id.
+-- The AUTO_INCREMENT columns are kept, rows must not be inserted without an id taken from these tables.
+
+CREATE TABLE Account_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO Account_seq SELECT COALESCE(MAX(id), 0) + 50 FROM Account;
+
+CREATE TABLE Student_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO Student_seq SELECT COALESCE(MAX(id), 0) + 50 FROM Student;
+
+CREATE TABLE Professor_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO Professor_seq SELECT COALESCE(MAX(id), 0) + 50 FROM Professor;
+
+CREATE TABLE Group_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO Group_seq SELECT COALESCE(MAX(id), 0) + 50 FROM `Group`;
+
+CREATE TABLE FellowStudent_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO FellowStudent_seq SELECT COALESCE(MAX(id), 0) + 50 FROM FellowStudent;
+
+CREATE TABLE Discussion_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO Discussion_seq SELECT COALESCE(MAX(id), 0) + 50 FROM Discussion;
+
+CREATE TABLE File_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO File_seq SELECT COALESCE(MAX(id), 0) + 50 FROM File;
+
+CREATE TABLE Reservation_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO Reservation_seq SELECT COALESCE(MAX(id), 0) + 50 FROM Reservation;
+
+CREATE TABLE OutboxMail_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO OutboxMail_seq SELECT COALESCE(MAX(id), 0) + 50 FROM OutboxMail;
\ No newline at end of file
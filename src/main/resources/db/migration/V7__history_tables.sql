@@ -0,0 +1,73 @@
+-- Cold copies of the soft-deleted and past rows, moved by ArchiveService so the live tables only hold the working set.
+-- Ids are kept from the live tables, there are no foreign keys: the referenced rows may be archived or still live.
+
+CREATE TABLE GroupHistory (
+    id           BIGINT       NOT NULL,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    professorId  BIGINT       NOT NULL,
+    adminId      BIGINT       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    deleted      BIT          NOT NULL,
+    archivedOn   DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_group_history_professor_archived ON GroupHistory (professorId, archivedOn);
+CREATE INDEX idx_group_history_admin ON GroupHistory (adminId);
+
+CREATE TABLE FellowStudentHistory (
+    id           BIGINT      NOT NULL,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    studentId    BIGINT      NOT NULL,
+    groupId      BIGINT      NOT NULL,
+    deleted      BIT         NOT NULL,
+    archivedOn   DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_fellow_student_history_student ON FellowStudentHistory (studentId);
+CREATE INDEX idx_fellow_student_history_group ON FellowStudentHistory (groupId);
+
+CREATE TABLE FileHistory (
+    id           BIGINT       NOT NULL,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    groupId      BIGINT       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    fileName     VARCHAR(255) NOT NULL,
+    deleted      BIT          NOT NULL,
+    archivedOn   DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_file_history_group_archived ON FileHistory (groupId, archivedOn);
+
+CREATE TABLE DiscussionHistory (
+    id           BIGINT       NOT NULL,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    professorId  BIGINT       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    date         DATETIME     NOT NULL,
+    deleted      BIT          NOT NULL,
+    archivedOn   DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_discussion_history_professor_archived ON DiscussionHistory (professorId, archivedOn);
+
+CREATE TABLE ReservationHistory (
+    id           BIGINT      NOT NULL,
+    createdOn    DATETIME DEFAULT CURRENT_TIMESTAMP,
+    lastModified DATETIME DEFAULT CURRENT_TIMESTAMP,
+    groupId      BIGINT      NOT NULL,
+    discussionId BIGINT      NOT NULL,
+    deleted      BIT         NOT NULL,
+    archivedOn   DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_reservation_history_group_archived ON ReservationHistory (groupId, archivedOn);
+CREATE INDEX idx_reservation_history_discussion ON ReservationHistory (discussionId);
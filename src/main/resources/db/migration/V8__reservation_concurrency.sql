@@ -0,0 +1,25 @@
+-- Concurrent bookings: every reservation booked for a group increments the group version,
+-- and a group cannot reserve the same discussion twice while both reservations are live.
+-- active is 1 for live reservations and NULL for deleted ones, NULLs never collide in the unique index.
+
+ALTER TABLE `Group` ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE Reservation
+    ADD COLUMN active  BIT    NULL,
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE Reservation SET active = 1 WHERE deleted = 0;
+
+-- Duplicates left by the previous check-then-insert are soft deleted, the oldest reservation is kept
+UPDATE Reservation r
+    JOIN (SELECT groupId, discussionId, MIN(id) AS keptId
+          FROM Reservation
+          WHERE deleted = 0
+          GROUP BY groupId, discussionId
+          HAVING COUNT(*) > 1) duplicate ON duplicate.groupId = r.groupId AND duplicate.discussionId = r.discussionId
+SET r.deleted = 1,
+    r.active  = NULL
+WHERE r.deleted = 0
+  AND r.id <> duplicate.keptId;
+
+CREATE UNIQUE INDEX uk_reservation_group_discussion_active ON Reservation (groupId, discussionId, active);
@@ -0,0 +1,27 @@
+-- Group joins: the live fellow students of a group are counted in fellowStudentCount, which a join increments
+-- with a conditional update, and a student cannot be a live fellow student of the same group twice.
+-- active is 1 for live fellow students and NULL for deleted ones, NULLs never collide in the unique index.
+
+ALTER TABLE `Group` ADD COLUMN fellowStudentCount INT NOT NULL DEFAULT 0;
+
+ALTER TABLE FellowStudent ADD COLUMN active BIT NULL;
+
+UPDATE FellowStudent SET active = 1 WHERE deleted = 0;
+
+-- Duplicates left by the previous check-then-insert are soft deleted, the oldest membership is kept
+UPDATE FellowStudent fs
+    JOIN (SELECT groupId, studentId, MIN(id) AS keptId
+          FROM FellowStudent
+          WHERE deleted = 0
+          GROUP BY groupId, studentId
+          HAVING COUNT(*) > 1) duplicate ON duplicate.groupId = fs.groupId AND duplicate.studentId = fs.studentId
+SET fs.deleted = 1,
+    fs.active  = NULL
+WHERE fs.deleted = 0
+  AND fs.id <> duplicate.keptId;
+
+CREATE UNIQUE INDEX uk_fellow_student_group_student_active ON FellowStudent (groupId, studentId, active);
+
+-- Groups already overfilled keep their count and accept joins again once below the capacity
+UPDATE `Group` g
+SET g.fellowStudentCount = (SELECT COUNT(*) FROM FellowStudent fs WHERE fs.groupId = g.id AND fs.deleted = 0);
@@ -0,0 +1,113 @@
+package net.developerpass.polimi;
+
+import net.developerpass.polimi.entity.Group;
+import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.repository.GroupRepository;
+import net.developerpass.polimi.repository.OutboxMailRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.flywaydb.core.api.MigrationState;
+import org.flywaydb.core.api.MigrationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The migrations are MySQL scripts, they run on a MySQL container with the production Flyway settings and the
+ * application must start on the result with ddl-auto=validate. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class FlywayMigrationTest {
+	@Container
+	private static final MySQLContainer<?> MYSQL = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+
+	@BeforeEach
+	public void beforeEach() {
+		Flyway.configure()
+				.dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+				.load()
+				.clean();
+	}
+
+	/**
+	 * Command line arguments, so they win over the test application.properties (create-drop, Flyway disabled)
+	 */
+	private ConfigurableApplicationContext start() {
+		return new SpringApplicationBuilder(PolimiApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(
+						"--spring.datasource.url=" + MYSQL.getJdbcUrl(),
+						"--spring.datasource.username=" + MYSQL.getUsername(),
+						"--spring.datasource.password=" + MYSQL.getPassword(),
+						"--spring.datasource.driver-class-name=" + MYSQL.getDriverClassName(),
+						"--spring.flyway.enabled=true",
+						"--spring.flyway.baseline-on-migrate=true",
+						"--spring.flyway.baseline-version=1",
+						"--spring.jpa.hibernate.ddl-auto=validate",
+						"--spring.jpa.hibernate.naming.implicit-strategy=org.hibernate.boot.model.naming.ImplicitNamingStrategyJpaCompliantImpl",
+						"--spring.jpa.hibernate.naming.physical-strategy=org.hibernate.boot.model.naming.PhysicalNamingStrategyStandardImpl");
+	}
+
+	private void assertMigrated(ConfigurableApplicationContext context) {
+		MigrationInfoService info = context.getBean(Flyway.class).info();
+		assertEquals(0, info.pending().length);
+		assertTrue(Arrays.stream(info.applied())
+				.filter(migration -> migration.getType() != MigrationType.BASELINE)
+				.map(MigrationInfo::getState)
+				.allMatch(state -> state == MigrationState.SUCCESS));
+		assertEquals(0, context.getBean(AccountRepository.class).count());
+		assertEquals(0, context.getBean(OutboxMailRepository.class).count());
+	}
+
+	@Test
+	void emptyDatabase() {
+		try (ConfigurableApplicationContext context = start()) {
+			assertMigrated(context);
+			assertEquals(MigrationType.SQL, context.getBean(Flyway.class).info().applied()[0].getType());
+		}
+	}
+
+	@Test
+	void baselineDatabase() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+		new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(dataSource);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.update("INSERT INTO Account (id, username, password, role) VALUES (1, 'professor@mail.com', '', 'Professor'), (2, 'student@mail.com', '', 'Student')");
+		jdbcTemplate.update("INSERT INTO Professor (id, accountId, name, surname) VALUES (1, 1, 'Professor name', 'Professor surname')");
+		jdbcTemplate.update("INSERT INTO Student (id, accountId, name, surname) VALUES (1, 2, 'Student name', 'Student surname')");
+		jdbcTemplate.update("INSERT INTO `Group` (id, professorId, adminId, name, deleted) VALUES (1, 1, 1, 'Test Group', 0)");
+		// A membership duplicated by the old check-then-insert join
+		jdbcTemplate.update("INSERT INTO FellowStudent (studentId, groupId, deleted) VALUES (1, 1, 0), (1, 1, 0)");
+
+		try (ConfigurableApplicationContext context = start()) {
+			MigrationInfoService info = context.getBean(Flyway.class).info();
+			assertEquals(0, info.pending().length);
+			assertEquals(MigrationType.BASELINE, info.applied()[0].getType());
+			assertEquals("1", info.applied()[0].getVersion().getVersion());
+			assertTrue(Arrays.stream(info.applied())
+					.skip(1)
+					.allMatch(migration -> migration.getState() == MigrationState.SUCCESS));
+
+			Group group = context.getBean(GroupRepository.class).findById(1L).orElseThrow();
+			assertEquals(1, group.getFellowStudentCount().intValue());
+			assertEquals(0, context.getBean(AccountRepository.class).findById(2L).orElseThrow().getTokenVersion().intValue());
+			assertEquals(0, context.getBean(OutboxMailRepository.class).count());
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package net.developerpass.polimi.benchmark;
+
+import net.developerpass.polimi.PolimiApplication;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.FellowStudent;
+import net.developerpass.polimi.entity.Group;
+import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.repository.GroupRepository;
+import net.developerpass.polimi.utils.object.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page of a student's groups with {@code groupCount} groups in the database: the previous query, with the
+ * COUNT subquery evaluated on every group row, against {@link GroupRepository#findAllByStudentIdAndDeletedFalse}.
+ * Each group has an admin and a fellow student taken from {@code groupCount / 10} students.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=net.developerpass.polimi.benchmark.GroupMembershipBenchmark
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GroupMembershipBenchmark {
+	private static final int FLUSH_SIZE = 1000;
+	private static final String LEGACY_QUERY = "SELECT g FROM Group g WHERE g.deleted = FALSE AND (g.adminId = :studentId OR ( SELECT COUNT(fs.id) FROM FellowStudent fs WHERE fs.studentId = :studentId AND fs.deleted = FALSE ) = 1)";
+
+	@Param({"100000"})
+	private int groupCount;
+
+	private ConfigurableApplicationContext context;
+	private EntityManager entityManager;
+	private GroupRepository groupRepository;
+	private TransactionTemplate transactionTemplate;
+	private Long studentId;
+
+	@Setup
+	public void setup() {
+		context = new SpringApplicationBuilder(PolimiApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"logging.level.root=WARN",
+						"logging.level.org.hibernate.SQL=WARN",
+						"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+				.run();
+		entityManager = context.getBean(EntityManager.class);
+		groupRepository = context.getBean(GroupRepository.class);
+		transactionTemplate = context.getBean(TransactionTemplate.class);
+
+		int studentCount = Math.max(2, groupCount / 10);
+		Long[] studentIds = transactionTemplate.execute(status -> {
+			Account professorAccount = new Account("professor@mail.com", "", Role.Professor);
+			entityManager.persist(professorAccount);
+			Long[] ids = new Long[studentCount + 1];
+			Professor professor = new Professor(professorAccount.getId(), "Professor", "Professor");
+			entityManager.persist(professor);
+			ids[studentCount] = professor.getId();
+			for (int i = 0; i < studentCount; i++) {
+				Account account = new Account("student" + i + "@mail.com", "", Role.Student);
+				entityManager.persist(account);
+				Student student = new Student(account.getId(), "Student", "Student");
+				entityManager.persist(student);
+				ids[i] = student.getId();
+				flush(i);
+			}
+			return ids;
+		});
+		Long professorId = studentIds[studentCount];
+		for (int from = 0; from < groupCount; from += FLUSH_SIZE * 10) {
+			int start = from;
+			transactionTemplate.execute(status -> {
+				for (int i = start; i < Math.min(groupCount, start + FLUSH_SIZE * 10); i++) {
+					Group group = new Group(professorId, studentIds[i % studentCount], "Group " + i);
+					entityManager.persist(group);
+					entityManager.persist(new FellowStudent(studentIds[(i + 1) % studentCount], group.getId()));
+					flush(i);
+				}
+				return null;
+			});
+		}
+		studentId = studentIds[studentCount / 2];
+	}
+
+	private void flush(int i) {
+		if (i % FLUSH_SIZE == FLUSH_SIZE - 1) {
+			entityManager.flush();
+			entityManager.clear();
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Group> legacy() {
+		return transactionTemplate.execute(status -> entityManager.createQuery(LEGACY_QUERY, Group.class)
+				.setParameter("studentId", studentId)
+				.setMaxResults(20)
+				.getResultList());
+	}
+
+	@Benchmark
+	public Page<Group> membership() {
+		return transactionTemplate.execute(status -> groupRepository.findAllByStudentIdAndDeletedFalse(studentId, PageRequest.of(0, 20)));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(GroupMembershipBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
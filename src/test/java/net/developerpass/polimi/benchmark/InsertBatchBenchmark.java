@@ -0,0 +1,103 @@
+package net.developerpass.polimi.benchmark;
+
+import net.developerpass.polimi.PolimiApplication;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.Discussion;
+import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.repository.DiscussionRepository;
+import net.developerpass.polimi.utils.object.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to save {@code rows} discussions in one transaction with pooled ids, sent one by one ({@code batchSize} 1,
+ * as with IDENTITY ids) or in JDBC batches.
+ * The test database is in memory, with MySQL the gap also includes a network round trip per statement.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=net.developerpass.polimi.benchmark.InsertBatchBenchmark
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InsertBatchBenchmark {
+
+	@Param({"1", "50"})
+	private int batchSize;
+
+	@Param({"500"})
+	private int rows;
+
+	private ConfigurableApplicationContext context;
+	private DiscussionRepository discussionRepository;
+	private TransactionTemplate transactionTemplate;
+	private Long professorId;
+
+	@Setup
+	public void setup() {
+		context = new SpringApplicationBuilder(PolimiApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+						"logging.level.root=WARN",
+						"logging.level.org.hibernate.SQL=WARN",
+						"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+				.run();
+		EntityManager entityManager = context.getBean(EntityManager.class);
+		discussionRepository = context.getBean(DiscussionRepository.class);
+		transactionTemplate = context.getBean(TransactionTemplate.class);
+
+		professorId = transactionTemplate.execute(status -> {
+			Account account = new Account("professor@mail.com", "", Role.Professor);
+			entityManager.persist(account);
+			Professor professor = new Professor(account.getId(), "Professor", "Professor");
+			entityManager.persist(professor);
+			return professor.getId();
+		});
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int saveAll() {
+		LocalDateTime date = LocalDateTime.now().plusDays(1);
+		List<Discussion> discussions = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			discussions.add(new Discussion(professorId, "Discussion " + i, date));
+		}
+		return transactionTemplate.execute(status -> discussionRepository.saveAll(discussions).size());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(InsertBatchBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,85 @@
+package net.developerpass.polimi.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.service.jwt.JWTService;
+import net.developerpass.polimi.service.jwt.TokenClaims;
+import net.developerpass.polimi.utils.object.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the previous verification path (new verifier and claims map on every call)
+ * with {@link JWTService#verify(String)}, round-robin over {@code tokenCount} distinct tokens.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=net.developerpass.polimi.benchmark.JWTServiceBenchmark
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JWTServiceBenchmark {
+	private static final String SECRET = "benchmark-secret";
+
+	@Param({"1", "1000", "10000", "100000"})
+	private int tokenCount;
+
+	private Algorithm algorithm;
+	private JWTService jwtService;
+	private String[] tokens;
+	private int next;
+
+	@Setup
+	public void setup() {
+		algorithm = Algorithm.HMAC256(SECRET);
+		jwtService = new JWTService(SECRET, 10000, 300);
+		tokens = new String[tokenCount];
+		for (int i = 0; i < tokenCount; i++) {
+			Account account = new Account((long) i, "student" + i + "@mail.com", "", Role.Student);
+			tokens[i] = jwtService.create(account, (long) i);
+		}
+	}
+
+	private String nextToken() {
+		next = next + 1 == tokens.length ? 0 : next + 1;
+		return tokens[next];
+	}
+
+	@Benchmark
+	public Map<String, Object> uncached() {
+		DecodedJWT jwt = JWT.require(algorithm).build().verify(nextToken());
+		return jwt.getClaims().entrySet()
+				.stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().as(Object.class)));
+	}
+
+	@Benchmark
+	public TokenClaims cached() {
+		return jwtService.verify(nextToken());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JWTServiceBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,127 @@
+package net.developerpass.polimi.benchmark;
+
+import net.developerpass.polimi.PolimiApplication;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.FellowStudent;
+import net.developerpass.polimi.entity.Group;
+import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.entity.projection.GroupSummary;
+import net.developerpass.polimi.repository.GroupRepository;
+import net.developerpass.polimi.utils.object.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of {@code pageSize} groups, with their members, loaded in a read-write transaction (auto flush and a
+ * dirty-checking snapshot of every entity) against a read-only one (manual flush, no snapshots), and the
+ * projection used by the list endpoints. Run with the GC profiler to compare the allocation per request:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=net.developerpass.polimi.benchmark.ReadOnlyTransactionBenchmark
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReadOnlyTransactionBenchmark {
+	private static final int GROUP_COUNT = 1000;
+
+	@Param({"20", "50"})
+	private int pageSize;
+
+	private ConfigurableApplicationContext context;
+	private GroupRepository groupRepository;
+	private TransactionTemplate readWrite;
+	private TransactionTemplate readOnly;
+	private Long professorId;
+
+	@Setup
+	public void setup() {
+		context = new SpringApplicationBuilder(PolimiApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"logging.level.root=WARN",
+						"logging.level.org.hibernate.SQL=WARN",
+						"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+				.run();
+		EntityManager entityManager = context.getBean(EntityManager.class);
+		groupRepository = context.getBean(GroupRepository.class);
+		PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		professorId = readWrite.execute(status -> {
+			Account professorAccount = new Account("professor@mail.com", "", Role.Professor);
+			entityManager.persist(professorAccount);
+			Professor professor = new Professor(professorAccount.getId(), "Professor", "Professor");
+			entityManager.persist(professor);
+			for (int i = 0; i < GROUP_COUNT; i++) {
+				Group group = new Group(professor.getId(), student(entityManager, "admin" + i).getId(), "Group " + i);
+				entityManager.persist(group);
+				entityManager.persist(new FellowStudent(student(entityManager, "fellow" + i).getId(), group.getId()));
+			}
+			return professor.getId();
+		});
+	}
+
+	private Student student(EntityManager entityManager, String name) {
+		Account account = new Account(name + "@mail.com", "", Role.Student);
+		entityManager.persist(account);
+		Student student = new Student(account.getId(), "Student", "Student");
+		entityManager.persist(student);
+		return student;
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Page<Group> readWrite() {
+		return readWrite.execute(status -> groupRepository.findAllByProfessorIdAndDeletedFalse(professorId, PageRequest.of(0, pageSize)));
+	}
+
+	@Benchmark
+	public Page<Group> readOnly() {
+		return readOnly.execute(status -> groupRepository.findAllByProfessorIdAndDeletedFalse(professorId, PageRequest.of(0, pageSize)));
+	}
+
+	@Benchmark
+	public Page<GroupSummary> readOnlySummaries() {
+		return readOnly.execute(status -> groupRepository.findAllSummariesByProfessorIdAndDeletedFalse(professorId, PageRequest.of(0, pageSize)));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ReadOnlyTransactionBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,116 @@
+package net.developerpass.polimi.benchmark;
+
+import net.developerpass.polimi.PolimiApplication;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.service.authentication.StudentAuthenticationService;
+import net.developerpass.polimi.service.jwt.JWTAuthenticationService;
+import net.developerpass.polimi.utils.object.RegisterGeneric;
+import net.developerpass.polimi.utils.object.Role;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registrations per second of {@link StudentAuthenticationService#register(RegisterGeneric)} compared with the previous
+ * path (regexes compiled per call, duplicate lookup, token issued by a second login query), on the test database.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=net.developerpass.polimi.benchmark.RegistrationBenchmark
+ */
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RegistrationBenchmark {
+	private static final String PASSWORD = "TestPassword123";
+
+	private final AtomicLong next = new AtomicLong();
+
+	private ConfigurableApplicationContext context;
+	private StudentAuthenticationService studentAuthenticationService;
+	private JWTAuthenticationService authenticationService;
+	private AccountRepository accountRepository;
+	private StudentRepository studentRepository;
+	private TransactionTemplate transactionTemplate;
+
+	@Setup
+	public void setup() {
+		context = new SpringApplicationBuilder(PolimiApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"logging.level.root=WARN",
+						"logging.level.org.hibernate.SQL=WARN",
+						"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+				.run();
+		studentAuthenticationService = context.getBean(StudentAuthenticationService.class);
+		authenticationService = context.getBean(JWTAuthenticationService.class);
+		accountRepository = context.getBean(AccountRepository.class);
+		studentRepository = context.getBean(StudentRepository.class);
+		transactionTemplate = context.getBean(TransactionTemplate.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	private RegisterGeneric nextRegistration() {
+		return new RegisterGeneric("student" + next.incrementAndGet() + "@mail.com", PASSWORD, "Name", "Surname");
+	}
+
+	@Benchmark
+	public String legacy() {
+		RegisterGeneric data = nextRegistration();
+		return transactionTemplate.execute(status -> {
+			String email = data.getUsername().toLowerCase();
+			if (!email.matches("^[_a-z0-9-]+(\\.[_a-z0-9-]+)*@[a-z0-9-]+(\\.[a-z0-9-]+)*(\\.[a-z]{2,})$")) {
+				throw new IllegalArgumentException("Invalid email");
+			}
+			if (accountRepository.findByUsername(email).isPresent()) {
+				throw new IllegalArgumentException("Used email");
+			}
+			if (!data.getPassword().matches("^(?=.*?[0-9])(?=.*?[a-z])(?=.*?[A-Z])(.{8,30})$")) {
+				throw new IllegalArgumentException("Invalid password");
+			}
+			String shaPassword = DigestUtils.sha3_256Hex(data.getPassword());
+			Account account = accountRepository.save(new Account(email, shaPassword, Role.Student));
+			studentRepository.save(new Student(account.getId(), data.getName(), data.getSurname()));
+			return authenticationService.login(Role.Student, email, shaPassword);
+		});
+	}
+
+	@Benchmark
+	public String register() {
+		return studentAuthenticationService.register(nextRegistration());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(RegistrationBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,150 @@
+package net.developerpass.polimi.configuration.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase(replace = NONE)
+@SpringBootTest(properties = {
+		"datasource.replica.urls=jdbc:hsqldb:mem:replica",
+		"datasource.replica.read-your-writes-ms=60000"
+})
+public class ReadWriteRoutingDataSourceTest {
+	private static final String REPLICA = ReadWriteRoutingDataSource.REPLICA + 0;
+
+	@Autowired
+	private DataSource dataSource;
+	@Autowired
+	private ReadWriteRoutingDataSource readWriteRoutingDataSource;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/**
+	 * Every database has a routing_probe table holding its own lookup key
+	 */
+	@BeforeEach
+	public void beforeEach() {
+		readWriteRoutingDataSource.getResolvedDataSources().forEach((key, target) -> {
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(target);
+			jdbcTemplate.execute("DROP TABLE routing_probe IF EXISTS");
+			jdbcTemplate.execute("CREATE TABLE routing_probe (name VARCHAR(20))");
+			jdbcTemplate.update("INSERT INTO routing_probe (name) VALUES (?)", key);
+		});
+	}
+
+	@AfterEach
+	public void afterEach() {
+		SecurityContextHolder.clearContext();
+		readWriteRoutingDataSource.getResolvedDataSources().values()
+				.forEach(target -> new JdbcTemplate(target).execute("DROP TABLE routing_probe IF EXISTS"));
+	}
+
+	private String probe(boolean readOnly) {
+		return probe(transactionManager, dataSource, readOnly);
+	}
+
+	private String probe(PlatformTransactionManager transactionManager, DataSource dataSource, boolean readOnly) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(readOnly);
+		return transactionTemplate.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM routing_probe", String.class));
+	}
+
+	/**
+	 * A second routing data source over the same databases, with its own window and size
+	 */
+	private DataSource routingDataSource(int maxWriters, Duration readYourWrites) {
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+				readWriteRoutingDataSource.getResolvedDataSources().get(ReadWriteRoutingDataSource.PRIMARY),
+				List.of(readWriteRoutingDataSource.getResolvedDataSources().get(REPLICA)),
+				maxWriters, readYourWrites);
+		routing.afterPropertiesSet();
+		return new LazyConnectionDataSourceProxy(routing);
+	}
+
+	private void login(String username) {
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null, "ROLE_Student"));
+	}
+
+	@Test
+	void readOnlyTransactionUsesReplica() {
+		assertEquals(REPLICA, probe(true));
+	}
+
+	@Test
+	void readWriteTransactionUsesPrimary() {
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, probe(false));
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, new JdbcTemplate(dataSource).queryForObject("SELECT name FROM routing_probe", String.class));
+	}
+
+	@Test
+	void readYourWrites() {
+		login("writer@mail.com");
+		assertEquals(REPLICA, probe(true));
+		probe(false);
+
+		// The writer reads from the primary during the window, everybody else keeps using the replica
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, probe(true));
+		login("reader@mail.com");
+		assertEquals(REPLICA, probe(true));
+	}
+
+	@Test
+	void rolledBackWriteKeepsReplica() {
+		// Not a writer of another test, the context routing data source keeps its windows between tests
+		login("rollback-writer@mail.com");
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.executeWithoutResult(status -> {
+			new JdbcTemplate(dataSource).update("INSERT INTO routing_probe (name) VALUES ('rollback')");
+			status.setRollbackOnly();
+		});
+
+		assertEquals(REPLICA, probe(true));
+	}
+
+	@Test
+	void windowCloses() throws InterruptedException {
+		DataSource routing = routingDataSource(10, Duration.ofMillis(200));
+		PlatformTransactionManager routingTransactionManager = new DataSourceTransactionManager(routing);
+		login("writer@mail.com");
+		probe(routingTransactionManager, routing, false);
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, probe(routingTransactionManager, routing, true));
+
+		Thread.sleep(300);
+		assertEquals(REPLICA, probe(routingTransactionManager, routing, true));
+	}
+
+	@Test
+	void maxWriters() {
+		DataSource routing = routingDataSource(2, Duration.ofMinutes(1));
+		PlatformTransactionManager routingTransactionManager = new DataSourceTransactionManager(routing);
+		for (String writer : List.of("writer1@mail.com", "writer2@mail.com", "writer3@mail.com")) {
+			login(writer);
+			probe(routingTransactionManager, routing, false);
+		}
+
+		// Every window was still open when the third writer committed, they were dropped to make room
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, probe(routingTransactionManager, routing, true));
+		login("writer1@mail.com");
+		assertEquals(REPLICA, probe(routingTransactionManager, routing, true));
+	}
+}
@@ -0,0 +1,216 @@
+package net.developerpass.polimi.configuration.mail;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import lombok.extern.slf4j.Slf4j;
+import net.developerpass.polimi.entity.OutboxMail;
+import net.developerpass.polimi.repository.OutboxMailRepository;
+import net.developerpass.polimi.utils.object.OutboxStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase(replace = NONE)
+@SpringBootTest(properties = {
+		"spring.mail.host=localhost",
+		"spring.mail.port=3025",
+		"mail.outbox.enabled=true",
+		"mail.outbox.poll-delay-ms=3600000"
+})
+public class OutboxMailDispatcherTest {
+
+	@Autowired
+	private BulkMailSender bulkMailSender;
+	@Autowired
+	private CustomMailSender customMailSender;
+	@Autowired
+	private OutboxMailDispatcher outboxMailDispatcher;
+	@Autowired
+	private OutboxMailRepository outboxMailRepository;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private GreenMail greenMail;
+
+	@BeforeEach
+	public void beforeEach() {
+		outboxMailRepository.deleteAll();
+		greenMail = new GreenMail(ServerSetupTest.SMTP);
+	}
+
+	@AfterEach
+	public void afterEach() {
+		greenMail.stop();
+	}
+
+	@Test
+	void dispatch() {
+		greenMail.start();
+		customMailSender.sendResetStudent("student@mail.com", Map.of("password", "TestPassword123"));
+		customMailSender.sendResetProfessor("professor@mail.com", Map.of("password", "TestPassword123"));
+		assertEquals(0, greenMail.getReceivedMessages().length);
+
+		assertEquals(2, outboxMailDispatcher.dispatch());
+
+		assertEquals(2, greenMail.getReceivedMessages().length);
+		List<OutboxMail> mails = outboxMailRepository.findAll();
+		assertTrue(mails.stream().allMatch(mail -> mail.getStatus() == OutboxStatus.Sent));
+		assertTrue(mails.stream().allMatch(mail -> mail.getDocument() == null));
+		assertEquals(0, outboxMailDispatcher.dispatch());
+	}
+
+	@Test
+	void dispatchRetry() {
+		customMailSender.sendResetStudent("student@mail.com", Map.of("password", "TestPassword123"));
+
+		assertEquals(1, outboxMailDispatcher.dispatch());
+
+		OutboxMail mail = outboxMailRepository.findAll().get(0);
+		assertEquals(OutboxStatus.Pending, mail.getStatus());
+		assertEquals(1, mail.getAttempts());
+		assertTrue(mail.getNextAttemptOn().isAfter(LocalDateTime.now()));
+		assertEquals(0, outboxMailDispatcher.dispatch());
+
+		greenMail.start();
+		mail.setNextAttemptOn(LocalDateTime.now());
+		outboxMailRepository.save(mail);
+
+		assertEquals(1, outboxMailDispatcher.dispatch());
+		assertEquals(1, greenMail.getReceivedMessages().length);
+		mail = outboxMailRepository.findAll().get(0);
+		assertEquals(OutboxStatus.Sent, mail.getStatus());
+		assertNull(mail.getLastError());
+	}
+
+	@Test
+	void dispatchBulk() {
+		greenMail.start();
+		List<String> recipients = IntStream.range(0, 300)
+				.mapToObj(i -> "student" + i + "@mail.com")
+				.collect(Collectors.toList());
+		assertTrue(customMailSender.sendDiscussionCancelled(recipients, Map.of("name", "Discussion", "date", "01/01/2030 10:00")));
+
+		assertEquals(300, outboxMailDispatcher.dispatch());
+
+		assertEquals(300, greenMail.getReceivedMessages().length);
+		assertTrue(outboxMailRepository.findAll().stream().allMatch(mail -> mail.getStatus() == OutboxStatus.Sent));
+	}
+
+	/**
+	 * A second dispatcher with a smaller batch, as on another node sharing the outbox
+	 */
+	private OutboxMailDispatcher otherDispatcher() {
+		return new OutboxMailDispatcher(bulkMailSender, customMailSender, outboxMailRepository, transactionTemplate,
+				50, 8, 10, 3600, 600);
+	}
+
+	private List<String> receivedRecipients() throws MessagingException {
+		List<String> recipients = new ArrayList<>();
+		for (MimeMessage message : greenMail.getReceivedMessages()) {
+			Arrays.stream(message.getRecipients(Message.RecipientType.TO)).forEach(address -> recipients.add(address.toString()));
+		}
+		return recipients;
+	}
+
+	@Test
+	void dispatchConcurrent() throws Exception {
+		greenMail.start();
+		List<String> recipients = IntStream.range(0, 300)
+				.mapToObj(i -> "student" + i + "@mail.com")
+				.collect(Collectors.toList());
+		assertTrue(customMailSender.sendDiscussionCancelled(recipients, Map.of("name", "Discussion", "date", "01/01/2030 10:00")));
+
+		List<OutboxMailDispatcher> dispatchers = List.of(otherDispatcher(), otherDispatcher());
+		ExecutorService executor = Executors.newFixedThreadPool(dispatchers.size());
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> futures = new ArrayList<>();
+		try {
+			for (OutboxMailDispatcher dispatcher : dispatchers) {
+				Callable<Integer> worker = () -> {
+					start.await();
+					int total = 0;
+					int processed;
+					do {
+						processed = dispatcher.dispatch();
+						total += processed;
+					} while (processed > 0);
+					return total;
+				};
+				futures.add(executor.submit(worker));
+			}
+			start.countDown();
+			int total = 0;
+			for (Future<Integer> future : futures) {
+				total += future.get();
+			}
+			assertEquals(300, total);
+		} finally {
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+		}
+
+		List<String> received = receivedRecipients();
+		assertEquals(300, received.size());
+		assertEquals(300, received.stream().distinct().count());
+		List<OutboxMail> mails = outboxMailRepository.findAll();
+		assertTrue(mails.stream().allMatch(mail -> mail.getStatus() == OutboxStatus.Sent && mail.getAttempts() == 1));
+		assertTrue(mails.stream().allMatch(mail -> mail.getLockedBy() == null && mail.getLockedUntil() == null));
+	}
+
+	@Test
+	void dispatchExpiredClaim() throws MessagingException {
+		greenMail.start();
+		customMailSender.sendResetStudent("student@mail.com", Map.of("password", "TestPassword123"));
+		OutboxMail mail = outboxMailRepository.findAll().get(0);
+		mail.setStatus(OutboxStatus.Sending);
+		mail.setLockedBy("other-dispatcher");
+		mail.setLockedUntil(LocalDateTime.now().plusMinutes(10));
+		outboxMailRepository.save(mail);
+
+		// Claimed by a dispatcher still sending it
+		assertEquals(0, outboxMailDispatcher.dispatch());
+		assertEquals(0, greenMail.getReceivedMessages().length);
+
+		// The dispatcher stopped before sending it, its claim expired
+		mail = outboxMailRepository.findAll().get(0);
+		mail.setLockedUntil(LocalDateTime.now().minusSeconds(1));
+		outboxMailRepository.save(mail);
+
+		assertEquals(1, outboxMailDispatcher.dispatch());
+		assertEquals(List.of("student@mail.com"), receivedRecipients());
+		mail = outboxMailRepository.findAll().get(0);
+		assertEquals(OutboxStatus.Sent, mail.getStatus());
+		assertNull(mail.getLockedBy());
+	}
+}
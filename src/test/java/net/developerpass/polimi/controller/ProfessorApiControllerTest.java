@@ -8,10 +8,17 @@ import net.developerpass.polimi.entity.Group;
 import net.developerpass.polimi.entity.Professor;
 import net.developerpass.polimi.entity.Reservation;
 import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.entity.projection.DiscussionSummary;
+import net.developerpass.polimi.entity.projection.FileSummary;
+import net.developerpass.polimi.entity.projection.GroupSummary;
+import net.developerpass.polimi.entity.projection.ProfessorSummary;
+import net.developerpass.polimi.entity.projection.ReservationSummary;
+import net.developerpass.polimi.entity.projection.StudentSummary;
 import net.developerpass.polimi.repository.AccountRepository;
 import net.developerpass.polimi.repository.ProfessorRepository;
 import net.developerpass.polimi.service.ProfessorService;
 import net.developerpass.polimi.service.PublicService;
+import net.developerpass.polimi.utils.object.CursorPage;
 import net.developerpass.polimi.utils.object.RestResponsePage;
 import net.developerpass.polimi.utils.object.Role;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -37,10 +44,12 @@ import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
@@ -107,14 +116,36 @@ public class ProfessorApiControllerTest {
 		assertEquals(professor, response200.getBody());
 	}
 
+	@Test
+	public void getStatistics() {
+		ResponseEntity<Object> response403 =
+				restTemplate.exchange(
+						"/api/professor/statistics", HttpMethod.GET, null, Object.class);
+
+		assertEquals(HttpStatus.FORBIDDEN, response403.getStatusCode());
+
+		ParameterizedTypeReference<Map<String, Object>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<Map<String, Object>> response =
+				restTemplate.exchange(
+						"/api/professor/statistics", HttpMethod.GET, new HttpEntity<>(null, headers), type);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertNotNull(response.getBody());
+		assertTrue(response.getBody().keySet().containsAll(List.of("secondLevelCache", "claimsCache", "tokenVersions", "rateLimit")));
+		// The token of this request was verified at least once
+		Map<?, ?> claimsCache = (Map<?, ?>) response.getBody().get("claimsCache");
+		assertTrue(((Number) claimsCache.get("missCount")).longValue() > 0);
+		assertTrue(((Map<?, ?>) response.getBody().get("rateLimit")).containsKey("login"));
+	}
+
 	@Test
 	public void getProfessors() {
-		Professor professor = new Professor(1L, 1L, "Professor name", "Professor surname", null);
-		Page<Professor> professorPage = new PageImpl<>(List.of(professor), PageRequest.of(0, 10), 1);
+		ProfessorSummary professor = new ProfessorSummary(1L, "Professor name", "Professor surname", LocalDateTime.now().withNano(0));
+		Page<ProfessorSummary> professorPage = new PageImpl<>(List.of(professor), PageRequest.of(0, 10), 1);
 		given(professorService.getProfessors(any(), any())).willReturn(professorPage);
 
-		ParameterizedTypeReference<RestResponsePage<Professor>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<Professor>> response =
+		ParameterizedTypeReference<RestResponsePage<ProfessorSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<ProfessorSummary>> response =
 				restTemplate.exchange(
 						"/api/professor/professor/list", HttpMethod.GET, new HttpEntity<>(null, headers), type);
 
@@ -140,12 +171,12 @@ public class ProfessorApiControllerTest {
 
 	@Test
 	public void getGroups() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
-		Page<Group> groupPage = new PageImpl<>(List.of(group), PageRequest.of(0, 10), 1);
+		GroupSummary group = new GroupSummary(1L, 1L, 1L, "Test Group", LocalDateTime.now().withNano(0));
+		Page<GroupSummary> groupPage = new PageImpl<>(List.of(group), PageRequest.of(0, 10), 1);
 		given(professorService.getGroups(any(), any())).willReturn(groupPage);
 
-		ParameterizedTypeReference<RestResponsePage<Group>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<Group>> response =
+		ParameterizedTypeReference<RestResponsePage<GroupSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<GroupSummary>> response =
 				restTemplate.exchange(
 						"/api/professor/group/list", HttpMethod.GET, new HttpEntity<>(null, headers), type);
 
@@ -154,9 +185,25 @@ public class ProfessorApiControllerTest {
 		assertEquals(groupPage, response.getBody().getPage());
 	}
 
+	@Test
+	public void getGroupsByCursor() {
+		GroupSummary group = new GroupSummary(1L, 1L, 1L, "Test Group", LocalDateTime.now().withNano(0));
+		CursorPage<GroupSummary> groupPage = new CursorPage<>(List.of(group), 1, "cursor");
+		given(professorService.getGroupsByCursor(any(), any())).willReturn(groupPage);
+
+		ParameterizedTypeReference<CursorPage<GroupSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<CursorPage<GroupSummary>> response =
+				restTemplate.exchange(
+						"/api/professor/group/list/cursor", HttpMethod.GET, new HttpEntity<>(null, headers), type);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertNotNull(response.getBody());
+		assertEquals(groupPage, response.getBody());
+	}
+
 	@Test
 	public void getGroup() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
 		given(professorService.getGroup(any())).willReturn(group);
 
 		ResponseEntity<Group> response =
@@ -171,12 +218,12 @@ public class ProfessorApiControllerTest {
 
 	@Test
 	public void getStudents() {
-		Student student = new Student(1L, 1L, "Student name", "Student surname", null);
-		Page<Student> studentPage = new PageImpl<>(List.of(student), PageRequest.of(0, 10), 1);
+		StudentSummary student = new StudentSummary(1L, "Student name", "Student surname", LocalDateTime.now().withNano(0));
+		Page<StudentSummary> studentPage = new PageImpl<>(List.of(student), PageRequest.of(0, 10), 1);
 		given(professorService.getStudents(any(), any())).willReturn(studentPage);
 
-		ParameterizedTypeReference<RestResponsePage<Student>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<Student>> response =
+		ParameterizedTypeReference<RestResponsePage<StudentSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<StudentSummary>> response =
 				restTemplate.exchange(
 						"/api/professor/student/list", HttpMethod.GET, new HttpEntity<>(null, headers), type);
 
@@ -202,13 +249,13 @@ public class ProfessorApiControllerTest {
 
 	@Test
 	public void getFiles() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
-		File file = new File(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), false, null);
-		Page<File> filePage = new PageImpl<>(List.of(file), PageRequest.of(0, 10), 1);
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
+		FileSummary file = new FileSummary(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), LocalDateTime.now().withNano(0));
+		Page<FileSummary> filePage = new PageImpl<>(List.of(file), PageRequest.of(0, 10), 1);
 		given(professorService.getFiles(any(), any(), any())).willReturn(filePage);
 
-		ParameterizedTypeReference<RestResponsePage<File>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<File>> response =
+		ParameterizedTypeReference<RestResponsePage<FileSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<FileSummary>> response =
 				restTemplate.exchange(
 						"/api/professor/file/list/{groupId}", HttpMethod.GET, new HttpEntity<>(null, headers),
 						type, group.getId());
@@ -220,7 +267,7 @@ public class ProfessorApiControllerTest {
 
 	@Test
 	public void getFile() {
-		File file = new File(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), false, null);
+		File file = new File(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), false, null, null);
 		given(professorService.getFile(any())).willReturn(file);
 
 		ResponseEntity<File> response =
@@ -235,12 +282,12 @@ public class ProfessorApiControllerTest {
 
 	@Test
 	public void getDiscussions() {
-		Discussion discussion = new Discussion(1L, 1L, "Exam 03/10", LocalDateTime.now().withNano(0), false, null);
-		Page<Discussion> discussionPage = new PageImpl<>(List.of(discussion), PageRequest.of(0, 10), 1);
+		DiscussionSummary discussion = new DiscussionSummary(1L, 1L, "Exam 03/10", LocalDateTime.now().withNano(0), LocalDateTime.now().withNano(0));
+		Page<DiscussionSummary> discussionPage = new PageImpl<>(List.of(discussion), PageRequest.of(0, 10), 1);
 		given(professorService.getDiscussions(any(), any())).willReturn(discussionPage);
 
-		ParameterizedTypeReference<RestResponsePage<Discussion>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<Discussion>> response =
+		ParameterizedTypeReference<RestResponsePage<DiscussionSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<DiscussionSummary>> response =
 				restTemplate.exchange(
 						"/api/professor/discussion/list", HttpMethod.GET, new HttpEntity<>(null, headers), type);
 
@@ -308,12 +355,12 @@ public class ProfessorApiControllerTest {
 
 	@Test
 	public void getReservations() {
-		Reservation reservation = new Reservation(1L, 1L, 1L, false, null, null);
-		Page<Reservation> reservationPage = new PageImpl<>(List.of(reservation), PageRequest.of(0, 10), 1);
+		ReservationSummary reservation = new ReservationSummary(1L, 1L, 1L, "Exam 03/10", LocalDateTime.now().withNano(0), LocalDateTime.now().withNano(0));
+		Page<ReservationSummary> reservationPage = new PageImpl<>(List.of(reservation), PageRequest.of(0, 10), 1);
 		given(professorService.getReservations(any(), any())).willReturn(reservationPage);
 
-		ParameterizedTypeReference<RestResponsePage<Reservation>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<Reservation>> response =
+		ParameterizedTypeReference<RestResponsePage<ReservationSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<ReservationSummary>> response =
 				restTemplate.exchange(
 						"/api/professor/reservation/list", HttpMethod.GET, new HttpEntity<>(null, headers), type);
 
@@ -324,7 +371,7 @@ public class ProfessorApiControllerTest {
 
 	@Test
 	public void getReservation() {
-		Reservation reservation = new Reservation(1L, 1L, 1L, false, null, null);
+		Reservation reservation = new Reservation(1L, 1L, 1L, false, true, 0L, null, null);
 		given(professorService.getReservation(any())).willReturn(reservation);
 
 		ResponseEntity<Reservation> response =
@@ -339,7 +386,7 @@ public class ProfessorApiControllerTest {
 
 	@Test
 	public void deleteReservation() {
-		Reservation reservation = new Reservation(1L, 1L, 1L, false, null, null);
+		Reservation reservation = new Reservation(1L, 1L, 1L, false, true, 0L, null, null);
 
 		ResponseEntity<String> response =
 				restTemplate.exchange(
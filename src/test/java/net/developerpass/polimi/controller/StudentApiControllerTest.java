@@ -8,11 +8,18 @@ import net.developerpass.polimi.entity.Group;
 import net.developerpass.polimi.entity.Professor;
 import net.developerpass.polimi.entity.Reservation;
 import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.entity.projection.DiscussionSummary;
+import net.developerpass.polimi.entity.projection.FileSummary;
+import net.developerpass.polimi.entity.projection.GroupSummary;
+import net.developerpass.polimi.entity.projection.ProfessorSummary;
+import net.developerpass.polimi.entity.projection.ReservationSummary;
+import net.developerpass.polimi.entity.projection.StudentSummary;
 import net.developerpass.polimi.repository.AccountRepository;
 import net.developerpass.polimi.repository.StudentRepository;
 import net.developerpass.polimi.service.PublicService;
 import net.developerpass.polimi.service.StudentService;
 import net.developerpass.polimi.utils.object.RestResponsePage;
+import net.developerpass.polimi.utils.object.RestResponseSlice;
 import net.developerpass.polimi.utils.object.Role;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,6 +35,8 @@ import org.springframework.core.io.FileSystemResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -112,12 +121,12 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void getStudents() {
-		Student student = new Student(1L, 1L, "Student name", "Student surname", null);
-		Page<Student> studentPage = new PageImpl<>(List.of(student), PageRequest.of(0, 10), 1);
+		StudentSummary student = new StudentSummary(1L, "Student name", "Student surname", LocalDateTime.now().withNano(0));
+		Page<StudentSummary> studentPage = new PageImpl<>(List.of(student), PageRequest.of(0, 10), 1);
 		given(studentService.getStudents(any(), any())).willReturn(studentPage);
 
-		ParameterizedTypeReference<RestResponsePage<Student>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<Student>> response =
+		ParameterizedTypeReference<RestResponsePage<StudentSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<StudentSummary>> response =
 				restTemplate.exchange(
 						"/api/student/list", HttpMethod.GET, new HttpEntity<>(null, headers), type);
 
@@ -143,12 +152,12 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void getGroups() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
-		Page<Group> groupPage = new PageImpl<>(List.of(group), PageRequest.of(0, 10), 1);
+		GroupSummary group = new GroupSummary(1L, 1L, 1L, "Test Group", LocalDateTime.now().withNano(0));
+		Page<GroupSummary> groupPage = new PageImpl<>(List.of(group), PageRequest.of(0, 10), 1);
 		given(studentService.getGroups(any(), any())).willReturn(groupPage);
 
-		ParameterizedTypeReference<RestResponsePage<Group>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<Group>> response =
+		ParameterizedTypeReference<RestResponsePage<GroupSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<GroupSummary>> response =
 				restTemplate.exchange(
 						"/api/student/group/list", HttpMethod.GET, new HttpEntity<>(null, headers), type);
 
@@ -157,9 +166,25 @@ public class StudentApiControllerTest {
 		assertEquals(groupPage, response.getBody().getPage());
 	}
 
+	@Test
+	public void getGroupsSlice() {
+		GroupSummary group = new GroupSummary(1L, 1L, 1L, "Test Group", LocalDateTime.now().withNano(0));
+		Slice<GroupSummary> groupSlice = new SliceImpl<>(List.of(group), PageRequest.of(0, 1), true);
+		given(studentService.getGroupsSlice(any(), any())).willReturn(groupSlice);
+
+		ParameterizedTypeReference<RestResponseSlice<GroupSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponseSlice<GroupSummary>> response =
+				restTemplate.exchange(
+						"/api/student/group/list/slice", HttpMethod.GET, new HttpEntity<>(null, headers), type);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertNotNull(response.getBody());
+		assertEquals(groupSlice, response.getBody().getSlice());
+	}
+
 	@Test
 	public void getGroup() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
 		given(studentService.getGroup(any())).willReturn(group);
 
 		ResponseEntity<Group> response =
@@ -174,7 +199,7 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void createGroup() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
 		given(studentService.createGroup(any(), any())).willReturn(group);
 
 		ResponseEntity<Group> response =
@@ -189,7 +214,7 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void updateGroup() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
 		given(studentService.updateGroup(any(), any())).willReturn(group);
 
 		ResponseEntity<Group> response =
@@ -204,7 +229,7 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void deleteGroup() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
 		ResponseEntity<String> response =
 				restTemplate.exchange(
 						"/api/student/group/id/{groupId}", HttpMethod.DELETE, new HttpEntity<>(null, headers),
@@ -215,7 +240,7 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void joinGroup() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
 		given(studentService.joinGroup(any())).willReturn(group);
 
 		ResponseEntity<Group> response =
@@ -230,7 +255,7 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void leaveGroup() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
 		ResponseEntity<String> response =
 				restTemplate.exchange(
 						"/api/student/group/id/{groupId}/leave", HttpMethod.PUT, new HttpEntity<>(null, headers),
@@ -242,7 +267,7 @@ public class StudentApiControllerTest {
 	@Test
 	public void removeStudentFromGroup() {
 		Student student = new Student(1L, 1L, "Student name", "Student surname", null);
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
 		ResponseEntity<String> response =
 				restTemplate.exchange(
 						"/api/student/group/id/{groupId}/remove/{studentId}", HttpMethod.PUT, new HttpEntity<>(null, headers),
@@ -253,13 +278,13 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void getFiles() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
-		File file = new File(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), false, null);
-		Page<File> filePage = new PageImpl<>(List.of(file), PageRequest.of(0, 10), 1);
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
+		FileSummary file = new FileSummary(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), LocalDateTime.now().withNano(0));
+		Page<FileSummary> filePage = new PageImpl<>(List.of(file), PageRequest.of(0, 10), 1);
 		given(studentService.getFiles(any(), any(), any())).willReturn(filePage);
 
-		ParameterizedTypeReference<RestResponsePage<File>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<File>> response =
+		ParameterizedTypeReference<RestResponsePage<FileSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<FileSummary>> response =
 				restTemplate.exchange(
 						"/api/student/file/list/{groupId}", HttpMethod.GET, new HttpEntity<>(null, headers),
 						type, group.getId());
@@ -271,7 +296,7 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void getFile() {
-		File file = new File(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), false, null);
+		File file = new File(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), false, null, null);
 		given(studentService.getFile(any())).willReturn(file);
 
 		ResponseEntity<File> response =
@@ -286,8 +311,8 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void putFile() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
-		File file = new File(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), false, null);
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
+		File file = new File(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), false, null, null);
 		given(studentService.putFile(any(), any())).willReturn(file);
 
 		String path = "db_img.png";
@@ -307,7 +332,7 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void deleteFile() {
-		File file = new File(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), false, null);
+		File file = new File(1L, 1L, "Exam 03/10", UUID.randomUUID().toString(), false, null, null);
 		ResponseEntity<String> response =
 				restTemplate.exchange(
 						"/api/student/file/id/{fileId}", HttpMethod.DELETE, new HttpEntity<>(null, headers),
@@ -318,12 +343,12 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void getProfessors() {
-		Professor professor = new Professor(1L, 1L, "Professor name", "Professor surname", null);
-		Page<Professor> professorPage = new PageImpl<>(List.of(professor), PageRequest.of(0, 10), 1);
+		ProfessorSummary professor = new ProfessorSummary(1L, "Professor name", "Professor surname", LocalDateTime.now().withNano(0));
+		Page<ProfessorSummary> professorPage = new PageImpl<>(List.of(professor), PageRequest.of(0, 10), 1);
 		given(studentService.getProfessors(any(), any())).willReturn(professorPage);
 
-		ParameterizedTypeReference<RestResponsePage<Professor>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<Professor>> response =
+		ParameterizedTypeReference<RestResponsePage<ProfessorSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<ProfessorSummary>> response =
 				restTemplate.exchange(
 						"/api/student/professor/list", HttpMethod.GET, new HttpEntity<>(null, headers), type);
 
@@ -350,12 +375,12 @@ public class StudentApiControllerTest {
 	@Test
 	public void getDiscussions() {
 		Professor professor = new Professor(1L, 1L, "Professor name", "Professor surname", null);
-		Discussion discussion = new Discussion(1L, 1L, "Exam 03/10", LocalDateTime.now().withNano(0), false, null);
-		Page<Discussion> discussionPage = new PageImpl<>(List.of(discussion), PageRequest.of(0, 10), 1);
+		DiscussionSummary discussion = new DiscussionSummary(1L, 1L, "Exam 03/10", LocalDateTime.now().withNano(0), LocalDateTime.now().withNano(0));
+		Page<DiscussionSummary> discussionPage = new PageImpl<>(List.of(discussion), PageRequest.of(0, 10), 1);
 		given(studentService.getDiscussions(any(), any(), any())).willReturn(discussionPage);
 
-		ParameterizedTypeReference<RestResponsePage<Discussion>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<Discussion>> response =
+		ParameterizedTypeReference<RestResponsePage<DiscussionSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<DiscussionSummary>> response =
 				restTemplate.exchange(
 						"/api/student/professor/id/{professorId}/discussions", HttpMethod.GET, new HttpEntity<>(null, headers),
 						type, professor.getId());
@@ -382,13 +407,13 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void getReservations() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
-		Reservation reservation = new Reservation(1L, 1L, 1L, false, null, null);
-		Page<Reservation> reservationPage = new PageImpl<>(List.of(reservation), PageRequest.of(0, 10), 1);
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
+		ReservationSummary reservation = new ReservationSummary(1L, 1L, 1L, "Exam 03/10", LocalDateTime.now().withNano(0), LocalDateTime.now().withNano(0));
+		Page<ReservationSummary> reservationPage = new PageImpl<>(List.of(reservation), PageRequest.of(0, 10), 1);
 		given(studentService.getReservations(any(), any(), any())).willReturn(reservationPage);
 
-		ParameterizedTypeReference<RestResponsePage<Reservation>> type = new ParameterizedTypeReference<>() {};
-		ResponseEntity<RestResponsePage<Reservation>> response =
+		ParameterizedTypeReference<RestResponsePage<ReservationSummary>> type = new ParameterizedTypeReference<>() {};
+		ResponseEntity<RestResponsePage<ReservationSummary>> response =
 				restTemplate.exchange(
 						"/api/student/group/id/{groupId}/reservations", HttpMethod.GET, new HttpEntity<>(null, headers),
 						type, group.getId());
@@ -400,7 +425,7 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void getReservation() {
-		Reservation reservation = new Reservation(1L, 1L, 1L, false, null, null);
+		Reservation reservation = new Reservation(1L, 1L, 1L, false, true, 0L, null, null);
 		given(studentService.getReservation(any())).willReturn(reservation);
 
 		ResponseEntity<Reservation> response =
@@ -415,8 +440,8 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void createReservation() {
-		Group group = new Group(1L, 1L, 1L, "Test Group", false, null, null, List.of());
-		Reservation reservation = new Reservation(1L, 1L, 1L, false, null, null);
+		Group group = new Group(1L, 1L, 1L, "Test Group", false, 0L, 0, null, null, List.of());
+		Reservation reservation = new Reservation(1L, 1L, 1L, false, true, 0L, null, null);
 		Discussion discussion = new Discussion(1L, 1L, "Exam 03/10", LocalDateTime.now().withNano(0), false, null);
 		given(studentService.createReservation(any(), any())).willReturn(reservation);
 
@@ -432,7 +457,7 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void updateReservation() {
-		Reservation reservation = new Reservation(1L, 1L, 1L, false, null, null);
+		Reservation reservation = new Reservation(1L, 1L, 1L, false, true, 0L, null, null);
 		Discussion discussion = new Discussion(1L, 1L, "Exam 03/10", LocalDateTime.now().withNano(0), false, null);
 		given(studentService.updateReservation(any(), any())).willReturn(reservation);
 
@@ -448,7 +473,7 @@ public class StudentApiControllerTest {
 
 	@Test
 	public void deleteReservation() {
-		Reservation reservation = new Reservation(1L, 1L, 1L, false, null, null);
+		Reservation reservation = new Reservation(1L, 1L, 1L, false, true, 0L, null, null);
 
 		ResponseEntity<String> response =
 				restTemplate.exchange(
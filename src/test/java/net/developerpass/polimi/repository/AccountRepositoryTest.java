@@ -0,0 +1,96 @@
+package net.developerpass.polimi.repository;
+
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.FellowStudent;
+import net.developerpass.polimi.entity.Group;
+import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.utils.object.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.transaction.Transactional;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+@Transactional
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase(replace = NONE)
+@SpringBootTest
+public class AccountRepositoryTest {
+
+	@Autowired
+	private GroupRepository groupRepository;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private StudentRepository studentRepository;
+	@Autowired
+	private ProfessorRepository professorRepository;
+	@Autowired
+	private FellowStudentRepository fellowStudentRepository;
+
+	private final String defaultPasswordSha3 = "363999f7918bb84260f481cceaed396fb046e8dc25750c5c3ae0e8088ae17b22";
+	private Professor professor;
+
+	@BeforeEach
+	public void beforeEach() {
+		fellowStudentRepository.deleteAll();
+		groupRepository.deleteAll();
+		studentRepository.deleteAll();
+		professorRepository.deleteAll();
+		accountRepository.deleteAll();
+		Account account = accountRepository.save(new Account("professor@mail.com", defaultPasswordSha3, Role.Professor));
+		professor = professorRepository.save(new Professor(account.getId(), "Professor name", "Professor surname"));
+	}
+
+	private Student createStudent(String username) {
+		Account account = accountRepository.save(new Account(username, defaultPasswordSha3, Role.Student));
+		return studentRepository.save(new Student(account.getId(), "Student name", "Student surname"));
+	}
+
+	private void addFellowStudent(Group group, Student student, boolean deleted) {
+		FellowStudent fellowStudent = new FellowStudent(student.getId(), group.getId());
+		fellowStudent.setDeleted(deleted);
+		fellowStudentRepository.save(fellowStudent);
+	}
+
+	@Test
+	void findAllMemberUsernamesByGroupIds() {
+		Student admin = createStudent("admin@mail.com");
+		Group group = groupRepository.save(new Group(professor.getId(), admin.getId(), "Group"));
+		addFellowStudent(group, createStudent("fellow1@mail.com"), false);
+		addFellowStudent(group, createStudent("fellow2@mail.com"), false);
+		addFellowStudent(group, createStudent("left@mail.com"), true);
+
+		Student otherAdmin = createStudent("other-admin@mail.com");
+		Group other = groupRepository.save(new Group(professor.getId(), otherAdmin.getId(), "Other group"));
+		addFellowStudent(other, createStudent("other-fellow@mail.com"), false);
+		// Also a member of the other group, notified once
+		addFellowStudent(other, admin, false);
+
+		Group deleted = new Group(professor.getId(), createStudent("deleted-admin@mail.com").getId(), "Deleted group");
+		deleted.setDeleted(true);
+		groupRepository.save(deleted);
+		addFellowStudent(deleted, createStudent("deleted-fellow@mail.com"), false);
+
+		assertEquals(Set.of("admin@mail.com", "fellow1@mail.com", "fellow2@mail.com"),
+				Set.copyOf(accountRepository.findAllMemberUsernamesByGroupIds(List.of(group.getId()))));
+
+		List<String> usernames = accountRepository.findAllMemberUsernamesByGroupIds(List.of(group.getId(), other.getId(), deleted.getId()));
+		assertEquals(5, usernames.size());
+		assertEquals(Set.of("admin@mail.com", "fellow1@mail.com", "fellow2@mail.com", "other-admin@mail.com", "other-fellow@mail.com"),
+				Set.copyOf(usernames));
+
+		assertTrue(accountRepository.findAllMemberUsernamesByGroupIds(List.of(deleted.getId())).isEmpty());
+	}
+}
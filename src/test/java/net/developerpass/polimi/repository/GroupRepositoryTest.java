@@ -0,0 +1,194 @@
+package net.developerpass.polimi.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.FellowStudent;
+import net.developerpass.polimi.entity.Group;
+import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.utils.object.Role;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.transaction.Transactional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+@Slf4j
+@Transactional
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase(replace = NONE)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class GroupRepositoryTest {
+	private static final int MAX_QUERIES = 5;
+
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private GroupRepository groupRepository;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private StudentRepository studentRepository;
+	@Autowired
+	private ProfessorRepository professorRepository;
+	@Autowired
+	private FellowStudentRepository fellowStudentRepository;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final String defaultPasswordSha3 = "363999f7918bb84260f481cceaed396fb046e8dc25750c5c3ae0e8088ae17b22";
+	private int accounts;
+
+	@BeforeEach
+	public void beforeEach() {
+		fellowStudentRepository.deleteAll();
+		groupRepository.deleteAll();
+		studentRepository.deleteAll();
+		professorRepository.deleteAll();
+		accountRepository.deleteAll();
+	}
+
+	private Student createStudent() {
+		Account account = accountRepository.save(new Account("student" + (++accounts) + "@mail.com", defaultPasswordSha3, Role.Student));
+		return studentRepository.save(new Student(account.getId(), "Student name", "Student surname"));
+	}
+
+	private Professor createGroups(int groupCount) {
+		Account account = accountRepository.save(new Account("professor" + (++accounts) + "@mail.com", defaultPasswordSha3, Role.Professor));
+		Professor professor = professorRepository.save(new Professor(account.getId(), "Professor name", "Professor surname"));
+		for (int i = 0; i < groupCount; i++) {
+			Group group = groupRepository.save(new Group(professor.getId(), createStudent().getId(), "Group " + i));
+			fellowStudentRepository.save(new FellowStudent(createStudent().getId(), group.getId()));
+			fellowStudentRepository.save(new FellowStudent(createStudent().getId(), group.getId()));
+		}
+		entityManager.flush();
+		entityManager.clear();
+		return professor;
+	}
+
+	/**
+	 * Statements prepared to load the page and every member reachable from it
+	 */
+	private long countQueries(Supplier<Page<Group>> query) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		Page<Group> page = query.get();
+		page.forEach(group -> {
+			group.getProfessor().getAccount().getUsername();
+			group.getAdmin().getAccount().getUsername();
+			group.getFellowStudent().forEach(fellowStudent -> fellowStudent.getStudent().getAccount().getUsername());
+		});
+
+		long queries = statistics.getPrepareStatementCount();
+		log.info(String.format("%d groups loaded with %d queries", page.getNumberOfElements(), queries));
+		return queries;
+	}
+
+	@Test
+	void findAllByProfessorIdAndDeletedFalse() {
+		// One more group than the page size, so both pages also run the count query
+		Professor small = createGroups(6);
+		Professor large = createGroups(51);
+
+		long smallQueries = countQueries(() -> groupRepository.findAllByProfessorIdAndDeletedFalse(small.getId(), PageRequest.of(0, 5)));
+		entityManager.clear();
+		long largeQueries = countQueries(() -> groupRepository.findAllByProfessorIdAndDeletedFalse(large.getId(), PageRequest.of(0, 50)));
+
+		assertTrue(largeQueries <= MAX_QUERIES);
+		assertEquals(smallQueries, largeQueries);
+	}
+
+	@Test
+	void findAllByStudentIdAndDeletedFalse() {
+		Professor professor = createGroups(51);
+		Long adminId = groupRepository.findAllByProfessorIdAndDeletedFalse(professor.getId(), PageRequest.of(0, 1))
+				.getContent().get(0).getAdminId();
+		entityManager.clear();
+
+		long queries = countQueries(() -> groupRepository.findAllByStudentIdAndDeletedFalse(adminId, PageRequest.of(0, 50)));
+
+		// Plus the admin and fellow student membership lookups
+		assertTrue(queries <= MAX_QUERIES + 2);
+	}
+
+	@Test
+	void findAllByStudentIdAndDeletedFalseMemberships() {
+		Account account = accountRepository.save(new Account("professor@mail.com", defaultPasswordSha3, Role.Professor));
+		Professor professor = professorRepository.save(new Professor(account.getId(), "Professor name", "Professor surname"));
+		Student student = createStudent();
+		Group adminGroup = groupRepository.save(new Group(professor.getId(), student.getId(), "Admin group"));
+		Group fellowGroup1 = groupRepository.save(new Group(professor.getId(), createStudent().getId(), "Fellow group 1"));
+		Group fellowGroup2 = groupRepository.save(new Group(professor.getId(), createStudent().getId(), "Fellow group 2"));
+		Group otherGroup = groupRepository.save(new Group(professor.getId(), createStudent().getId(), "Other group"));
+		fellowStudentRepository.save(new FellowStudent(student.getId(), fellowGroup1.getId()));
+		fellowStudentRepository.save(new FellowStudent(student.getId(), fellowGroup2.getId()));
+		fellowStudentRepository.save(new FellowStudent(createStudent().getId(), otherGroup.getId()));
+
+		Page<Group> groups = groupRepository.findAllByStudentIdAndDeletedFalse(student.getId(), PageRequest.of(0, 10));
+
+		assertEquals(3, groups.getTotalElements());
+		assertEquals(Set.of(adminGroup.getId(), fellowGroup1.getId(), fellowGroup2.getId()),
+				groups.stream().map(Group::getId).collect(Collectors.toSet()));
+		assertEquals(3, groupRepository.countAllByStudentIdAndProfessorIdAndDeletedFalse(student.getId(), professor.getId()).longValue());
+		assertEquals(0, groupRepository.findAllByStudentIdAndDeletedFalse(createStudent().getId(), PageRequest.of(0, 10)).getTotalElements());
+	}
+
+	@Test
+	void findWithDetailsById() {
+		Professor professor = createGroups(1);
+		Long groupId = groupRepository.findAllByProfessorIdAndDeletedFalse(professor.getId(), PageRequest.of(0, 1))
+				.getContent().get(0).getId();
+		entityManager.clear();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		Group group = groupRepository.findWithDetailsById(groupId).orElseThrow();
+		entityManager.clear();
+
+		// Everything in the fetch plan is readable once detached
+		assertEquals(professor.getAccountId(), group.getProfessor().getAccount().getId());
+		assertEquals(group.getAdminId(), group.getAdmin().getId());
+		assertEquals(2, group.getFellowStudent().size());
+		group.getFellowStudent().forEach(fellowStudent -> fellowStudent.getStudent().getAccount().getUsername());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void serializeUnloadedAssociations() {
+		Professor professor = createGroups(1);
+		Group group = groupRepository.findAllByProfessorIdAndDeletedFalse(professor.getId(), PageRequest.of(0, 1))
+				.getContent().get(0);
+		entityManager.clear();
+
+		Group lazy = groupRepository.findById(group.getId()).orElseThrow();
+		entityManager.clear();
+
+		JsonNode json = objectMapper.valueToTree(lazy);
+		assertEquals(group.getName(), json.get("name").asText());
+		assertFalse(json.hasNonNull("admin"));
+		assertFalse(json.hasNonNull("fellowStudent"));
+	}
+}
@@ -0,0 +1,147 @@
+package net.developerpass.polimi.repository;
+
+import net.developerpass.polimi.configuration.cache.SecondLevelCacheStatistics;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.service.jwt.TokenVersionRegistry;
+import net.developerpass.polimi.utils.object.Role;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+/**
+ * Not transactional: entries reach the second-level cache only once a transaction commits
+ */
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase(replace = NONE)
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+		"spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+		"spring.jpa.properties.hibernate.javax.cache.provider=org.ehcache.jsr107.EhcacheCachingProvider",
+		"spring.jpa.properties.hibernate.javax.cache.uri=ehcache.xml",
+		"spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class SecondLevelCacheTest {
+	private static final String USERNAME = "student@mail.com";
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private StudentRepository studentRepository;
+	@Autowired
+	private SecondLevelCacheStatistics secondLevelCacheStatistics;
+	@Autowired
+	private TokenVersionRegistry tokenVersionRegistry;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final String defaultPasswordSha3 = "363999f7918bb84260f481cceaed396fb046e8dc25750c5c3ae0e8088ae17b22";
+	private Account account;
+	private Student student;
+
+	@BeforeEach
+	public void beforeEach() {
+		deleteAll();
+		account = accountRepository.save(new Account(USERNAME, defaultPasswordSha3, Role.Student));
+		student = studentRepository.save(new Student(account.getId(), "Student name", "Student surname"));
+	}
+
+	@AfterEach
+	public void afterEach() {
+		deleteAll();
+	}
+
+	private void deleteAll() {
+		studentRepository.deleteAll();
+		accountRepository.deleteAll();
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+
+	@Test
+	void naturalIdLookups() {
+		accountRepository.findByRoleAndUsernameAndPassword(Role.Student, USERNAME, defaultPasswordSha3).orElseThrow();
+		studentRepository.findByAccountId(account.getId()).orElseThrow();
+
+		Statistics statistics = statistics();
+		Student cachedStudent = studentRepository.findByAccountId(account.getId()).orElseThrow();
+		assertEquals(student.getId(), cachedStudent.getId());
+		assertEquals(0, statistics.getPrepareStatementCount());
+
+		// The username is resolved from the cache, the account is read by primary key
+		Account freshAccount = accountRepository.findByRoleAndUsernameAndPassword(Role.Student, USERNAME, defaultPasswordSha3).orElseThrow();
+		assertEquals(account.getId(), freshAccount.getId());
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertTrue(secondLevelCacheStatistics.getStatistics("account-username").getHitCount() > 0);
+		assertTrue(secondLevelCacheStatistics.getStatistics("student-account").getHitCount() > 0);
+		assertTrue(secondLevelCacheStatistics.getStatistics("student").getHitCount() > 0);
+		assertFalse(accountRepository.findByRoleAndUsername(Role.Professor, USERNAME).isPresent());
+		assertFalse(accountRepository.findByRoleAndUsernameAndPassword(Role.Student, USERNAME, "wrong").isPresent());
+	}
+
+	@Test
+	void updateReplacesCachedEntity() {
+		studentRepository.findById(student.getId()).orElseThrow();
+
+		Student updated = studentRepository.findById(student.getId()).orElseThrow();
+		updated.setName("New name");
+		studentRepository.save(updated);
+		Account reset = accountRepository.findByUsername(USERNAME).orElseThrow();
+		reset.setPassword("new password");
+		accountRepository.save(reset);
+
+		Statistics statistics = statistics();
+		assertEquals("New name", studentRepository.findById(student.getId()).orElseThrow().getName());
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertTrue(accountRepository.findByRoleAndUsernameAndPassword(Role.Student, USERNAME, "new password").isPresent());
+		assertFalse(accountRepository.findByRoleAndUsernameAndPassword(Role.Student, USERNAME, defaultPasswordSha3).isPresent());
+	}
+
+	@Test
+	void accountChangedByAnotherNode() {
+		accountRepository.findByRoleAndUsernameAndPassword(Role.Student, USERNAME, defaultPasswordSha3).orElseThrow();
+		assertEquals(0, tokenVersionRegistry.current(account.getId()));
+
+		// Reset on another node: the row changes without going through this SessionFactory
+		jdbcTemplate.update("UPDATE account SET password = ?, token_version = token_version + 1 WHERE id = ?", "new password", account.getId());
+
+		assertFalse(accountRepository.findByRoleAndUsernameAndPassword(Role.Student, USERNAME, defaultPasswordSha3).isPresent());
+		assertTrue(accountRepository.findByRoleAndUsernameAndPassword(Role.Student, USERNAME, "new password").isPresent());
+		// A registry expiring its versions reloads the new one, the tokens of the old version are rejected
+		TokenVersionRegistry reloadingRegistry = new TokenVersionRegistry(accountRepository, 100, 0);
+		assertFalse(reloadingRegistry.isCurrent(account.getId(), 0));
+		assertTrue(reloadingRegistry.isCurrent(account.getId(), 1));
+	}
+
+	@Test
+	void deleteEvictsNaturalId() {
+		studentRepository.findByAccountId(account.getId()).orElseThrow();
+
+		studentRepository.deleteById(student.getId());
+
+		assertFalse(studentRepository.findByAccountId(account.getId()).isPresent());
+		assertFalse(studentRepository.findById(student.getId()).isPresent());
+	}
+}
@@ -0,0 +1,97 @@
+package net.developerpass.polimi.security;
+
+import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.repository.ProfessorRepository;
+import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.service.ProfessorService;
+import net.developerpass.polimi.service.StudentService;
+import net.developerpass.polimi.service.jwt.JWTService;
+import net.developerpass.polimi.service.jwt.TokenClaims;
+import net.developerpass.polimi.utils.object.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * The services read the current student or professor id from the token principal, without resolving the username
+ */
+@ExtendWith(MockitoExtension.class)
+public class AuthenticatedUserTest {
+	private static final long STUDENT_ID = 7L;
+	private static final long PROFESSOR_ID = 3L;
+
+	@Mock
+	private AccountRepository accountRepository;
+	@Mock
+	private StudentRepository studentRepository;
+	@Mock
+	private ProfessorRepository professorRepository;
+	@InjectMocks
+	private StudentService studentService;
+	@InjectMocks
+	private ProfessorService professorService;
+
+	@AfterEach
+	public void afterEach() {
+		SecurityContextHolder.clearContext();
+	}
+
+	private void authenticate(Role role, long userId) {
+		AuthenticatedUser user = new AuthenticatedUser(new TokenClaims(1L, role, "user@mail.com", userId, 0, null));
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user, "token", user.getAuthorities()));
+	}
+
+	@Test
+	void currentStudent() {
+		Student student = new Student(1L, "Student name", "Student surname");
+		given(studentRepository.findWithAccountById(STUDENT_ID)).willReturn(Optional.of(student));
+		authenticate(Role.Student, STUDENT_ID);
+
+		assertSame(student, studentService.getProfile());
+
+		verify(studentRepository).findWithAccountById(STUDENT_ID);
+		verifyNoMoreInteractions(studentRepository);
+		verifyNoInteractions(accountRepository, professorRepository);
+	}
+
+	@Test
+	void currentProfessor() {
+		Professor professor = new Professor(1L, "Professor name", "Professor surname");
+		given(professorRepository.findWithAccountById(PROFESSOR_ID)).willReturn(Optional.of(professor));
+		authenticate(Role.Professor, PROFESSOR_ID);
+
+		assertSame(professor, professorService.getProfile());
+
+		verify(professorRepository).findWithAccountById(PROFESSOR_ID);
+		verifyNoMoreInteractions(professorRepository);
+		verifyNoInteractions(accountRepository, studentRepository);
+	}
+
+	@Test
+	void wrongRole() {
+		authenticate(Role.Professor, PROFESSOR_ID);
+		assertThrows(JWTService.TokenVerificationException.class, () -> studentService.getProfile());
+
+		authenticate(Role.Student, STUDENT_ID);
+		assertThrows(JWTService.TokenVerificationException.class, () -> professorService.getProfile());
+
+		verifyNoInteractions(accountRepository, studentRepository, professorRepository);
+	}
+}
@@ -0,0 +1,53 @@
+package net.developerpass.polimi.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.io.IOException;
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class RestAuthenticationFailureHandlerTest {
+	private final ObjectMapper mapper = spy(new ObjectMapper().findAndRegisterModules());
+	private final Clock clock = mock(Clock.class);
+	private final RestAuthenticationFailureHandler handler = new RestAuthenticationFailureHandler(mapper, clock);
+
+	private MockHttpServletResponse reject() throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		handler.onAuthenticationFailure(new MockHttpServletRequest(), response, new BadCredentialsException("Malformed authentication token"));
+		return response;
+	}
+
+	@Test
+	void serializedOncePerSecond() throws IOException {
+		given(clock.millis()).willReturn(1_000L, 1_500L, 1_999L, 2_000L);
+
+		MockHttpServletResponse first = reject();
+		assertEquals(403, first.getStatus());
+		assertEquals("application/json", first.getContentType());
+		assertEquals(first.getContentAsByteArray().length, first.getContentLength());
+		assertTrue(first.getContentAsString().contains("\"status\":403"));
+		assertTrue(first.getContentAsString().contains("\"message\":\"NOT_LOGGED\""));
+
+		// Same second, the serialized body is reused
+		assertArrayEquals(first.getContentAsByteArray(), reject().getContentAsByteArray());
+		assertArrayEquals(first.getContentAsByteArray(), reject().getContentAsByteArray());
+		verify(mapper, times(1)).writeValueAsBytes(any());
+
+		// Next second, serialized again with a new timestamp
+		assertEquals(403, reject().getStatus());
+		verify(mapper, times(2)).writeValueAsBytes(any());
+	}
+}
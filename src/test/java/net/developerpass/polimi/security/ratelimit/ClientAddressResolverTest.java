@@ -0,0 +1,48 @@
+package net.developerpass.polimi.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ClientAddressResolverTest {
+
+	private MockHttpServletRequest request(String remoteAddr, String... forwardedFor) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr(remoteAddr);
+		for (String header : forwardedFor) {
+			request.addHeader("X-Forwarded-For", header);
+		}
+		return request;
+	}
+
+	@Test
+	void untrustedRemoteAddress() {
+		ClientAddressResolver resolver = new ClientAddressResolver(List.of());
+
+		assertEquals("203.0.113.7", resolver.resolve(request("203.0.113.7")));
+		// Without trusted proxies the header is never read
+		assertEquals("203.0.113.7", resolver.resolve(request("203.0.113.7", "198.51.100.1")));
+	}
+
+	@Test
+	void trustedProxy() {
+		ClientAddressResolver resolver = new ClientAddressResolver(List.of("10.0.0.0/8", " 192.168.1.10 "));
+
+		assertEquals("198.51.100.1", resolver.resolve(request("10.0.0.5", "198.51.100.1")));
+		// The address appended by the proxy wins over the ones written by the client
+		assertEquals("198.51.100.1", resolver.resolve(request("10.0.0.5", "203.0.113.9, 198.51.100.1")));
+		// Chained trusted proxies, in one or more headers
+		assertEquals("198.51.100.1", resolver.resolve(request("10.0.0.5", "198.51.100.1, 192.168.1.10")));
+		assertEquals("198.51.100.1", resolver.resolve(request("10.0.0.5", "203.0.113.9, 198.51.100.1", "10.1.2.3")));
+		// Requests not sent by a trusted proxy
+		assertEquals("203.0.113.7", resolver.resolve(request("203.0.113.7", "198.51.100.1")));
+		// Only trusted addresses, or no header at all
+		assertEquals("10.1.2.3", resolver.resolve(request("10.0.0.5", "10.1.2.3")));
+		assertEquals("10.0.0.5", resolver.resolve(request("10.0.0.5")));
+		// Not an IP literal, never resolved nor trusted
+		assertEquals("unknown", resolver.resolve(request("10.0.0.5", "unknown")));
+	}
+}
@@ -0,0 +1,71 @@
+package net.developerpass.polimi.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketRateLimiterTest {
+
+	@Test
+	void tryAcquire() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1, 4, 16);
+
+		assertEquals(0, limiter.tryAcquire("ip:127.0.0.1"));
+		assertEquals(0, limiter.tryAcquire("ip:127.0.0.1"));
+		assertEquals(0, limiter.tryAcquire("ip:127.0.0.1"));
+		assertTrue(limiter.tryAcquire("ip:127.0.0.1") > 0);
+		assertEquals(0, limiter.tryAcquire("ip:127.0.0.2"));
+
+		assertEquals(4, limiter.getStatistics().getAllowedCount());
+		assertEquals(1, limiter.getStatistics().getRejectedCount());
+	}
+
+	@Test
+	void release() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 4, 16);
+
+		assertEquals(0, limiter.tryAcquire("ip:127.0.0.1"));
+		limiter.release("ip:127.0.0.1");
+		assertEquals(0, limiter.tryAcquire("ip:127.0.0.1"));
+		assertTrue(limiter.tryAcquire("ip:127.0.0.1") > 0);
+
+		assertEquals(1, limiter.getStatistics().getAllowedCount());
+		assertEquals(1, limiter.getStatistics().getRejectedCount());
+	}
+
+	@Test
+	void checkLogin() {
+		PublicRateLimiter rateLimiter = new PublicRateLimiter(new PublicRateLimiter.Limit(10, 1, 2, 1),
+				new PublicRateLimiter.Limit(1, 1, 1, 1), new PublicRateLimiter.Limit(1, 1, 1, 1));
+
+		rateLimiter.checkLogin("127.0.0.1", "student@mail.com");
+		rateLimiter.checkLogin("127.0.0.2", "student@mail.com");
+		RateLimitExceededException exception = assertThrows(RateLimitExceededException.class,
+				() -> rateLimiter.checkLogin("127.0.0.3", "Student@mail.com"));
+		assertTrue(exception.getRetryAfterSeconds() > 0);
+		assertTrue(exception.getRetryAfterSeconds() <= 60);
+	}
+
+	@Test
+	void sharedAddress() {
+		PublicRateLimiter rateLimiter = new PublicRateLimiter(new PublicRateLimiter.Limit(4, 1, 1, 1),
+				new PublicRateLimiter.Limit(1, 1, 1, 1), new PublicRateLimiter.Limit(1, 1, 1, 1));
+
+		// Clients behind the same NAT, one of them keeps retrying the same username
+		rateLimiter.checkLogin("10.0.0.1", "student@mail.com");
+		for (int i = 0; i < 10; i++) {
+			assertThrows(RateLimitExceededException.class, () -> rateLimiter.checkLogin("10.0.0.1", "student@mail.com"));
+		}
+		// The rejected requests did not take the IP tokens of the others
+		rateLimiter.checkLogin("10.0.0.1", "first@mail.com");
+		rateLimiter.checkLogin("10.0.0.1", "second@mail.com");
+		rateLimiter.checkLogin("10.0.0.1", "third@mail.com");
+		assertThrows(RateLimitExceededException.class, () -> rateLimiter.checkLogin("10.0.0.1", "fourth@mail.com"));
+
+		TokenBucketRateLimiter.Statistics statistics = rateLimiter.getStatistics().get("login");
+		assertEquals(4, statistics.getAllowedCount());
+		assertEquals(11, statistics.getRejectedCount());
+	}
+}
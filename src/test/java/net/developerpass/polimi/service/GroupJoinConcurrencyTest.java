@@ -0,0 +1,206 @@
+package net.developerpass.polimi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.FellowStudent;
+import net.developerpass.polimi.entity.Group;
+import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.repository.FellowStudentRepository;
+import net.developerpass.polimi.repository.GroupRepository;
+import net.developerpass.polimi.repository.ProfessorRepository;
+import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.utils.object.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+/**
+ * Joins and leaves committed by concurrent threads for the same group, the test is not transactional
+ * so every service call commits on its own
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase(replace = NONE)
+@SpringBootTest
+public class GroupJoinConcurrencyTest {
+	private static final int STUDENTS = 8;
+	private static final int THREADS = 16;
+	private static final int CALLS_PER_THREAD = 4;
+
+	@Autowired
+	private StudentService studentService;
+	@Autowired
+	private GroupRepository groupRepository;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private StudentRepository studentRepository;
+	@Autowired
+	private ProfessorRepository professorRepository;
+	@Autowired
+	private FellowStudentRepository fellowStudentRepository;
+
+	private final String defaultPasswordSha3 = "363999f7918bb84260f481cceaed396fb046e8dc25750c5c3ae0e8088ae17b22";
+	private Group group;
+	private List<Student> students;
+
+	@BeforeEach
+	public void beforeEach() {
+		deleteAll();
+		Account professorAccount = accountRepository.save(new Account("professor@mail.com", defaultPasswordSha3, Role.Professor));
+		Professor professor = professorRepository.save(new Professor(professorAccount.getId(), "Professor name", "Professor surname"));
+		Account adminAccount = accountRepository.save(new Account("admin@mail.com", defaultPasswordSha3, Role.Student));
+		Student admin = studentRepository.save(new Student(adminAccount.getId(), "Admin name", "Admin surname"));
+		group = groupRepository.save(new Group(professor.getId(), admin.getId(), "Test Group"));
+		students = new ArrayList<>();
+		for (int i = 0; i < STUDENTS; i++) {
+			Account account = accountRepository.save(new Account(username(i), defaultPasswordSha3, Role.Student));
+			students.add(studentRepository.save(new Student(account.getId(), "Student name", "Student surname")));
+		}
+	}
+
+	@AfterEach
+	public void afterEach() {
+		SecurityContextHolder.clearContext();
+		deleteAll();
+	}
+
+	private void deleteAll() {
+		fellowStudentRepository.deleteAll();
+		groupRepository.deleteAll();
+		studentRepository.deleteAll();
+		professorRepository.deleteAll();
+		accountRepository.deleteAll();
+	}
+
+	private String username(int student) {
+		return "student" + student + "@mail.com";
+	}
+
+	private void login(String username) {
+		User user = new User(username, defaultPasswordSha3, List.of(new SimpleGrantedAuthority(Role.Student.name())));
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+	}
+
+	/**
+	 * Runs the call {@code CALLS_PER_THREAD} times on each of {@code THREADS} threads released together,
+	 * thread i is logged in as the returned username. Returns the number of calls that succeeded.
+	 */
+	private int hammer(IntFunction<String> usernameOfThread, Runnable call) throws InterruptedException, ExecutionException {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger succeeded = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				String username = usernameOfThread.apply(i);
+				futures.add(executor.submit(() -> {
+					login(username);
+					start.await();
+					try {
+						for (int j = 0; j < CALLS_PER_THREAD; j++) {
+							try {
+								call.run();
+								succeeded.incrementAndGet();
+							} catch (IllegalArgumentException e) {
+								rejected.incrementAndGet();
+							} catch (ConcurrencyFailureException e) {
+								conflicts.incrementAndGet();
+							}
+						}
+					} finally {
+						SecurityContextHolder.clearContext();
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+		}
+		log.info(String.format("%d calls succeeded, %d rejected, %d conflicts after the retries", succeeded.get(), rejected.get(), conflicts.get()));
+		assertEquals(THREADS * CALLS_PER_THREAD, succeeded.get() + rejected.get() + conflicts.get());
+		return succeeded.get();
+	}
+
+	private List<FellowStudent> liveFellowStudents() {
+		return fellowStudentRepository.findAll().stream()
+				.filter(fellowStudent -> fellowStudent.getGroupId().equals(group.getId()) && !fellowStudent.getDeleted())
+				.collect(Collectors.toList());
+	}
+
+	private int fellowStudentCount() {
+		return groupRepository.findById(group.getId()).orElseThrow().getFellowStudentCount();
+	}
+
+	@Test
+	void joinGroup() throws InterruptedException, ExecutionException {
+		int succeeded = hammer(thread -> username(thread % STUDENTS), () -> studentService.joinGroup(group.getId()));
+
+		List<FellowStudent> live = liveFellowStudents();
+		assertEquals(Group.MAX_FELLOW_STUDENTS, succeeded);
+		assertEquals(Group.MAX_FELLOW_STUDENTS, live.size());
+		assertEquals(Group.MAX_FELLOW_STUDENTS, live.stream().map(FellowStudent::getStudentId).distinct().count());
+		assertEquals(Group.MAX_FELLOW_STUDENTS, fellowStudentCount());
+	}
+
+	@Test
+	void leaveGroup() throws InterruptedException, ExecutionException {
+		login(username(0));
+		studentService.joinGroup(group.getId());
+		login(username(1));
+		studentService.joinGroup(group.getId());
+		login(username(2));
+		assertThrows(IllegalArgumentException.class, () -> studentService.joinGroup(group.getId()), "The group is full");
+
+		int succeeded = hammer(thread -> username(0), () -> studentService.leaveGroup(group.getId()));
+
+		assertEquals(1, succeeded);
+		assertEquals(1, liveFellowStudents().size());
+		assertEquals(1, fellowStudentCount());
+
+		// The place released can be taken again
+		login(username(2));
+		studentService.joinGroup(group.getId());
+		assertEquals(Group.MAX_FELLOW_STUDENTS, fellowStudentCount());
+		assertEquals(List.of(students.get(1).getId(), students.get(2).getId()), liveFellowStudents().stream()
+				.map(FellowStudent::getStudentId)
+				.sorted()
+				.collect(Collectors.toList()));
+	}
+}
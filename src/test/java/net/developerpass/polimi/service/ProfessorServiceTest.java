@@ -8,6 +8,12 @@ import net.developerpass.polimi.entity.Group;
 import net.developerpass.polimi.entity.Professor;
 import net.developerpass.polimi.entity.Reservation;
 import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.entity.projection.DiscussionSummary;
+import net.developerpass.polimi.entity.projection.FileSummary;
+import net.developerpass.polimi.entity.projection.GroupSummary;
+import net.developerpass.polimi.entity.projection.ProfessorSummary;
+import net.developerpass.polimi.entity.projection.ReservationSummary;
+import net.developerpass.polimi.entity.projection.StudentSummary;
 import net.developerpass.polimi.repository.AccountRepository;
 import net.developerpass.polimi.repository.DiscussionRepository;
 import net.developerpass.polimi.repository.FileRepository;
@@ -15,6 +21,7 @@ import net.developerpass.polimi.repository.GroupRepository;
 import net.developerpass.polimi.repository.ProfessorRepository;
 import net.developerpass.polimi.repository.ReservationRepository;
 import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.utils.object.CursorPage;
 import net.developerpass.polimi.utils.object.Role;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,17 +32,23 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
@@ -49,6 +62,8 @@ import static org.springframework.boot.test.context.SpringBootTest.WebEnvironmen
 @ComponentScan({"net.developerpass.polimi.service", "net.developerpass.polimi.configuration.mail"})
 public class ProfessorServiceTest {
 
+	@Autowired
+	private EntityManager entityManager;
 	@Autowired
 	private FileRepository fileRepository;
 	@Autowired
@@ -109,7 +124,10 @@ public class ProfessorServiceTest {
 	@Test
 	@WithMockUser(username = professorUsername, password = defaultPasswordSha3, authorities = {"Professor"})
 	public void getProfessors() {
-		Page<Professor> professorPage = professorRepository.findAll(PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<ProfessorSummary> professorPage = professorRepository.findAll(PageRequest.of(0, 10))
+				.map(professor -> new ProfessorSummary(professor.getId(), professor.getName(), professor.getSurname(), professor.getCreatedOn()));
 		assertEquals(professorPage, professorService.getProfessors(0, 10));
 	}
 
@@ -124,7 +142,10 @@ public class ProfessorServiceTest {
 	public void getGroups() {
 		groupRepository.save(new Group(professor.getId(), student1.getId(), "Test Group"));
 		assertEquals(1, groupRepository.count());
-		Page<Group> groupPage = groupRepository.findAllByStudentIdAndDeletedFalse(student1.getId(), PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<GroupSummary> groupPage = groupRepository.findAllByStudentIdAndDeletedFalse(student1.getId(), PageRequest.of(0, 10))
+				.map(group -> new GroupSummary(group.getId(), group.getProfessorId(), group.getAdminId(), group.getName(), group.getCreatedOn()));
 		log.warn(String.valueOf(groupPage));
 		assertEquals(1, groupPage.getNumberOfElements());
 		assertEquals(groupPage, professorService.getGroups(0, 10));
@@ -141,7 +162,10 @@ public class ProfessorServiceTest {
 	@Test
 	@WithMockUser(username = professorUsername, password = defaultPasswordSha3, authorities = {"Professor"})
 	public void getStudents() {
-		Page<Student> studentPage = studentRepository.findAll(PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<StudentSummary> studentPage = studentRepository.findAll(PageRequest.of(0, 10))
+				.map(student -> new StudentSummary(student.getId(), student.getName(), student.getSurname(), student.getCreatedOn()));
 		assertEquals(studentPage, professorService.getStudents(0, 10));
 	}
 
@@ -162,7 +186,10 @@ public class ProfessorServiceTest {
 				new File(group.getId(), "Exam 03/10 - 4", UUID.randomUUID().toString()),
 				new File(group.getId(), "Exam 03/10 - 5", UUID.randomUUID().toString())
 		));
-		Page<File> filePage = fileRepository.findAllByGroupIdAndDeletedFalseOrderByCreatedOnDesc(group.getId(), PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<FileSummary> filePage = fileRepository.findAllByGroupIdAndDeletedFalseOrderByCreatedOnDesc(group.getId(), PageRequest.of(0, 10))
+				.map(file -> new FileSummary(file.getId(), file.getGroupId(), file.getName(), file.getFileName(), file.getCreatedOn()));
 		assertEquals(filePage, professorService.getFiles(group.getId(), 0, 10));
 	}
 
@@ -186,10 +213,55 @@ public class ProfessorServiceTest {
 				new Discussion(professor.getId(), "Exam 06/10", now.plusDays(4)),
 				new Discussion(professor.getId(), "Exam 07/10", now.plusDays(5))
 		));
-		Page<Discussion> discussionPage = discussionRepository.findAllByProfessorIdAndDeletedFalse(professor.getId(), PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<DiscussionSummary> discussionPage = discussionRepository.findAllByProfessorIdAndDeletedFalse(professor.getId(), PageRequest.of(0, 10))
+				.map(discussion -> new DiscussionSummary(discussion.getId(), discussion.getProfessorId(), discussion.getName(), discussion.getDate(), discussion.getCreatedOn()));
 		assertEquals(discussionPage, professorService.getDiscussions(0, 10));
 	}
 
+	@Test
+	@WithMockUser(username = professorUsername, password = defaultPasswordSha3, authorities = {"Professor"})
+	public void getDiscussionsSlice() {
+		discussionRepository.saveAll(List.of(
+				new Discussion(professor.getId(), "Exam 03/10", now.plusDays(1)),
+				new Discussion(professor.getId(), "Exam 04/10", now.plusDays(2)),
+				new Discussion(professor.getId(), "Exam 05/10", now.plusDays(3))
+		));
+		entityManager.flush();
+		entityManager.clear();
+		Slice<DiscussionSummary> firstSlice = professorService.getDiscussionsSlice(0, 2);
+		assertEquals(2, firstSlice.getNumberOfElements());
+		assertTrue(firstSlice.hasNext());
+		Slice<DiscussionSummary> lastSlice = professorService.getDiscussionsSlice(1, 2);
+		assertEquals(1, lastSlice.getNumberOfElements());
+		assertFalse(lastSlice.hasNext());
+	}
+
+	@Test
+	@WithMockUser(username = professorUsername, password = defaultPasswordSha3, authorities = {"Professor"})
+	public void getDiscussionsByCursor() {
+		List<Long> discussionIds = discussionRepository.saveAll(List.of(
+				new Discussion(professor.getId(), "Exam 03/10", now.plusDays(1)),
+				new Discussion(professor.getId(), "Exam 04/10", now.plusDays(2)),
+				new Discussion(professor.getId(), "Exam 05/10", now.plusDays(3)),
+				new Discussion(professor.getId(), "Exam 06/10", now.plusDays(4)),
+				new Discussion(professor.getId(), "Exam 07/10", now.plusDays(5))
+		)).stream().map(Discussion::getId).sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+		entityManager.flush();
+		entityManager.clear();
+
+		List<Long> pagedIds = new ArrayList<>();
+		CursorPage<DiscussionSummary> discussionPage = professorService.getDiscussionsByCursor(null, 2);
+		pagedIds.addAll(discussionPage.getContent().stream().map(DiscussionSummary::getId).collect(Collectors.toList()));
+		while (discussionPage.getNextCursor() != null) {
+			discussionPage = professorService.getDiscussionsByCursor(discussionPage.getNextCursor(), 2);
+			pagedIds.addAll(discussionPage.getContent().stream().map(DiscussionSummary::getId).collect(Collectors.toList()));
+		}
+		assertEquals(discussionIds, pagedIds);
+		assertThrows(IllegalArgumentException.class, () -> professorService.getDiscussionsByCursor("invalid", 2), "Invalid cursor");
+	}
+
 	@Test
 	@WithMockUser(username = professorUsername, password = defaultPasswordSha3, authorities = {"Professor"})
 	public void getDiscussion() {
@@ -231,6 +303,23 @@ public class ProfessorServiceTest {
 		assertTrue(discussionRepository.findById(discussion.getId()).get().getDeleted());
 	}
 
+	@Test
+	@WithMockUser(username = professorUsername, password = defaultPasswordSha3, authorities = {"Professor"})
+	public void deleteDiscussionReservations() {
+		Discussion discussion = discussionRepository.save(new Discussion(professor.getId(), "Exam 03/10", now.plusDays(1)));
+		Discussion other = discussionRepository.save(new Discussion(professor.getId(), "Exam 04/10", now.plusDays(2)));
+		for (int i = 0; i < 3; i++) {
+			Group group = groupRepository.save(new Group(professor.getId(), student1.getId(), "Test Group " + i));
+			reservationRepository.save(new Reservation(group.getId(), discussion.getId()));
+			reservationRepository.save(new Reservation(group.getId(), other.getId()));
+		}
+		professorService.deleteDiscussion(discussion.getId());
+		assertTrue(reservationRepository.findAll().stream()
+				.filter(reservation -> reservation.getDiscussionId().equals(discussion.getId()))
+				.allMatch(Reservation::getDeleted));
+		assertEquals(3, reservationRepository.findAllGroupIdsByDiscussionIdAndDeletedFalse(other.getId()).size());
+	}
+
 	@Test
 	@WithMockUser(username = professorUsername, password = defaultPasswordSha3, authorities = {"Professor"})
 	public void getReservations() {
@@ -242,7 +331,13 @@ public class ProfessorServiceTest {
 				new Discussion(professor.getId(), "Exam 06/10", now.plusDays(4)),
 				new Discussion(professor.getId(), "Exam 07/10", now.plusDays(5))
 		)).forEach(discussion -> reservationRepository.save(new Reservation(group.getId(), discussion.getId())));
-		Page<Reservation> reservationPage = reservationRepository.findAllByGroupIdAndDeletedFalse(group.getId(), PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<ReservationSummary> reservationPage = reservationRepository.findAllByGroupIdAndDeletedFalse(group.getId(), PageRequest.of(0, 10))
+				.map(reservation -> {
+					Discussion discussion = discussionRepository.findById(reservation.getDiscussionId()).orElseThrow();
+					return new ReservationSummary(reservation.getId(), reservation.getGroupId(), discussion.getId(), discussion.getName(), discussion.getDate(), reservation.getCreatedOn());
+				});
 		assertEquals(reservationPage, professorService.getReservations(0, 10));
 	}
 
@@ -31,6 +31,7 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
@@ -87,6 +88,15 @@ public class PublicServiceTest {
 		assertEquals(Set.of(customMail, studentMail, professorMail), accountEmails);
 	}
 
+	@Test
+	void registerUsedEmail() {
+		RegisterGeneric registerGeneric = new RegisterGeneric(studentMail.toUpperCase(), defaultPassword, "Mario", "Bros");
+
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> publicService.register(registerGeneric));
+
+		assertEquals("Used email", exception.getMessage());
+	}
+
 	@Test
 	void loginStudent() {
 		String token = publicService.loginStudent(studentMail, defaultPassword);
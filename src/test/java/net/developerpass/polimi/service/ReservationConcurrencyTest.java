@@ -0,0 +1,250 @@
+package net.developerpass.polimi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.Discussion;
+import net.developerpass.polimi.entity.Group;
+import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.entity.Reservation;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.repository.DiscussionRepository;
+import net.developerpass.polimi.repository.GroupRepository;
+import net.developerpass.polimi.repository.ProfessorRepository;
+import net.developerpass.polimi.repository.ReservationRepository;
+import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.utils.object.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+/**
+ * Bookings committed by concurrent threads for the same group, the test is not transactional
+ * so every service call commits on its own
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase(replace = NONE)
+@SpringBootTest
+public class ReservationConcurrencyTest {
+	private static final int THREADS = 16;
+	private static final int CALLS_PER_THREAD = 4;
+
+	@Autowired
+	private StudentService studentService;
+	@Autowired
+	private GroupRepository groupRepository;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private StudentRepository studentRepository;
+	@Autowired
+	private ProfessorRepository professorRepository;
+	@Autowired
+	private DiscussionRepository discussionRepository;
+	@Autowired
+	private ReservationRepository reservationRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final String studentUsername = "student@mail.com";
+	private final String defaultPasswordSha3 = "363999f7918bb84260f481cceaed396fb046e8dc25750c5c3ae0e8088ae17b22";
+	private Group group;
+	private List<Discussion> discussions;
+
+	@BeforeEach
+	public void beforeEach() {
+		deleteAll();
+		Account professorAccount = accountRepository.save(new Account("professor@mail.com", defaultPasswordSha3, Role.Professor));
+		Professor professor = professorRepository.save(new Professor(professorAccount.getId(), "Professor name", "Professor surname"));
+		Account studentAccount = accountRepository.save(new Account(studentUsername, defaultPasswordSha3, Role.Student));
+		Student student = studentRepository.save(new Student(studentAccount.getId(), "Student name", "Student surname"));
+		group = groupRepository.save(new Group(professor.getId(), student.getId(), "Test Group"));
+		discussions = discussionRepository.saveAll(List.of(
+				new Discussion(professor.getId(), "Exam 1", LocalDateTime.now().plusDays(1)),
+				new Discussion(professor.getId(), "Exam 2", LocalDateTime.now().plusDays(2))
+		));
+	}
+
+	@AfterEach
+	public void afterEach() {
+		SecurityContextHolder.clearContext();
+		deleteAll();
+	}
+
+	private void deleteAll() {
+		reservationRepository.deleteAll();
+		groupRepository.deleteAll();
+		discussionRepository.deleteAll();
+		studentRepository.deleteAll();
+		professorRepository.deleteAll();
+		accountRepository.deleteAll();
+	}
+
+	private void login() {
+		User user = new User(studentUsername, defaultPasswordSha3, List.of(new SimpleGrantedAuthority(Role.Student.name())));
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+	}
+
+	/**
+	 * Runs the call {@code CALLS_PER_THREAD} times on each of {@code THREADS} threads released together,
+	 * returns the number of calls that succeeded. A call may only fail because of the booking rules or
+	 * because it kept losing the race after every retry.
+	 */
+	private int hammer(Runnable call) throws InterruptedException, ExecutionException {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger succeeded = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+		List<Future<Void>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				Callable<Void> worker = () -> {
+					login();
+					start.await();
+					try {
+						for (int j = 0; j < CALLS_PER_THREAD; j++) {
+							try {
+								call.run();
+								succeeded.incrementAndGet();
+							} catch (IllegalArgumentException e) {
+								rejected.incrementAndGet();
+							} catch (ConcurrencyFailureException e) {
+								conflicts.incrementAndGet();
+							}
+						}
+					} finally {
+						SecurityContextHolder.clearContext();
+					}
+					return null;
+				};
+				futures.add(executor.submit(worker));
+			}
+			start.countDown();
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+		}
+		log.info(String.format("%d calls succeeded, %d rejected, %d conflicts after the retries", succeeded.get(), rejected.get(), conflicts.get()));
+		assertEquals(THREADS * CALLS_PER_THREAD, succeeded.get() + rejected.get() + conflicts.get());
+		return succeeded.get();
+	}
+
+	private List<Reservation> liveReservations() {
+		return reservationRepository.findAll().stream()
+				.filter(reservation -> !reservation.getDeleted())
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	void createReservation() throws InterruptedException, ExecutionException {
+		AtomicInteger next = new AtomicInteger();
+		int succeeded = hammer(() -> studentService.createReservation(group.getId(),
+				discussions.get(next.getAndIncrement() % discussions.size()).getId()));
+
+		assertEquals(1, succeeded);
+		assertEquals(1, liveReservations().size());
+		assertTrue(groupRepository.findById(group.getId()).orElseThrow().getVersion() >= 1);
+	}
+
+	@Test
+	void updateReservation() throws InterruptedException, ExecutionException {
+		login();
+		Reservation reservation = studentService.createReservation(group.getId(), discussions.get(0).getId());
+
+		AtomicInteger next = new AtomicInteger();
+		int succeeded = hammer(() -> studentService.updateReservation(reservation.getId(),
+				discussions.get(next.getAndIncrement() % discussions.size()).getId()));
+
+		List<Reservation> live = liveReservations();
+		assertTrue(succeeded > 0);
+		assertEquals(1, live.size());
+		assertEquals(reservation.getId(), live.get(0).getId());
+		// Updates to the discussion already reserved do not change the row
+		assertTrue(live.get(0).getVersion() <= reservation.getVersion() + succeeded);
+	}
+
+	@Test
+	void uniqueLiveReservation() {
+		Long discussionId = discussions.get(0).getId();
+		Reservation deleted = new Reservation(group.getId(), discussionId);
+		deleted.setDeleted(true);
+		reservationRepository.save(deleted);
+		Reservation deletedAgain = new Reservation(group.getId(), discussionId);
+		deletedAgain.setDeleted(true);
+		reservationRepository.save(deletedAgain);
+		reservationRepository.save(new Reservation(group.getId(), discussionId));
+
+		assertNull(reservationRepository.findById(deleted.getId()).orElseThrow().getActive());
+		assertThrows(DataIntegrityViolationException.class,
+				() -> reservationRepository.saveAndFlush(new Reservation(group.getId(), discussionId)));
+	}
+
+	@Test
+	void cancelWhileUpdating() throws InterruptedException, ExecutionException {
+		Reservation reservation = reservationRepository.save(new Reservation(group.getId(), discussions.get(0).getId()));
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// The update loads the reservation, the discussion is cancelled and committed on another thread before the update is flushed
+			assertThrows(ConcurrencyFailureException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+				Reservation loaded = reservationRepository.findByIdAndDeletedFalse(reservation.getId()).orElseThrow();
+				try {
+					assertEquals(1, executor.submit(() -> transactionTemplate.execute(
+							cancel -> reservationRepository.softDeleteAllByDiscussionId(discussions.get(0).getId()))).get());
+				} catch (InterruptedException | ExecutionException e) {
+					throw new IllegalStateException(e);
+				}
+				loaded.setDiscussionId(discussions.get(1).getId());
+				reservationRepository.saveAndFlush(loaded);
+			}));
+		} finally {
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+		}
+
+		Reservation cancelled = reservationRepository.findById(reservation.getId()).orElseThrow();
+		assertTrue(cancelled.getDeleted());
+		assertNull(cancelled.getActive());
+		assertEquals(discussions.get(0).getId(), cancelled.getDiscussionId());
+		assertEquals(reservation.getVersion() + 1, cancelled.getVersion());
+		assertFalse(liveReservations().stream().anyMatch(live -> live.getId().equals(reservation.getId())));
+	}
+}
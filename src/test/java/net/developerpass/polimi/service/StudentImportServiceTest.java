@@ -0,0 +1,158 @@
+package net.developerpass.polimi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.utils.object.Role;
+import net.developerpass.polimi.utils.object.StudentImportReport;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.transaction.Transactional;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@Slf4j
+@Transactional
+@SpringJUnitConfig
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase(replace = NONE)
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = "student-import.batch-size=10")
+@ComponentScan({"net.developerpass.polimi.service", "net.developerpass.polimi.configuration.mail"})
+public class StudentImportServiceTest {
+	@Autowired
+	private StudentImportService studentImportService;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private StudentRepository studentRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final String studentMail = "student@mail.com";
+	private final String defaultPassword = "TestPassword123";
+
+	@BeforeEach
+	public void beforeEach() {
+		studentRepository.deleteAll();
+		accountRepository.deleteAll();
+
+		// Flushed, the import reads and writes the accounts through JDBC
+		Account studentAccount = accountRepository.saveAndFlush(new Account(studentMail, DigestUtils.sha3_256Hex(defaultPassword), Role.Student));
+		studentRepository.saveAndFlush(new Student(studentAccount.getId(), "Student name", "Student surname"));
+	}
+
+	private InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void importCsv() {
+		String roster = "username,password,name,surname\n" +
+				IntStream.range(0, 25)
+						.mapToObj(i -> String.format("Student%d@mail.com,%s,Name %d,\"Surname, %d\"", i, defaultPassword, i, i))
+						.collect(Collectors.joining("\n")) +
+				"\ninvalid-mail," + defaultPassword + ",Name,Surname" +
+				"\nstudent1@mail.com," + defaultPassword + ",Name,Surname" +
+				"\n" + studentMail + "," + defaultPassword + ",Name,Surname" +
+				"\nstudent30@mail.com,weak,Name,Surname";
+
+		StudentImportReport report = studentImportService.importStudents(stream(roster), StudentImportService.CSV);
+
+		assertEquals(25, report.getImported());
+		assertEquals(4, report.getFailed());
+		assertFalse(report.isTruncated());
+		assertEquals("Invalid email", report.getErrors().get(0).getMessage());
+		assertEquals(27, report.getErrors().get(0).getLine());
+		assertEquals("Invalid password", report.getErrors().get(1).getMessage());
+		assertEquals("Used email", report.getErrors().get(2).getMessage());
+		assertEquals("Used email", report.getErrors().get(3).getMessage());
+		assertEquals(26, accountRepository.count());
+		assertEquals(26, studentRepository.count());
+
+		Optional<Account> account = accountRepository.findByRoleAndUsernameAndPassword(Role.Student, "student3@mail.com", DigestUtils.sha3_256Hex(defaultPassword));
+		assertTrue(account.isPresent());
+		Optional<Student> student = studentRepository.findByAccountId(account.get().getId());
+		assertTrue(student.isPresent());
+		assertEquals("Surname, 3", student.get().getSurname());
+	}
+
+	@Test
+	void importNdjson() {
+		String roster = "{\"username\":\"mario.bros@mail.com\",\"password\":\"" + defaultPassword + "\",\"name\":\"Mario\",\"surname\":\"Bros\"}\n" +
+				"{\"username\":\"" + studentMail + "\",\"password\":\"" + defaultPassword + "\",\"name\":\"Mario\",\"surname\":\"Bros\"}\n" +
+				"{\"username\":";
+
+		StudentImportReport report = studentImportService.importStudents(stream(roster), StudentImportService.NDJSON);
+
+		assertEquals(1, report.getImported());
+		assertEquals(2, report.getFailed());
+		assertEquals("Invalid row", report.getErrors().get(0).getMessage());
+		assertEquals("Used email", report.getErrors().get(1).getMessage());
+		assertEquals(studentMail, report.getErrors().get(1).getUsername());
+		assertTrue(accountRepository.findByUsername("mario.bros@mail.com").isPresent());
+	}
+
+	/**
+	 * Not transactional, each chunk commits or rolls back on its own as in production
+	 */
+	@Test
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
+	void importRejectedRows() {
+		// Rows the database keeps rejecting whatever the retry
+		jdbcTemplate.execute("ALTER TABLE student ADD CONSTRAINT ck_student_import_test CHECK (surname <> 'Rejected')");
+		try {
+			String roster = IntStream.range(0, 15)
+					.mapToObj(i -> String.format("student%d@mail.com,%s,Name %d,%s", i, defaultPassword, i, i % 7 == 3 ? "Rejected" : "Surname"))
+					.collect(Collectors.joining("\n")) +
+					"\n" + studentMail + "," + defaultPassword + ",Name,Surname";
+
+			StudentImportReport report = studentImportService.importStudents(stream(roster), StudentImportService.CSV);
+
+			assertEquals(13, report.getImported());
+			assertEquals(3, report.getFailed());
+			assertEquals(4, report.getErrors().get(0).getLine());
+			assertEquals("student3@mail.com", report.getErrors().get(0).getUsername());
+			assertEquals("Invalid row", report.getErrors().get(0).getMessage());
+			assertEquals(11, report.getErrors().get(1).getLine());
+			assertEquals("Invalid row", report.getErrors().get(1).getMessage());
+			assertEquals(studentMail, report.getErrors().get(2).getUsername());
+			assertEquals("Used email", report.getErrors().get(2).getMessage());
+			assertEquals(14, accountRepository.count());
+			assertEquals(14, studentRepository.count());
+			assertFalse(accountRepository.findByUsername("student3@mail.com").isPresent());
+			assertTrue(accountRepository.findByUsername("student4@mail.com").isPresent());
+		} finally {
+			jdbcTemplate.execute("ALTER TABLE student DROP CONSTRAINT ck_student_import_test");
+			studentRepository.deleteAll();
+			accountRepository.deleteAll();
+		}
+	}
+
+	@Test
+	void importUnsupportedType() {
+		assertThrows(IllegalArgumentException.class, () -> studentImportService.importStudents(stream(""), "text/plain"));
+	}
+}
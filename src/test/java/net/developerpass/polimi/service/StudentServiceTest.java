@@ -9,6 +9,12 @@ import net.developerpass.polimi.entity.Group;
 import net.developerpass.polimi.entity.Professor;
 import net.developerpass.polimi.entity.Reservation;
 import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.entity.projection.DiscussionSummary;
+import net.developerpass.polimi.entity.projection.FileSummary;
+import net.developerpass.polimi.entity.projection.GroupSummary;
+import net.developerpass.polimi.entity.projection.ProfessorSummary;
+import net.developerpass.polimi.entity.projection.ReservationSummary;
+import net.developerpass.polimi.entity.projection.StudentSummary;
 import net.developerpass.polimi.repository.AccountRepository;
 import net.developerpass.polimi.repository.DiscussionRepository;
 import net.developerpass.polimi.repository.FellowStudentRepository;
@@ -17,6 +23,7 @@ import net.developerpass.polimi.repository.GroupRepository;
 import net.developerpass.polimi.repository.ProfessorRepository;
 import net.developerpass.polimi.repository.ReservationRepository;
 import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.utils.object.CursorPage;
 import net.developerpass.polimi.utils.object.Role;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,15 +39,20 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
@@ -55,6 +67,8 @@ import static org.springframework.boot.test.context.SpringBootTest.WebEnvironmen
 @ComponentScan({"net.developerpass.polimi.service", "net.developerpass.polimi.configuration.mail"})
 public class StudentServiceTest {
 
+	@Autowired
+	private EntityManager entityManager;
 	@Autowired
 	private StudentService studentService;
 	@Autowired
@@ -126,7 +140,10 @@ public class StudentServiceTest {
 	@Test
 	@WithMockUser(username = studentUsername, password = defaultPasswordSha3, authorities = {"Student"})
 	public void getStudents() {
-		Page<Student> studentPage = studentRepository.findAll(PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<StudentSummary> studentPage = studentRepository.findAll(PageRequest.of(0, 10))
+				.map(student -> new StudentSummary(student.getId(), student.getName(), student.getSurname(), student.getCreatedOn()));
 		assertEquals(studentPage, studentService.getStudents(0, 10));
 	}
 
@@ -141,12 +158,34 @@ public class StudentServiceTest {
 	public void getGroups() {
 		groupRepository.save(new Group(professor1.getId(), student.getId(), "Test Group"));
 		assertEquals(1, groupRepository.count());
-		Page<Group> groupPage = groupRepository.findAllByStudentIdAndDeletedFalse(student.getId(), PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<GroupSummary> groupPage = groupRepository.findAllByStudentIdAndDeletedFalse(student.getId(), PageRequest.of(0, 10))
+				.map(group -> new GroupSummary(group.getId(), group.getProfessorId(), group.getAdminId(), group.getName(), group.getCreatedOn()));
 		log.warn(String.valueOf(groupPage));
 		assertEquals(1, groupPage.getNumberOfElements());
 		assertEquals(groupPage, studentService.getGroups(0, 10));
 	}
 
+	@Test
+	@WithMockUser(username = studentUsername, password = defaultPasswordSha3, authorities = {"Student"})
+	public void getGroupsByCursor() {
+		List<Long> groupIds = groupRepository.saveAll(List.of(
+				new Group(professor1.getId(), student.getId(), "Test Group 1"),
+				new Group(professor1.getId(), student.getId(), "Test Group 2"),
+				new Group(professor1.getId(), student.getId(), "Test Group 3")
+		)).stream().map(Group::getId).sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+		entityManager.flush();
+		entityManager.clear();
+
+		CursorPage<GroupSummary> firstPage = studentService.getGroupsByCursor(null, 2);
+		assertEquals(groupIds.subList(0, 2), firstPage.getContent().stream().map(GroupSummary::getId).collect(Collectors.toList()));
+		assertNotNull(firstPage.getNextCursor());
+		CursorPage<GroupSummary> lastPage = studentService.getGroupsByCursor(firstPage.getNextCursor(), 2);
+		assertEquals(groupIds.subList(2, 3), lastPage.getContent().stream().map(GroupSummary::getId).collect(Collectors.toList()));
+		assertNull(lastPage.getNextCursor());
+	}
+
 	@Test
 	@WithMockUser(username = studentUsername, password = defaultPasswordSha3, authorities = {"Student"})
 	public void getGroup() {
@@ -189,6 +228,19 @@ public class StudentServiceTest {
 		assertTrue(groupRepository.findById(group.getId()).get().getDeleted());
 	}
 
+	@Test
+	@WithMockUser(username = studentUsername, password = defaultPasswordSha3, authorities = {"Student"})
+	public void deleteGroupMembersAndFiles() {
+		Account account = accountRepository.save(new Account("student100@mail.com", defaultPasswordSha3, Role.Student));
+		Student fellow = studentRepository.save(new Student(account.getId(), "Student name", "Student surname"));
+		Group group = groupRepository.save(new Group(professor1.getId(), student.getId(), "Test Group"));
+		fellowStudentRepository.save(new FellowStudent(fellow.getId(), group.getId()));
+		fileRepository.save(new File(group.getId(), "Test file", "test.pdf"));
+		studentService.deleteGroup(group.getId());
+		assertTrue(fellowStudentRepository.findByStudentIdAndGroupIdAndDeletedFalse(fellow.getId(), group.getId()).isEmpty());
+		assertTrue(fileRepository.findAll().stream().allMatch(File::getDeleted));
+	}
+
 	@Test
 	@WithMockUser(username = studentUsername, password = defaultPasswordSha3, authorities = {"Student"})
 	public void joinGroup() {
@@ -253,7 +305,10 @@ public class StudentServiceTest {
 				new File(group.getId(), "Exam 03/10 - 4", UUID.randomUUID().toString()),
 				new File(group.getId(), "Exam 03/10 - 5", UUID.randomUUID().toString())
 		));
-		Page<File> filePage = fileRepository.findAllByGroupIdAndDeletedFalseOrderByCreatedOnDesc(group.getId(), PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<FileSummary> filePage = fileRepository.findAllByGroupIdAndDeletedFalseOrderByCreatedOnDesc(group.getId(), PageRequest.of(0, 10))
+				.map(file -> new FileSummary(file.getId(), file.getGroupId(), file.getName(), file.getFileName(), file.getCreatedOn()));
 		assertEquals(filePage, studentService.getFiles(group.getId(), 0, 10));
 	}
 
@@ -291,7 +346,10 @@ public class StudentServiceTest {
 	@Test
 	@WithMockUser(username = studentUsername, password = defaultPasswordSha3, authorities = {"Student"})
 	public void getProfessors() {
-		Page<Professor> professorPage = professorRepository.findAll(PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<ProfessorSummary> professorPage = professorRepository.findAll(PageRequest.of(0, 10))
+				.map(professor -> new ProfessorSummary(professor.getId(), professor.getName(), professor.getSurname(), professor.getCreatedOn()));
 		assertEquals(professorPage, studentService.getProfessors(0, 10));
 	}
 
@@ -311,7 +369,10 @@ public class StudentServiceTest {
 				new Discussion(professor1.getId(), "Exam 06/10", now.plusDays(4)),
 				new Discussion(professor1.getId(), "Exam 07/10", now.plusDays(5))
 		));
-		Page<Discussion> discussionPage = discussionRepository.findAllByProfessorIdAndDeletedFalse(professor1.getId(), PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<DiscussionSummary> discussionPage = discussionRepository.findAllByProfessorIdAndDeletedFalse(professor1.getId(), PageRequest.of(0, 10))
+				.map(discussion -> new DiscussionSummary(discussion.getId(), discussion.getProfessorId(), discussion.getName(), discussion.getDate(), discussion.getCreatedOn()));
 		assertEquals(discussionPage, studentService.getDiscussions(professor1.getId(), 0, 10));
 	}
 
@@ -335,7 +396,13 @@ public class StudentServiceTest {
 				new Discussion(professor1.getId(), "Exam 06/10", now.plusDays(4)),
 				new Discussion(professor1.getId(), "Exam 07/10", now.plusDays(5))
 		)).forEach(discussion -> reservationRepository.save(new Reservation(group.getId(), discussion.getId())));
-		Page<Reservation> reservationPage = reservationRepository.findAllByGroupIdAndDeletedFalse(group.getId(), PageRequest.of(0, 10));
+		entityManager.flush();
+		entityManager.clear();
+		Page<ReservationSummary> reservationPage = reservationRepository.findAllByGroupIdAndDeletedFalse(group.getId(), PageRequest.of(0, 10))
+				.map(reservation -> {
+					Discussion discussion = discussionRepository.findById(reservation.getDiscussionId()).orElseThrow();
+					return new ReservationSummary(reservation.getId(), reservation.getGroupId(), discussion.getId(), discussion.getName(), discussion.getDate(), reservation.getCreatedOn());
+				});
 		assertEquals(reservationPage, studentService.getReservations(group.getId(), 0, 10));
 	}
 
@@ -382,6 +449,23 @@ public class StudentServiceTest {
 		assertFalse(reservationRepository.findById(reservationUpdated.getId()).get().getDeleted());
 	}
 
+	@Test
+	@WithMockUser(username = studentUsername, password = defaultPasswordSha3, authorities = {"Student"})
+	public void updateReservationInvalidDiscussion() {
+		Group group = groupRepository.save(new Group(professor1.getId(), student.getId(), "Test Group"));
+		Discussion discussion = discussionRepository.save(new Discussion(professor1.getId(), "Exam 03/10", now.plusDays(1)));
+		Reservation reservation = studentService.createReservation(group.getId(), discussion.getId());
+		Discussion past = discussionRepository.save(new Discussion(professor1.getId(), "Exam 01/10", now.minusDays(1)));
+		Discussion deleted = new Discussion(professor1.getId(), "Exam 04/10", now.plusDays(2));
+		deleted.setDeleted(true);
+		discussionRepository.save(deleted);
+
+		assertThrows(IllegalArgumentException.class, () -> studentService.updateReservation(reservation.getId(), -1L), "Invalid discussionId");
+		assertThrows(IllegalArgumentException.class, () -> studentService.updateReservation(reservation.getId(), deleted.getId()), "Invalid discussionId");
+		assertThrows(IllegalArgumentException.class, () -> studentService.updateReservation(reservation.getId(), past.getId()), "Unable to update to a past discussion");
+		assertEquals(discussion.getId(), reservationRepository.findById(reservation.getId()).orElseThrow().getDiscussionId());
+	}
+
 	@Test
 	@WithMockUser(username = studentUsername, password = defaultPasswordSha3, authorities = {"Student"})
 	public void deleteReservation() {
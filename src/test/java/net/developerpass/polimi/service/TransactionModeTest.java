@@ -0,0 +1,46 @@
+package net.developerpass.polimi.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The student and professor services run in read-only transactions (manual flush, no snapshots) by default,
+ * every public method that is not a getter must opt in to a read-write transaction.
+ */
+public class TransactionModeTest {
+	private final AnnotationTransactionAttributeSource attributeSource = new AnnotationTransactionAttributeSource();
+
+	private void assertTransactionModes(Class<?> service) {
+		List<Method> methods = Arrays.stream(service.getDeclaredMethods())
+				.filter(method -> Modifier.isPublic(method.getModifiers()))
+				.collect(Collectors.toList());
+		assertTrue(methods.stream().anyMatch(method -> !method.getName().startsWith("get")));
+
+		for (Method method : methods) {
+			TransactionAttribute attribute = attributeSource.getTransactionAttribute(method, service);
+			assertNotNull(attribute, method.getName());
+			assertEquals(method.getName().startsWith("get"), attribute.isReadOnly(), method.getName());
+		}
+	}
+
+	@Test
+	void studentService() {
+		assertTransactionModes(StudentService.class);
+	}
+
+	@Test
+	void professorService() {
+		assertTransactionModes(ProfessorService.class);
+	}
+}
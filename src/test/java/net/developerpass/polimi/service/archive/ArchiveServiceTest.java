@@ -0,0 +1,169 @@
+package net.developerpass.polimi.service.archive;
+
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.Discussion;
+import net.developerpass.polimi.entity.FellowStudent;
+import net.developerpass.polimi.entity.File;
+import net.developerpass.polimi.entity.Group;
+import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.entity.Reservation;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.entity.history.DiscussionHistory;
+import net.developerpass.polimi.entity.history.GroupHistory;
+import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.repository.DiscussionHistoryRepository;
+import net.developerpass.polimi.repository.DiscussionRepository;
+import net.developerpass.polimi.repository.FellowStudentRepository;
+import net.developerpass.polimi.repository.FileHistoryRepository;
+import net.developerpass.polimi.repository.FileRepository;
+import net.developerpass.polimi.repository.GroupHistoryRepository;
+import net.developerpass.polimi.repository.GroupRepository;
+import net.developerpass.polimi.repository.ProfessorRepository;
+import net.developerpass.polimi.repository.ReservationHistoryRepository;
+import net.developerpass.polimi.repository.ReservationRepository;
+import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.utils.object.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+@Transactional
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase(replace = NONE)
+@SpringBootTest(properties = {"archive.enabled=true", "archive.batch-size=2"})
+public class ArchiveServiceTest {
+	@Autowired
+	private ArchiveService archiveService;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private StudentRepository studentRepository;
+	@Autowired
+	private ProfessorRepository professorRepository;
+	@Autowired
+	private GroupRepository groupRepository;
+	@Autowired
+	private FellowStudentRepository fellowStudentRepository;
+	@Autowired
+	private FileRepository fileRepository;
+	@Autowired
+	private DiscussionRepository discussionRepository;
+	@Autowired
+	private ReservationRepository reservationRepository;
+	@Autowired
+	private GroupHistoryRepository groupHistoryRepository;
+	@Autowired
+	private FileHistoryRepository fileHistoryRepository;
+	@Autowired
+	private DiscussionHistoryRepository discussionHistoryRepository;
+	@Autowired
+	private ReservationHistoryRepository reservationHistoryRepository;
+
+	private final String defaultPasswordSha3 = "363999f7918bb84260f481cceaed396fb046e8dc25750c5c3ae0e8088ae17b22";
+	private final LocalDateTime now = LocalDateTime.now().withNano(0);
+	private int accounts;
+
+	@BeforeEach
+	public void beforeEach() {
+		reservationRepository.deleteAll();
+		fileRepository.deleteAll();
+		fellowStudentRepository.deleteAll();
+		groupRepository.deleteAll();
+		discussionRepository.deleteAll();
+		studentRepository.deleteAll();
+		professorRepository.deleteAll();
+		accountRepository.deleteAll();
+	}
+
+	private Student createStudent() {
+		Account account = accountRepository.save(new Account("student" + (++accounts) + "@mail.com", defaultPasswordSha3, Role.Student));
+		return studentRepository.save(new Student(account.getId(), "Student name", "Student surname"));
+	}
+
+	@Test
+	void archive() {
+		Account account = accountRepository.save(new Account("professor@mail.com", defaultPasswordSha3, Role.Professor));
+		Professor professor = professorRepository.save(new Professor(account.getId(), "Professor name", "Professor surname"));
+		Student admin = createStudent();
+		Student fellow = createStudent();
+
+		Discussion future = discussionRepository.save(new Discussion(professor.getId(), "Future", now.plusDays(1)));
+		Discussion past = discussionRepository.save(new Discussion(professor.getId(), "Past", now.minusDays(40)));
+		Discussion cancelled = new Discussion(professor.getId(), "Cancelled", now.plusDays(2));
+		cancelled.setDeleted(true);
+		cancelled = discussionRepository.save(cancelled);
+		Discussion recent = discussionRepository.save(new Discussion(professor.getId(), "Recent", now.minusDays(1)));
+
+		Group live = groupRepository.save(new Group(professor.getId(), admin.getId(), "Live"));
+		FellowStudent liveFellow = fellowStudentRepository.save(new FellowStudent(fellow.getId(), live.getId()));
+		File liveFile = fileRepository.save(new File(live.getId(), "Live file", "live.pdf"));
+		File deletedFile = new File(live.getId(), "Deleted file", "deleted.pdf");
+		deletedFile.setDeleted(true);
+		fileRepository.save(deletedFile);
+		Reservation liveReservation = reservationRepository.save(new Reservation(live.getId(), future.getId()));
+		Reservation deletedReservation = new Reservation(live.getId(), future.getId());
+		deletedReservation.setDeleted(true);
+		reservationRepository.save(deletedReservation);
+		reservationRepository.save(new Reservation(live.getId(), past.getId()));
+		Reservation recentReservation = reservationRepository.save(new Reservation(live.getId(), recent.getId()));
+
+		Group removed = new Group(professor.getId(), createStudent().getId(), "Removed");
+		removed.setDeleted(true);
+		removed = groupRepository.save(removed);
+		fellowStudentRepository.save(new FellowStudent(admin.getId(), removed.getId()));
+		fileRepository.save(new File(removed.getId(), "Removed file", "removed.pdf"));
+		reservationRepository.save(new Reservation(removed.getId(), future.getId()));
+		entityManager.flush();
+		entityManager.clear();
+
+		Map<String, Integer> archived = archiveService.archive();
+		entityManager.clear();
+
+		assertEquals(List.of(3, 1, 2, 1, 2), List.copyOf(archived.values()));
+		assertEquals(Set.of(liveReservation.getId(), recentReservation.getId()),
+				reservationRepository.findAll().stream().map(Reservation::getId).collect(Collectors.toSet()));
+		assertEquals(List.of(liveFellow.getId()),
+				fellowStudentRepository.findAll().stream().map(FellowStudent::getId).collect(Collectors.toList()));
+		assertEquals(List.of(liveFile.getId()),
+				fileRepository.findAll().stream().map(File::getId).collect(Collectors.toList()));
+		assertEquals(List.of(live.getId()),
+				groupRepository.findAll().stream().map(Group::getId).collect(Collectors.toList()));
+		assertEquals(Set.of(future.getId(), recent.getId()),
+				discussionRepository.findAll().stream().map(Discussion::getId).collect(Collectors.toSet()));
+
+		GroupHistory group = groupHistoryRepository.findById(removed.getId()).orElseThrow();
+		assertEquals("Removed", group.getName());
+		assertTrue(group.getDeleted());
+		assertNotNull(group.getArchivedOn());
+		assertEquals(Set.of(past.getId(), cancelled.getId()),
+				discussionHistoryRepository.findAllByProfessorIdOrderByArchivedOnDesc(professor.getId(), PageRequest.of(0, 10))
+						.stream().map(DiscussionHistory::getId).collect(Collectors.toSet()));
+		assertEquals(List.of(removed.getId()),
+				groupHistoryRepository.findAllIdsByStudentId(admin.getId()));
+		assertEquals(2, fileHistoryRepository.findAllByGroupIdInOrderByArchivedOnDesc(Set.of(live.getId(), removed.getId()), PageRequest.of(0, 10)).getTotalElements());
+		assertEquals(3, reservationHistoryRepository.count());
+
+		assertFalse(archiveService.archive().values().stream().anyMatch(moved -> moved > 0));
+	}
+}
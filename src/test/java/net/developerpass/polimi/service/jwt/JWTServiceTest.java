@@ -0,0 +1,61 @@
+package net.developerpass.polimi.service.jwt;
+
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.utils.object.Role;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JWTServiceTest {
+	private final JWTService jwtService = new JWTService("secret", 100, 300);
+
+	private final Account student = new Account(1L, "student@mail.com", "", Role.Student);
+	private final Account professor = new Account(2L, "professor@mail.com", "", Role.Professor);
+
+	@Test
+	void verify() {
+		String token = jwtService.create(student, 7L);
+
+		TokenClaims claims = jwtService.verify(token);
+		assertEquals(student.getId(), claims.getAccountId());
+		assertEquals(Role.Student, claims.getRole());
+		assertEquals("student@mail.com", claims.getUsername());
+		assertEquals(7L, claims.getUserId().longValue());
+		assertEquals(0, claims.getTokenVersion().intValue());
+
+		// Served from the cache, the signature is not verified again
+		assertSame(claims, jwtService.verify(token));
+		assertEquals(1, jwtService.getClaimsCacheStatistics().getHitCount());
+		assertEquals(1, jwtService.getClaimsCacheStatistics().getMissCount());
+	}
+
+	@Test
+	void invalidate() {
+		String studentToken = jwtService.create(student, 7L);
+		String professorToken = jwtService.create(professor, 3L);
+		TokenClaims studentClaims = jwtService.verify(studentToken);
+		TokenClaims professorClaims = jwtService.verify(professorToken);
+
+		jwtService.invalidate(student.getId());
+
+		assertEquals(1, jwtService.getClaimsCacheStatistics().getSize());
+		assertSame(professorClaims, jwtService.verify(professorToken));
+		TokenClaims verifiedAgain = jwtService.verify(studentToken);
+		assertNotSame(studentClaims, verifiedAgain);
+		assertEquals(studentClaims, verifiedAgain);
+	}
+
+	@Test
+	void rejectedNotCached() {
+		String token = jwtService.create(student, 7L);
+		String otherSecretToken = new JWTService("other", 100, 300).create(student, 7L);
+
+		assertThrows(JWTService.TokenVerificationException.class, () -> jwtService.verify(otherSecretToken));
+		assertThrows(JWTService.TokenVerificationException.class, () -> jwtService.verify(token + "x"));
+		assertThrows(JWTService.TokenVerificationException.class, () -> jwtService.verify(otherSecretToken));
+		assertEquals(0, jwtService.getClaimsCacheStatistics().getSize());
+	}
+}
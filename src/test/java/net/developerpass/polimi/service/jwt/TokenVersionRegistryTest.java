@@ -0,0 +1,109 @@
+package net.developerpass.polimi.service.jwt;
+
+import net.developerpass.polimi.configuration.mail.CustomMailSender;
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.repository.ProfessorRepository;
+import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.utils.object.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TokenVersionRegistryTest {
+	private static final String USERNAME = "student@mail.com";
+
+	private final AccountRepository accountRepository = mock(AccountRepository.class);
+	private final CustomMailSender customMailSender = mock(CustomMailSender.class);
+	private final TokenVersionRegistry tokenVersionRegistry = new TokenVersionRegistry(accountRepository, 100, 60);
+	private final JWTService jwtService = new JWTService("secret", 100, 300);
+	private final JWTAuthenticationService jwtAuthenticationService = new JWTAuthenticationService(
+			jwtService, customMailSender, accountRepository, mock(StudentRepository.class), mock(ProfessorRepository.class), tokenVersionRegistry);
+
+	private Account account;
+
+	@BeforeEach
+	public void beforeEach() {
+		account = new Account(1L, USERNAME, "", Role.Student);
+		given(accountRepository.findById(account.getId())).willReturn(Optional.of(account));
+		given(accountRepository.findByRoleAndUsername(Role.Student, USERNAME)).willReturn(Optional.of(account));
+		given(customMailSender.sendResetStudent(eq(USERNAME), any())).willReturn(true);
+	}
+
+	@AfterEach
+	public void afterEach() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void rejectedAfterReset() {
+		String token = jwtService.create(account, 7L);
+		assertEquals(7L, jwtAuthenticationService.authenticateByToken(token).getUserId().longValue());
+
+		jwtAuthenticationService.reset(Role.Student, USERNAME);
+
+		assertEquals(1, account.getTokenVersion().intValue());
+		assertThrows(BadCredentialsException.class, () -> jwtAuthenticationService.authenticateByToken(token));
+		// A token issued after the reset carries the new version
+		String newToken = jwtService.create(account, 7L);
+		assertEquals(7L, jwtAuthenticationService.authenticateByToken(newToken).getUserId().longValue());
+		// Loaded once, the reset replaced the cached version without a query
+		verify(accountRepository, times(1)).findById(account.getId());
+	}
+
+	@Test
+	void unknownAccount() {
+		assertFalse(tokenVersionRegistry.isCurrent(2L, 0));
+		assertFalse(tokenVersionRegistry.isCurrent(account.getId(), null));
+	}
+
+	@Test
+	void revokeAfterCommit() {
+		assertTrue(tokenVersionRegistry.isCurrent(account.getId(), 0));
+
+		TransactionSynchronizationManager.initSynchronization();
+		tokenVersionRegistry.revoke(account);
+
+		// Not committed yet, the old tokens are still accepted
+		assertEquals(1, account.getTokenVersion().intValue());
+		assertTrue(tokenVersionRegistry.isCurrent(account.getId(), 0));
+
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+		assertFalse(tokenVersionRegistry.isCurrent(account.getId(), 0));
+		assertTrue(tokenVersionRegistry.isCurrent(account.getId(), 1));
+	}
+
+	@Test
+	void revokeRolledBack() {
+		assertTrue(tokenVersionRegistry.isCurrent(account.getId(), 0));
+
+		TransactionSynchronizationManager.initSynchronization();
+		tokenVersionRegistry.revoke(account);
+		TransactionSynchronizationManager.getSynchronizations()
+				.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+		assertTrue(tokenVersionRegistry.isCurrent(account.getId(), 0));
+		assertFalse(tokenVersionRegistry.isCurrent(account.getId(), 1));
+	}
+}
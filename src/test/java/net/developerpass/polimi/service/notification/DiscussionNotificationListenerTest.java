@@ -0,0 +1,202 @@
+package net.developerpass.polimi.service.notification;
+
+import net.developerpass.polimi.entity.Account;
+import net.developerpass.polimi.entity.Discussion;
+import net.developerpass.polimi.entity.FellowStudent;
+import net.developerpass.polimi.entity.Group;
+import net.developerpass.polimi.entity.OutboxMail;
+import net.developerpass.polimi.entity.Professor;
+import net.developerpass.polimi.entity.Reservation;
+import net.developerpass.polimi.entity.Student;
+import net.developerpass.polimi.repository.AccountRepository;
+import net.developerpass.polimi.repository.DiscussionRepository;
+import net.developerpass.polimi.repository.FellowStudentRepository;
+import net.developerpass.polimi.repository.GroupRepository;
+import net.developerpass.polimi.repository.OutboxMailRepository;
+import net.developerpass.polimi.repository.ProfessorRepository;
+import net.developerpass.polimi.repository.ReservationRepository;
+import net.developerpass.polimi.repository.StudentRepository;
+import net.developerpass.polimi.service.ProfessorService;
+import net.developerpass.polimi.utils.object.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+/**
+ * Discussion changes committed by the professor service, the test is not transactional so the
+ * before-commit listener runs at the end of the service transaction as in production
+ */
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase(replace = NONE)
+@SpringBootTest
+public class DiscussionNotificationListenerTest {
+	private static final String PROFESSOR_USERNAME = "professor@mail.com";
+	private static final String DEFAULT_PASSWORD_SHA3 = "363999f7918bb84260f481cceaed396fb046e8dc25750c5c3ae0e8088ae17b22";
+
+	/**
+	 * Records every event when it is published, before the transaction ends
+	 */
+	@TestConfiguration
+	static class PublishedEvents {
+		private final List<DiscussionChangedEvent> events = new CopyOnWriteArrayList<>();
+
+		@EventListener
+		public void onDiscussionChanged(DiscussionChangedEvent event) {
+			events.add(event);
+		}
+	}
+
+	@Autowired
+	private PublishedEvents publishedEvents;
+	@Autowired
+	private ProfessorService professorService;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private GroupRepository groupRepository;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private StudentRepository studentRepository;
+	@Autowired
+	private ProfessorRepository professorRepository;
+	@Autowired
+	private DiscussionRepository discussionRepository;
+	@Autowired
+	private ReservationRepository reservationRepository;
+	@Autowired
+	private OutboxMailRepository outboxMailRepository;
+	@Autowired
+	private FellowStudentRepository fellowStudentRepository;
+
+	private Group group;
+	private Discussion discussion;
+
+	@BeforeEach
+	public void beforeEach() {
+		deleteAll();
+		Account professorAccount = accountRepository.save(new Account(PROFESSOR_USERNAME, DEFAULT_PASSWORD_SHA3, Role.Professor));
+		Professor professor = professorRepository.save(new Professor(professorAccount.getId(), "Professor name", "Professor surname"));
+		group = groupRepository.save(new Group(professor.getId(), createStudent("admin@mail.com").getId(), "Test Group"));
+		fellowStudentRepository.save(new FellowStudent(createStudent("fellow@mail.com").getId(), group.getId()));
+		FellowStudent left = new FellowStudent(createStudent("left@mail.com").getId(), group.getId());
+		left.setDeleted(true);
+		fellowStudentRepository.save(left);
+		discussion = discussionRepository.save(new Discussion(professor.getId(), "Exam", LocalDateTime.now().withNano(0).plusDays(1)));
+		reservationRepository.save(new Reservation(group.getId(), discussion.getId()));
+	}
+
+	@AfterEach
+	public void afterEach() {
+		deleteAll();
+	}
+
+	private void deleteAll() {
+		publishedEvents.events.clear();
+		outboxMailRepository.deleteAll();
+		reservationRepository.deleteAll();
+		fellowStudentRepository.deleteAll();
+		groupRepository.deleteAll();
+		discussionRepository.deleteAll();
+		studentRepository.deleteAll();
+		professorRepository.deleteAll();
+		accountRepository.deleteAll();
+	}
+
+	private Student createStudent(String username) {
+		Account account = accountRepository.save(new Account(username, DEFAULT_PASSWORD_SHA3, Role.Student));
+		return studentRepository.save(new Student(account.getId(), "Student name", "Student surname"));
+	}
+
+	private void assertMails(List<OutboxMail> mails, String typeMail) {
+		assertEquals(Set.of("admin@mail.com", "fellow@mail.com"), mails.stream().map(OutboxMail::getRecipient).collect(Collectors.toSet()));
+		assertEquals(2, mails.size());
+		assertTrue(mails.stream().allMatch(mail -> mail.getTypeMail().equals(typeMail)));
+	}
+
+	@Test
+	@WithMockUser(username = PROFESSOR_USERNAME, password = DEFAULT_PASSWORD_SHA3, authorities = {"Professor"})
+	void updateDiscussion() {
+		LocalDateTime date = LocalDateTime.now().withNano(0).plusDays(2);
+		transactionTemplate.execute(status -> {
+			professorService.updateDiscussion(discussion.getId(), "Exam moved", date);
+			// Published, but nothing is queued before the commit
+			assertEquals(1, publishedEvents.events.size());
+			assertEquals(0, outboxMailRepository.count());
+			return null;
+		});
+
+		DiscussionChangedEvent event = publishedEvents.events.get(0);
+		assertEquals(discussion.getId(), event.getDiscussionId());
+		assertEquals("Exam moved", event.getName());
+		assertEquals(date, event.getDate());
+		assertFalse(event.isCancelled());
+		assertEquals(List.of(group.getId()), event.getGroupIds());
+		// Queued in the same transaction, the mails are there as soon as the change is committed
+		assertMails(outboxMailRepository.findAll(), "sendDiscussionRescheduled");
+	}
+
+	@Test
+	@WithMockUser(username = PROFESSOR_USERNAME, password = DEFAULT_PASSWORD_SHA3, authorities = {"Professor"})
+	void updateDiscussionSameDate() {
+		professorService.updateDiscussion(discussion.getId(), "Exam renamed", discussion.getDate());
+
+		assertTrue(publishedEvents.events.isEmpty());
+	}
+
+	@Test
+	@WithMockUser(username = PROFESSOR_USERNAME, password = DEFAULT_PASSWORD_SHA3, authorities = {"Professor"})
+	void deleteDiscussion() {
+		transactionTemplate.execute(status -> {
+			professorService.deleteDiscussion(discussion.getId());
+			assertEquals(1, publishedEvents.events.size());
+			assertEquals(0, outboxMailRepository.count());
+			return null;
+		});
+
+		DiscussionChangedEvent event = publishedEvents.events.get(0);
+		assertEquals(discussion.getId(), event.getDiscussionId());
+		assertTrue(event.isCancelled());
+		// Captured before the reservations were deleted
+		assertEquals(List.of(group.getId()), event.getGroupIds());
+		assertMails(outboxMailRepository.findAll(), "sendDiscussionCancelled");
+	}
+
+	@Test
+	@WithMockUser(username = PROFESSOR_USERNAME, password = DEFAULT_PASSWORD_SHA3, authorities = {"Professor"})
+	void rolledBackChange() {
+		transactionTemplate.execute(status -> {
+			professorService.deleteDiscussion(discussion.getId());
+			status.setRollbackOnly();
+			return null;
+		});
+		assertEquals(1, publishedEvents.events.size());
+		// The mails are rolled back with the change
+		assertEquals(0, outboxMailRepository.count());
+		assertFalse(discussionRepository.findById(discussion.getId()).orElseThrow().getDeleted());
+
+		// A committed change afterwards is the only one notified
+		professorService.updateDiscussion(discussion.getId(), "Exam moved", LocalDateTime.now().withNano(0).plusDays(2));
+		assertMails(outboxMailRepository.findAll(), "sendDiscussionRescheduled");
+	}
+}
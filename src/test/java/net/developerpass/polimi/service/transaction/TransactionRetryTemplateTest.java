@@ -0,0 +1,74 @@
+package net.developerpass.polimi.service.transaction;
+
+import net.developerpass.polimi.entity.FellowStudent;
+import net.developerpass.polimi.entity.Reservation;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+public class TransactionRetryTemplateTest {
+	private static final int MAX_ATTEMPTS = 3;
+
+	private final TransactionRetryTemplate transactionRetryTemplate =
+			new TransactionRetryTemplate(mock(PlatformTransactionManager.class), MAX_ATTEMPTS, 0);
+
+	/**
+	 * Runs an action always failing with the exception, returns the number of attempts before it gave up
+	 */
+	private int attempts(RuntimeException failure, Class<? extends RuntimeException> thrown) {
+		AtomicInteger attempts = new AtomicInteger();
+		assertThrows(thrown, () -> transactionRetryTemplate.execute(() -> {
+			attempts.incrementAndGet();
+			throw failure;
+		}));
+		return attempts.get();
+	}
+
+	private DataIntegrityViolationException violation(String constraintName) {
+		return new DataIntegrityViolationException("could not execute statement",
+				new ConstraintViolationException("could not execute statement", new SQLException("Duplicate entry"), constraintName));
+	}
+
+	@Test
+	void concurrencyFailure() {
+		assertEquals(MAX_ATTEMPTS, attempts(new ConcurrencyFailureException("Row was updated or deleted by another transaction"), ConcurrencyFailureException.class));
+	}
+
+	@Test
+	void raceConstraint() {
+		// Answered as a conflict once the retries run out
+		assertEquals(MAX_ATTEMPTS, attempts(violation(Reservation.UNIQUE_ACTIVE), ConcurrencyFailureException.class));
+		assertEquals(MAX_ATTEMPTS, attempts(violation("FellowStudent." + FellowStudent.UNIQUE_ACTIVE), ConcurrencyFailureException.class));
+		assertEquals(MAX_ATTEMPTS, attempts(violation("unique constraint or index violation; " + Reservation.UNIQUE_ACTIVE.toUpperCase()),
+				ConcurrencyFailureException.class));
+	}
+
+	@Test
+	void otherViolation() {
+		assertEquals(1, attempts(violation("uk_account_username"), DataIntegrityViolationException.class));
+		assertEquals(1, attempts(violation(null), DataIntegrityViolationException.class));
+		assertEquals(1, attempts(new DataIntegrityViolationException("Column 'name' cannot be null"), DataIntegrityViolationException.class));
+	}
+
+	@Test
+	void retriedUntilSuccess() {
+		AtomicInteger attempts = new AtomicInteger();
+		String result = transactionRetryTemplate.execute(() -> {
+			if (attempts.incrementAndGet() < MAX_ATTEMPTS) {
+				throw violation(Reservation.UNIQUE_ACTIVE);
+			}
+			return "committed";
+		});
+		assertEquals("committed", result);
+		assertEquals(MAX_ATTEMPTS, attempts.get());
+	}
+}
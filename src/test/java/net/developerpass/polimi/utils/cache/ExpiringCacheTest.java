@@ -0,0 +1,126 @@
+package net.developerpass.polimi.utils.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExpiringCacheTest {
+
+	/**
+	 * Clock moved by hand, so the expirations do not depend on the test speed
+	 */
+	private static class ManualClock extends Clock {
+		private Instant now = Instant.parse("2020-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+
+	private final ManualClock clock = new ManualClock();
+
+	@Test
+	void evictLeastRecentlyUsed() {
+		ExpiringCache<String, Integer> cache = new ExpiringCache<>(2, Duration.ofMinutes(1), clock);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		// Reading "a" makes "b" the least recently used entry
+		assertEquals(Optional.of(1), cache.getIfPresent("a"));
+		cache.put("c", 3);
+
+		assertEquals(2, cache.size());
+		assertEquals(Optional.of(1), cache.getIfPresent("a"));
+		assertEquals(Optional.empty(), cache.getIfPresent("b"));
+		assertEquals(Optional.of(3), cache.getIfPresent("c"));
+
+		ExpiringCache.Statistics statistics = cache.getStatistics();
+		assertEquals(3, statistics.getHitCount());
+		assertEquals(1, statistics.getMissCount());
+		assertEquals(1, statistics.getEvictionCount());
+	}
+
+	@Test
+	void expireAfterTimeToLive() {
+		ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofSeconds(60), clock);
+		cache.put("a", 1);
+
+		clock.advance(Duration.ofSeconds(59));
+		assertEquals(Optional.of(1), cache.getIfPresent("a"));
+
+		clock.advance(Duration.ofSeconds(1));
+		assertEquals(Optional.empty(), cache.getIfPresent("a"));
+		assertEquals(0, cache.size());
+		assertEquals(1, cache.getStatistics().getEvictionCount());
+	}
+
+	@Test
+	void expireAtEarlierInstant() {
+		ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofSeconds(60), clock);
+		cache.put("short", 1, clock.instant().plusSeconds(10));
+		// A later expiration is capped by the time to live
+		cache.put("long", 2, clock.instant().plusSeconds(120));
+
+		clock.advance(Duration.ofSeconds(10));
+		assertEquals(Optional.empty(), cache.getIfPresent("short"));
+		assertEquals(Optional.of(2), cache.getIfPresent("long"));
+
+		clock.advance(Duration.ofSeconds(50));
+		assertEquals(Optional.empty(), cache.getIfPresent("long"));
+	}
+
+	@Test
+	void loadOnMiss() {
+		ExpiringCache<Long, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(60), clock);
+		AtomicInteger loads = new AtomicInteger();
+
+		assertEquals("1", cache.get(1L, key -> String.valueOf(loads.incrementAndGet())));
+		assertEquals("1", cache.get(1L, key -> String.valueOf(loads.incrementAndGet())));
+		assertEquals(1, loads.get());
+
+		clock.advance(Duration.ofSeconds(60));
+		assertEquals("2", cache.get(1L, key -> String.valueOf(loads.incrementAndGet())));
+	}
+
+	@Test
+	void invalidate() {
+		ExpiringCache<Long, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(60), clock);
+		cache.put(1L, "student");
+		cache.put(2L, "professor");
+		cache.put(3L, "student");
+
+		cache.invalidate(2L);
+		assertEquals(Optional.empty(), cache.getIfPresent(2L));
+
+		cache.invalidateIf("student"::equals);
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void invalidMaximumSize() {
+		assertThrows(IllegalArgumentException.class, () -> new ExpiringCache<>(0, Duration.ofSeconds(60), clock));
+	}
+}